@@ -0,0 +1,126 @@
+package org.cyclonedx.maven;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+
+/**
+ * Synthetic inputs and stubs shared by the benchmarks, to measure the plugin code without Maven container or
+ * repository access.
+ */
+final class BenchmarkSupport {
+    static final ProjectDependenciesConverter.MavenDependencyScopes SCOPES =
+            new ProjectDependenciesConverter.MavenDependencyScopes(true, true, true, false, false);
+    static final String[] EXCLUDE_TYPES = new String[0];
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Sets a field normally injected by the Maven container.
+     */
+    static void inject(final Object target, final String fieldName, final Object value) {
+        try {
+            final Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to inject " + fieldName, e);
+        }
+    }
+
+    /**
+     * Creates a stub of an interface answering the named method, and failing on any other method.
+     */
+    static <T> T stub(final Class<T> type, final String methodName, final Function<Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }));
+    }
+
+    @SuppressWarnings("deprecation")
+    static MavenSession newMavenSession() {
+        return new MavenSession(null, new DefaultRepositorySystemSession(), new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    }
+
+    static org.apache.maven.artifact.Artifact newMavenArtifact(final String groupId, final String artifactId, final String version, final String type) {
+        return new org.apache.maven.artifact.DefaultArtifact(groupId, artifactId, version, "compile", type, null, new DefaultArtifactHandler(type));
+    }
+
+    static Artifact newAetherArtifact(final int index) {
+        return new DefaultArtifact("org.example.group" + (index % 50), "artifact-" + index, "", "jar", "1.0." + index,
+                Collections.singletonMap(ArtifactProperties.TYPE, "jar"), (File) null);
+    }
+
+    /**
+     * Creates a dependency graph of the given size: a tree with fan-out 4, where some nodes are also shared by a
+     * second parent as in real dependency graphs.
+     */
+    static DependencyNode newDependencyGraph(final int size) {
+        final List<DefaultDependencyNode> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(new DefaultDependencyNode(new Dependency(newAetherArtifact(i), "compile")));
+        }
+        for (int i = 1; i < size; i++) {
+            nodes.get((i - 1) / 4).getChildren().add(nodes.get(i));
+        }
+        for (int i = 1; i < size; i++) {
+            final int shared = (i * 7) % size;
+            if (shared > i && (shared - 1) / 4 != i) {
+                nodes.get(i).getChildren().add(nodes.get(shared));
+            }
+        }
+        return nodes.get(0);
+    }
+
+    static Component newComponent(final int index) {
+        final Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setGroup("org.example.group" + (index % 50));
+        component.setName("artifact-" + index);
+        component.setVersion("1.0." + index);
+        component.setPurl("pkg:maven/" + component.getGroup() + '/' + component.getName() + '@' + component.getVersion() + "?type=jar");
+        component.setBomRef(component.getPurl());
+        component.setDescription("Synthetic component " + index);
+        component.addHash(new Hash(Hash.Algorithm.SHA_256, String.format("%064x", index)));
+        component.addHash(new Hash(Hash.Algorithm.SHA1, String.format("%040x", index)));
+        final License license = new License();
+        license.setId("Apache-2.0");
+        final LicenseChoice licenseChoice = new LicenseChoice();
+        licenseChoice.addLicense(license);
+        component.setLicenses(licenseChoice);
+        return component;
+    }
+}
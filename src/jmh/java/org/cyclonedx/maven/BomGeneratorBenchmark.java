@@ -0,0 +1,80 @@
+package org.cyclonedx.maven;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BOM serialization to JSON and XML, streamed as done for the output files: returns the byte count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BomGeneratorBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int components;
+
+    private Bom bom;
+
+    @Setup
+    public void setup() {
+        final Component main = BenchmarkSupport.newComponent(0);
+        final Dependency mainDependency = new Dependency(main.getBomRef());
+        final List<Component> bomComponents = new ArrayList<>(components);
+        final List<Dependency> bomDependencies = new ArrayList<>(components + 1);
+        bomDependencies.add(mainDependency);
+        for (int i = 1; i <= components; i++) {
+            final Component component = BenchmarkSupport.newComponent(i);
+            bomComponents.add(component);
+            mainDependency.addDependency(new Dependency(component.getBomRef()));
+            final Dependency dependency = new Dependency(component.getBomRef());
+            if (i + 1 <= components) {
+                dependency.addDependency(new Dependency(BenchmarkSupport.newComponent(i + 1).getBomRef()));
+            }
+            bomDependencies.add(dependency);
+        }
+        final Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom = new Bom();
+        bom.setMetadata(metadata);
+        bom.setComponents(bomComponents);
+        bom.setDependencies(bomDependencies);
+    }
+
+    @Benchmark
+    public long json() throws GeneratorException {
+        final CountingOutputStream out = new CountingOutputStream(NullOutputStream.INSTANCE);
+        new StreamingBomJsonGenerator(bom, Version.VERSION_16).writeTo(out);
+        return out.getByteCount();
+    }
+
+    @Benchmark
+    public long xml() throws GeneratorException {
+        final CountingOutputStream out = new CountingOutputStream(NullOutputStream.INSTANCE);
+        new StreamingBomXmlGenerator(bom, Version.VERSION_16).writeTo(out);
+        return out.getByteCount();
+    }
+}
@@ -0,0 +1,108 @@
+package org.cyclonedx.maven;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.eclipse.aether.graph.DependencyNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BOM dependency graph building from synthetic Aether dependency graphs, BOM dependencies cleanup and materialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyGraphBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    private DefaultProjectDependenciesConverter projectDependenciesConverter;
+
+    private DependencyNode root;
+
+    private Metadata metadata;
+
+    private Map<String, Component> components;
+
+    private DependencyGraph dependencies;
+
+    private SubgraphCache subgraphCache;
+
+    @Setup
+    public void setup() {
+        projectDependenciesConverter = new DefaultProjectDependenciesConverter();
+        BenchmarkSupport.inject(projectDependenciesConverter, "modelConverter", new DefaultModelConverter());
+        BenchmarkSupport.inject(projectDependenciesConverter, "stringPool", new StringPool());
+        root = BenchmarkSupport.newDependencyGraph(nodes);
+
+        dependencies = buildDependencyGraph();
+        subgraphCache = new SubgraphCache();
+        buildDependencyGraphWithSubgraphCache();
+        components = new LinkedHashMap<>();
+        for (int i = 1; i < nodes; i++) {
+            final Component component = BenchmarkSupport.newComponent(i);
+            components.put(component.getBomRef(), component);
+        }
+        metadata = new Metadata();
+        metadata.setComponent(BenchmarkSupport.newComponent(0));
+    }
+
+    @Benchmark
+    public DependencyGraph buildDependencyGraph() {
+        final DependencyGraph graph = new DependencyGraph();
+        projectDependenciesConverter.buildDependencyGraph(graph, root, BenchmarkSupport.SCOPES, BenchmarkSupport.EXCLUDE_TYPES, null);
+        return graph;
+    }
+
+    /**
+     * Walk of a graph already walked in another module of the session.
+     */
+    @Benchmark
+    public DependencyGraph buildDependencyGraphWithSubgraphCache() {
+        final DependencyGraph graph = new DependencyGraph();
+        projectDependenciesConverter.buildDependencyGraph(graph, root, BenchmarkSupport.SCOPES, BenchmarkSupport.EXCLUDE_TYPES, subgraphCache);
+        return graph;
+    }
+
+    @Benchmark
+    public Map<String, Component> cleanupBomDependencies() {
+        projectDependenciesConverter.cleanupBomDependencies(metadata, components, dependencies);
+        return components;
+    }
+
+    /**
+     * Aggregate of ten modules with the same dependencies, sorting the union of their edges.
+     */
+    @Benchmark
+    public DependencyGraph mergeDependencyGraphs() {
+        final DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 10; i++) {
+            graph.mergeAll(dependencies);
+        }
+        graph.sortDependsOn();
+        return graph;
+    }
+
+    @Benchmark
+    public List<Dependency> toDependencies() {
+        return dependencies.toDependencies();
+    }
+}
@@ -0,0 +1,107 @@
+package org.cyclonedx.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.IssueManagement;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Organization;
+import org.apache.maven.model.Scm;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.apache.maven.repository.RepositorySystem;
+import org.cyclonedx.Version;
+import org.cyclonedx.model.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of a Maven dependency to a component: hashing of the artifact file and metadata extraction, with
+ * repository access and effective POM building stubbed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelConverterBenchmark {
+    @Param({"16384", "1048576"})
+    public int artifactSize;
+
+    private DefaultModelConverter modelConverter;
+
+    private Artifact artifact;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] content = new byte[artifactSize];
+        new Random(42).nextBytes(content);
+        file = File.createTempFile("cyclonedx-benchmark", ".jar");
+        Files.write(file.toPath(), content);
+        artifact = BenchmarkSupport.newMavenArtifact("org.apache.commons", "commons-lang3", "3.14.0", "jar");
+        artifact.setFile(file);
+
+        final MavenProject project = new MavenProject(newModel());
+        final ProjectBuildingResult result = BenchmarkSupport.stub(ProjectBuildingResult.class, "getProject", args -> project);
+
+        modelConverter = new DefaultModelConverter();
+        BenchmarkSupport.inject(modelConverter, "session", BenchmarkSupport.newMavenSession());
+        BenchmarkSupport.inject(modelConverter, "repositorySystem", BenchmarkSupport.stub(RepositorySystem.class, "createProjectArtifact",
+                args -> BenchmarkSupport.newMavenArtifact((String) args[0], (String) args[1], (String) args[2], "pom")));
+        BenchmarkSupport.inject(modelConverter, "mavenProjectBuilder", BenchmarkSupport.stub(ProjectBuilder.class, "build", args -> result));
+        BenchmarkSupport.inject(modelConverter, "stringPool", new StringPool());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private static Model newModel() {
+        final Model model = new Model();
+        model.setGroupId("org.apache.commons");
+        model.setArtifactId("commons-lang3");
+        model.setVersion("3.14.0");
+        model.setDescription("Apache Commons Lang, a package of Java utility classes for the classes that are in java.lang's hierarchy.");
+        model.setUrl("https://commons.apache.org/proper/commons-lang/");
+        final Organization organization = new Organization();
+        organization.setName("The Apache Software Foundation");
+        model.setOrganization(organization);
+        final License license = new License();
+        license.setName("Apache-2.0");
+        license.setUrl("https://www.apache.org/licenses/LICENSE-2.0.txt");
+        model.setLicenses(Collections.singletonList(license));
+        final IssueManagement issueManagement = new IssueManagement();
+        issueManagement.setUrl("https://issues.apache.org/jira/browse/LANG");
+        model.setIssueManagement(issueManagement);
+        final Scm scm = new Scm();
+        scm.setUrl("https://gitbox.apache.org/repos/asf?p=commons-lang.git");
+        model.setScm(scm);
+        return model;
+    }
+
+    @Benchmark
+    public Component convertMavenDependency() {
+        return modelConverter.convertMavenDependency(artifact, Version.VERSION_16, false, new ExecutionMetrics());
+    }
+}
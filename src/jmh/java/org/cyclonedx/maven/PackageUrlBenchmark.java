@@ -0,0 +1,54 @@
+package org.cyclonedx.maven;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Package URL generation from Maven and Aether artifacts, done several times for every dependency graph node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageUrlBenchmark {
+    private DefaultModelConverter modelConverter;
+
+    private org.apache.maven.artifact.Artifact mavenArtifact;
+
+    private Artifact aetherArtifact;
+
+    @Setup
+    public void setup() {
+        modelConverter = new DefaultModelConverter();
+        mavenArtifact = BenchmarkSupport.newMavenArtifact("org.apache.commons", "commons-lang3", "3.14.0", "jar");
+        aetherArtifact = BenchmarkSupport.newAetherArtifact(42);
+    }
+
+    @Benchmark
+    public String mavenArtifact() {
+        return modelConverter.generatePackageUrl(mavenArtifact);
+    }
+
+    @Benchmark
+    public String aetherArtifact() {
+        return modelConverter.generatePackageUrl(aetherArtifact);
+    }
+
+    @Benchmark
+    public String aetherArtifactClassifierless() {
+        return modelConverter.generateClassifierlessPackageUrl(aetherArtifact);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+
+/**
+ * Base class of the goals managing the persistent component cache enabled with {@code componentCache}. Goals are safe
+ * to run alongside builds: they read a snapshot of the cache, or update it under the cache lock.
+ */
+public abstract class BaseCycloneDxCacheMojo extends AbstractMojo {
+    /**
+     * Directory of the persistent component cache.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cacheDirectory", defaultValue = "${user.home}/.m2/cyclonedx-cache")
+    private File cacheDirectory;
+
+    /**
+     * Bundle file the component cache is exported to or imported from, as a single file to be stored between builds,
+     * for example by the cache mechanism of a CI service.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cacheBundle", defaultValue = "cyclonedx-cache.bundle")
+    private File cacheBundle;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    private PluginDescriptor pluginDescriptor;
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    protected File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    protected File getCacheBundle() {
+        return cacheBundle;
+    }
+
+    protected File getLocalRepository() {
+        return session.getRepositorySession().getLocalRepository().getBasedir();
+    }
+
+    /**
+     * Returns the plugin version the cache entries are valid for.
+     *
+     * @return the plugin version of the cache entries
+     */
+    protected String getCacheVersion() {
+        return ComponentCache.getVersion(pluginDescriptor);
+    }
+}
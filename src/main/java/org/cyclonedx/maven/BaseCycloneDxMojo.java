@@ -18,22 +18,23 @@
  */
 package org.cyclonedx.maven;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
 import org.apache.maven.shared.dependency.analyzer.ProjectDependencyAnalysis;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.cyclonedx.Version;
-import org.cyclonedx.generators.BomGeneratorFactory;
 import org.cyclonedx.exception.GeneratorException;
-import org.cyclonedx.generators.json.BomJsonGenerator;
-import org.cyclonedx.generators.xml.BomXmlGenerator;
 import org.cyclonedx.maven.ProjectDependenciesConverter.BomDependencies;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -48,11 +49,22 @@ import org.cyclonedx.parsers.Parser;
 import org.cyclonedx.parsers.XmlParser;
 
 import javax.inject.Inject;
-import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -64,6 +76,11 @@ import java.util.UUID;
 public abstract class BaseCycloneDxMojo extends AbstractMojo {
     static final String CYCLONEDX_PLUGIN_KEY = "org.cyclonedx:cyclonedx-maven-plugin";
     static final String PROJECT_TYPE = "projectType";
+    /**
+     * Prefix of the project context key, followed by the classifier, of the options of the JSON BOM attached to the
+     * project in the current build.
+     */
+    static final String BOM_OPTIONS_CONTEXT_KEY = "cyclonedx.bomOptions.";
 
     @Parameter(property = "project", readonly = true, required = true)
     private MavenProject project;
@@ -88,7 +105,9 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
     private Version effectiveSchemaVersion = null;
 
     /**
-     * The CycloneDX output format that should be generated (<code>xml</code>, <code>json</code> or <code>all</code>).
+     * The CycloneDX output format that should be generated (<code>xml</code>, <code>json</code> or <code>all</code>),
+     * or <code>protobuf</code> for the binary <a href="https://cyclonedx.org/docs/1.6/proto/">Protocol Buffers</a>
+     * serialization (schema version 1.3 or later, written with <code>bin</code> extension).
      *
      * @since 2.1.0
      */
@@ -223,6 +242,7 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
      * Timestamp for reproducible output archive entries, either formatted as ISO 8601
      * <code>yyyy-MM-dd'T'HH:mm:ssXXX</code> or as an int representing seconds since the epoch (like
      * <a href="https://reproducible-builds.org/docs/source-date-epoch/">SOURCE_DATE_EPOCH</a>).
+     * In this mode, BOM files that already exist with the same content are not rewritten.
      *
      * @since 2.7.9
      */
@@ -248,6 +268,96 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
     @Parameter
     private ExternalReference[] externalReferences;
 
+    /**
+     * Incremental mode: fingerprint all the inputs of the BOM (plugin version and parameters, effective POMs, project
+     * artifacts and already resolved dependencies), stored in {@code outputDirectory}, and skip BOM generation when
+     * the fingerprint is unchanged since previous execution.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.incremental", defaultValue = "false")
+    protected boolean incremental;
+
+    /**
+     * Write execution metrics (duration and count of each phase, components, bytes hashed, cache hits) to
+     * {@code cyclonedx-metrics.json} in {@code outputDirectory}. Metrics are also displayed in verbose mode.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.metrics", defaultValue = "false")
+    private boolean metrics;
+
+    /**
+     * Write a trace of the execution to {@code cyclonedx-trace.json} in {@code outputDirectory}, in Trace Event Format
+     * to be opened in {@code chrome://tracing} or <a href="https://ui.perfetto.dev/">Perfetto</a>: spans for each module,
+     * component conversion (with hashing and effective POM building), resolver call and output format.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.trace", defaultValue = "false")
+    private boolean trace;
+
+    /**
+     * Number of slowest artifacts to report at the end of execution, with conversion time split between hashing and
+     * metadata (effective POM and licenses): logged and written to {@code cyclonedx-slowest-artifacts.json} in
+     * {@code outputDirectory}. {@code 0} disables the report.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.slowestArtifacts", defaultValue = "0")
+    private int slowestArtifacts;
+
+    /**
+     * Strict no-download mode: Maven Resolver is used offline during BOM generation, and the execution fails if an
+     * artifact or POM is not available in local repository, to prove that BOM generation does no network I/O.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.noDownload", defaultValue = "false")
+    private boolean noDownload;
+
+    /**
+     * Bounded-memory mode: store converted components in a temporary file in {@code outputDirectory} instead of the
+     * heap, keeping only their package URL in memory, and read them again one at a time when writing the BOM.
+     * Useful for aggregate BOMs of very large builds.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.spillComponents", defaultValue = "false")
+    private boolean spillComponents;
+
+    /**
+     * Persistent component cache: reuse the components converted from release artifacts of the local repository by
+     * previous builds, stored in {@code cacheDirectory}, instead of building their effective POM and hashing their
+     * file again. A cached component is used only if the artifact file is unchanged. The cache can be shared between
+     * hosts with the {@code cache-export} and {@code cache-import} goals.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.componentCache", defaultValue = "false")
+    private boolean componentCache;
+
+    /**
+     * Directory of the persistent component cache.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cacheDirectory", defaultValue = "${user.home}/.m2/cyclonedx-cache")
+    private File cacheDirectory;
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    private PluginDescriptor pluginDescriptor;
+
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+    private MojoExecution mojoExecution;
+
+    private ExecutionMetrics executionMetrics;
+
+    private ComponentCache cache;
+
     @Inject
     private MavenProjectHelper mavenProjectHelper;
 
@@ -257,14 +367,28 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
     @Inject
     private ProjectDependenciesConverter projectDependenciesConverter;
 
+    @Inject
+    private StringPool stringPool;
+
     /**
      * Various messages sent to console.
      */
     protected static final String MESSAGE_RESOLVING_DEPS = "CycloneDX: Resolving Dependencies";
     protected static final String MESSAGE_RESOLVING_AGGREGATED_DEPS = "CycloneDX: Resolving Aggregated Dependencies";
     protected static final String MESSAGE_CREATING_BOM = "CycloneDX: Creating BOM version %s with %d component(s)";
+    protected static final String MESSAGE_CREATING_SECONDARY_BOM = "CycloneDX: Creating BOM %s with %d component(s)";
     static final String MESSAGE_CALCULATING_HASHES = "CycloneDX: Calculating Hashes";
     protected static final String MESSAGE_WRITING_BOM = "CycloneDX: Writing and validating BOM (%s): %s";
+    protected static final String MESSAGE_BOM_UP_TO_DATE = "CycloneDX: BOM (%s) is up to date: %s";
+    protected static final String MESSAGE_INPUTS_UNCHANGED = "CycloneDX: Inputs unchanged since previous execution, skipping BOM generation";
+    protected static final String MESSAGE_CACHED_MODULES = "CycloneDX: %d module(s) reused from incremental cache";
+    protected static final String MESSAGE_MERGED_MODULES = "CycloneDX: %d module BOM(s) merged";
+    protected static final String MESSAGE_MODULES_WITHOUT_BOM = "CycloneDX: no module BOM attached in this build by %d module(s), analyzing them: %s."
+            + " Module BOMs are generated in the lifecycle of each module, after the lifecycle of the execution root: to merge them, invoke"
+            + " makeAggregateBom after the lifecycle phase, like mvn package cyclonedx:makeAggregateBom";
+    protected static final String MESSAGE_COLLECTED_MODULES = "CycloneDX: %d module dependency graph(s) collected during the build";
+    protected static final String MESSAGE_SHARDED_MODULES = "CycloneDX: %d module(s) written to %d BOM shard(s)";
+    protected static final String MESSAGE_OFFLINE_UNAVAILABLE = "CycloneDX: offline, %d artifact(s) not available in local repository, with partial component: %s";
     protected static final String MESSAGE_ATTACHING_BOM = "           attaching as %s-%s-%s.%s";
     protected static final String MESSAGE_VALIDATION_FAILURE = "The BOM does not conform to the CycloneDX BOM standard as defined by the XSD";
 
@@ -284,12 +408,52 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
         return project;
     }
 
+    protected String getClassifier() {
+        return classifier;
+    }
+
+    protected StringPool getStringPool() {
+        return stringPool;
+    }
+
+    protected ExecutionMetrics getMetrics() {
+        return executionMetrics;
+    }
+
+    protected ProjectDependenciesConverter getProjectDependenciesConverter() {
+        return projectDependenciesConverter;
+    }
+
     protected String generatePackageUrl(final Artifact artifact) {
         return modelConverter.generatePackageUrl(artifact);
     }
 
     protected Component convertMavenDependency(Artifact artifact) {
-        return modelConverter.convertMavenDependency(artifact, schemaVersion(), includeLicenseText);
+        if (cache == null || !cache.isCacheable(artifact)) {
+            return modelConverter.convertMavenDependency(artifact, schemaVersion(), includeLicenseText, executionMetrics);
+        }
+        final String key = ComponentCache.getKey(generatePackageUrl(artifact), schemaVersion(), includeLicenseText);
+        try {
+            final Component cached = cache.get(key, artifact);
+            if (cached != null) {
+                executionMetrics.count(ExecutionMetrics.COUNTER_COMPONENT_CACHE_HITS, 1);
+                return stringPool.intern(cached);
+            }
+        } catch (IOException e) {
+            getLog().warn("Unable to read cached component " + key + ": " + e.getMessage());
+        }
+        final ModelConverter.ConvertedComponent converted = modelConverter.convertMavenArtifact(artifact, schemaVersion(), includeLicenseText, executionMetrics);
+        executionMetrics.count(ExecutionMetrics.COUNTER_COMPONENT_CACHE_MISSES, 1);
+        if (!converted.isComplete()) {
+            // partial component, e.g. with effective POM unavailable: convert again next build
+            return converted.getComponent();
+        }
+        try {
+            cache.put(key, artifact, converted.getComponent());
+        } catch (IOException e) {
+            getLog().warn("Unable to cache component " + key + ": " + e.getMessage());
+        }
+        return converted.getComponent();
     }
 
     /**
@@ -301,7 +465,7 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
      * @return the name of the analysis done to store as a BOM, or {@code null} to not save result.
      * @throws MojoExecutionException something weird happened...
      */
-    protected abstract String extractComponentsAndDependencies(Set<String> topLevelComponents, Map<String, Component> components, Map<String, Dependency> dependencies) throws MojoExecutionException;
+    protected abstract String extractComponentsAndDependencies(Set<String> topLevelComponents, Map<String, Component> components, DependencyGraph dependencies) throws MojoExecutionException;
 
     /**
      * @return {@literal true} if the execution should be skipped.
@@ -329,39 +493,337 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
             schemaVersion = effectiveSchemaVersion.getVersionString();
         }
         logParameters();
+        executionMetrics = new ExecutionMetrics();
+        if (trace) {
+            executionMetrics.enableTrace();
+        }
+        if (noDownload) {
+            executionMetrics.getResolverAccounting().enableNoDownload();
+        }
+
+        try {
+            final String fingerprint = incremental ? computeInputFingerprint() : null;
+            if (fingerprint != null && isOutputUpToDate(fingerprint)) {
+                executionMetrics.getResolverAccounting().checkNoDownload();
+                getLog().info(MESSAGE_INPUTS_UNCHANGED);
+                executionMetrics.count(ExecutionMetrics.COUNTER_INCREMENTAL_HITS, 1);
+                for (String extension : getOutputExtensions()) {
+                    attachBomFile(getBomFile(outputName, extension), extension, classifier);
+                }
+                attachSecondaryBomFiles();
+                reportMetrics();
+                return;
+            }
+
+            if (componentCache) {
+                try {
+                    cache = ComponentCache.open(cacheDirectory, ComponentCache.getVersion(pluginDescriptor), session.getRepositorySession().getLocalRepository().getBasedir());
+                } catch (IOException e) {
+                    getLog().warn("Unable to read component cache in " + cacheDirectory + ": " + e.getMessage());
+                }
+            }
+            try {
+                if (!spillComponents) {
+                    extractAndGenerateBom(fingerprint, new LinkedHashMap<>());
+                    return;
+                }
+                try (ComponentStore componentStore = new ComponentStore(outputDirectory)) {
+                    extractAndGenerateBom(fingerprint, componentStore);
+                } catch (IOException | UncheckedIOException e) {
+                    throw new MojoExecutionException("Unable to store components: " + e.getMessage(), e);
+                }
+            } finally {
+                if (cache != null) {
+                    try {
+                        cache.save();
+                    } catch (IOException e) {
+                        getLog().warn("Unable to store component cache in " + cacheDirectory + ": " + e.getMessage());
+                    }
+                    cache = null;
+                }
+            }
+        } finally {
+            // graphs collected for the inputs fingerprint but not extracted, when BOM is up to date or cached
+            projectDependenciesConverter.releaseCollectedGraphs();
+        }
+    }
 
+    /**
+     * Extracts components and dependencies, then generates the BOM.
+     *
+     * @param fingerprint the fingerprint of the inputs in incremental mode, or {@code null}
+     * @param componentMap the empty map of BOM components by package URL, possibly spilled to disk
+     */
+    private void extractAndGenerateBom(final String fingerprint, final Map<String, Component> componentMap) throws MojoExecutionException {
         // top level components do not currently set their scope, we track these to prevent merging of scopes
         final Set<String> topLevelComponents = new LinkedHashSet<>();
-        final Map<String, Component> componentMap = new LinkedHashMap<>();
-        final Map<String, Dependency> dependencyMap = new LinkedHashMap<>();
-
-        String analysis = extractComponentsAndDependencies(topLevelComponents, componentMap, dependencyMap);
+        final DependencyGraph dependencyGraph = new DependencyGraph(stringPool);
+
+        String analysis = extractComponentsAndDependencies(topLevelComponents, componentMap, dependencyGraph);
+        final ResolverAccounting resolverAccounting = executionMetrics.getResolverAccounting();
+        resolverAccounting.checkNoDownload();
+        final Set<String> unavailableArtifacts = resolverAccounting.getUnavailableArtifacts();
+        if (!unavailableArtifacts.isEmpty()) {
+            getLog().warn(String.format(MESSAGE_OFFLINE_UNAVAILABLE, unavailableArtifacts.size(), String.join(", ", unavailableArtifacts)));
+        }
         if (analysis != null) {
-            final Metadata metadata = modelConverter.convertMavenProject(project, projectType, schemaVersion(), includeLicenseText, externalReferences);
+            final Metadata metadata = createMetadata(analysis);
 
-            if (schemaVersion().getVersion() >= 1.3) {
-                metadata.addProperty(newProperty("maven.goal", analysis));
-
-                List<String> scopes = new ArrayList<>();
-                if (includeCompileScope) scopes.add("compile");
-                if (includeProvidedScope) scopes.add("provided");
-                if (includeRuntimeScope) scopes.add("runtime");
-                if (includeSystemScope) scopes.add("system");
-                if (includeTestScope) scopes.add("test");
-                metadata.addProperty(newProperty("maven.scopes", String.join(",", scopes)));
-
-                if (detectUnusedForOptionalScope) {
-                    metadata.addProperty(newProperty("maven.optional.unused", Boolean.toString(detectUnusedForOptionalScope)));
+            final Component rootComponent = metadata.getComponent();
+            componentMap.remove(rootComponent.getPurl());
+
+            projectDependenciesConverter.cleanupBomDependencies(metadata, componentMap, dependencyGraph);
+
+            final List<Component> components;
+            if (componentMap instanceof ComponentStore) {
+                executionMetrics.count(ExecutionMetrics.COUNTER_COMPONENT_BYTES_SPILLED, ((ComponentStore) componentMap).getLength());
+                components = ((ComponentStore) componentMap).asList();
+            } else {
+                components = new ArrayList<>(componentMap.values());
+            }
+            generateBom(analysis, metadata, components, dependencyGraph.toDependencies());
+            attachSecondaryBomFiles();
+
+            if (fingerprint != null) {
+                try {
+                    InputFingerprint.write(getFingerprintFile(), fingerprint);
+                } catch (IOException e) {
+                    getLog().warn("Unable to store inputs fingerprint: " + e.getMessage());
                 }
             }
+            reportMetrics();
+        }
+    }
 
-            final Component rootComponent = metadata.getComponent();
-            componentMap.remove(rootComponent.getPurl());
+    private void reportMetrics() {
+        if (verbose && getLog().isInfoEnabled()) {
+            executionMetrics.log(getLog());
+        }
+        if (metrics) {
+            final File metricsFile = new File(outputDirectory, "cyclonedx-metrics.json");
+            try {
+                executionMetrics.write(metricsFile, mojoExecution.getGoal(), project.getId());
+            } catch (IOException e) {
+                getLog().warn("Unable to write metrics to " + metricsFile + ": " + e.getMessage());
+            }
+        }
+        if (trace) {
+            final File traceFile = new File(outputDirectory, "cyclonedx-trace.json");
+            try {
+                executionMetrics.writeTrace(traceFile, mojoExecution.getGoal(), project.getId());
+            } catch (IOException e) {
+                getLog().warn("Unable to write trace to " + traceFile + ": " + e.getMessage());
+            }
+        }
+        if (slowestArtifacts > 0) {
+            if (getLog().isInfoEnabled()) {
+                executionMetrics.logSlowestArtifacts(getLog(), slowestArtifacts);
+            }
+            final File slowestFile = new File(outputDirectory, "cyclonedx-slowest-artifacts.json");
+            try {
+                executionMetrics.writeSlowestArtifacts(slowestFile, mojoExecution.getGoal(), project.getId(), slowestArtifacts);
+            } catch (IOException e) {
+                getLog().warn("Unable to write slowest artifacts to " + slowestFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the Maven dependency scopes included in the BOM, as stored in {@code maven.scopes} metadata property.
+     *
+     * @return the comma separated list of included scopes
+     */
+    protected String getIncludedScopes() {
+        List<String> scopes = new ArrayList<>();
+        if (includeCompileScope) scopes.add("compile");
+        if (includeProvidedScope) scopes.add("provided");
+        if (includeRuntimeScope) scopes.add("runtime");
+        if (includeSystemScope) scopes.add("system");
+        if (includeTestScope) scopes.add("test");
+        return String.join(",", scopes);
+    }
+
+    /**
+     * Returns the goal options changing the content of the BOM besides scopes, kept in the project context with the
+     * attached JSON BOM for BOMs to be merged only with BOMs generated with the same options.
+     *
+     * @return the options by name, in a stable order
+     */
+    protected Map<String, String> getBomOptions() {
+        final Map<String, String> options = new LinkedHashMap<>();
+        options.put("projectType", projectType);
+        options.put("includeLicenseText", Boolean.toString(includeLicenseText));
+        options.put("excludeTypes", joinSorted(excludeTypes));
+        return options;
+    }
+
+    static String joinSorted(final String[] values) {
+        if (values == null) {
+            return "";
+        }
+        final String[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return String.join(",", sorted);
+    }
+
+    /**
+     * Returns the Maven projects the BOM is generated from, to fingerprint in incremental mode.
+     *
+     * @return the Maven projects analyzed by this goal
+     */
+    protected List<MavenProject> getInputProjects() {
+        return Collections.singletonList(project);
+    }
+
+    protected void fingerprintAdditionalParameters(InputFingerprint fingerprint) {
+        // no additional parameters
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of the goal, collecting the dependency graph of each analyzed project.
+     *
+     * @return the fingerprint, or {@code null} if the dependency graph of a project cannot be collected
+     */
+    private String computeInputFingerprint() throws MojoExecutionException {
+        final InputFingerprint fingerprint = newInputFingerprint();
+        try {
+            for (MavenProject inputProject : getInputProjects()) {
+                final List<Artifact> dependencyArtifacts = collectDependencyArtifacts(inputProject);
+                if (dependencyArtifacts == null) {
+                    getLog().debug("Dependencies of " + inputProject.getId() + " cannot be collected: not skipping BOM generation");
+                    return null;
+                }
+                fingerprint.addProject(inputProject, dependencyArtifacts);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("An error occurred computing inputs fingerprint: " + e.getMessage(), e);
+        }
+        return fingerprint.toHex();
+    }
+
+    /**
+     * Creates an inputs fingerprint initialized with plugin version and goal parameters, to be completed with the
+     * analyzed Maven projects.
+     *
+     * @return the inputs fingerprint
+     * @throws MojoExecutionException if the plugin artifact cannot be read
+     */
+    protected InputFingerprint newInputFingerprint() throws MojoExecutionException {
+        final InputFingerprint fingerprint = new InputFingerprint();
+        try {
+            fingerprint.add("plugin", pluginDescriptor.getId());
+            if (pluginDescriptor.getVersion().endsWith(Artifact.SNAPSHOT_VERSION)) {
+                fingerprint.addFile("plugin.file", pluginDescriptor.getPluginArtifact().getFile());
+            }
+            fingerprint.add("mojo", getClass().getName())
+                    .add("projectType", projectType)
+                    .add("schemaVersion", schemaVersion)
+                    .add("outputFormat", outputFormat)
+                    .add("outputName", outputName)
+                    .add("includeBomSerialNumber", includeBomSerialNumber)
+                    .add("includeCompileScope", includeCompileScope)
+                    .add("includeProvidedScope", includeProvidedScope)
+                    .add("includeRuntimeScope", includeRuntimeScope)
+                    .add("includeTestScope", includeTestScope)
+                    .add("includeSystemScope", includeSystemScope)
+                    .add("includeLicenseText", includeLicenseText)
+                    .add("excludeTypes", excludeTypes)
+                    .add("detectUnusedForOptionalScope", detectUnusedForOptionalScope)
+                    .add("outputTimestamp", outputTimestamp);
+            if (externalReferences != null) {
+                for (ExternalReference externalReference : externalReferences) {
+                    fingerprint.add("externalReference", externalReference.getType() + " " + externalReference.getUrl() + " " + externalReference.getComment());
+                }
+            }
+            fingerprintAdditionalParameters(fingerprint);
+        } catch (IOException e) {
+            throw new MojoExecutionException("An error occurred computing inputs fingerprint: " + e.getMessage(), e);
+        }
+        return fingerprint;
+    }
 
-            projectDependenciesConverter.cleanupBomDependencies(metadata, componentMap, dependencyMap);
+    private boolean isOutputUpToDate(final String fingerprint) {
+        try {
+            if (!fingerprint.equals(InputFingerprint.read(getFingerprintFile()))) {
+                return false;
+            }
+        } catch (IOException e) {
+            getLog().debug("Unable to read previous inputs fingerprint", e);
+            return false;
+        }
+        for (String extension : getOutputExtensions()) {
+            if (!getBomFile(outputName, extension).isFile()) {
+                return false;
+            }
+            for (String id : getSecondaryBomIds()) {
+                if (!getBomFile(outputName + '-' + id, extension).isFile()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
-            generateBom(analysis, metadata, new ArrayList<>(componentMap.values()), new ArrayList<>(dependencyMap.values()));
+    private File getFingerprintFile() {
+        return new File(outputDirectory, outputName + ".fingerprint");
+    }
+
+    private File getBomFile(String name, String extension) {
+        return new File(outputDirectory, name + "." + extension);
+    }
+
+    private List<String> getOutputExtensions() {
+        final List<String> extensions = new ArrayList<>();
+        if ("all".equalsIgnoreCase(outputFormat) || "xml".equalsIgnoreCase(outputFormat)) {
+            extensions.add("xml");
+        }
+        if ("all".equalsIgnoreCase(outputFormat) || "json".equalsIgnoreCase(outputFormat)) {
+            extensions.add("json");
+        }
+        if ("protobuf".equalsIgnoreCase(outputFormat)) {
+            extensions.add("bin");
+        }
+        return extensions;
+    }
+
+    /**
+     * Creates the metadata of a BOM of the project.
+     *
+     * @param analysis the goal of the analysis
+     * @return the metadata, with the project as component
+     */
+    protected Metadata createMetadata(final String analysis) {
+        final Metadata metadata = modelConverter.convertMavenProject(project, projectType, schemaVersion(), includeLicenseText, externalReferences, executionMetrics);
+
+        if (schemaVersion().getVersion() >= 1.3) {
+            metadata.addProperty(newProperty("maven.goal", analysis));
+            metadata.addProperty(newProperty("maven.scopes", getIncludedScopes()));
+
+            if (detectUnusedForOptionalScope) {
+                metadata.addProperty(newProperty("maven.optional.unused", Boolean.toString(detectUnusedForOptionalScope)));
+            }
         }
+        return metadata;
+    }
+
+    /**
+     * Returns the ids of the secondary BOMs generated with the BOM, written as {@code ${outputName}-<id>} and attached
+     * with classifier {@code ${classifier}-<id>}.
+     *
+     * @return the ids of the secondary BOMs, empty by default
+     * @see #generateSecondaryBom(String, Metadata, List, List)
+     */
+    protected List<String> getSecondaryBomIds() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the external references of the BOM itself, like BOM-Link references to secondary BOMs.
+     *
+     * @return the external references, empty by default
+     */
+    protected List<ExternalReference> getBomExternalReferences() {
+        return Collections.emptyList();
     }
 
     private Property newProperty(String name, String value) {
@@ -372,58 +834,112 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
     }
 
     private void generateBom(String analysis, Metadata metadata, List<Component> components, List<Dependency> dependencies) throws MojoExecutionException {
-        try {
-            getLog().info(String.format(MESSAGE_CREATING_BOM, schemaVersion, components.size()));
-            final Bom bom = new Bom();
-            bom.setComponents(components);
-
-            if (outputTimestamp != null) {
-                // activate Reproducible Builds mode
-                metadata.setTimestamp(null);
-                if (schemaVersion().getVersion() >= 1.3) {
-                    metadata.addProperty(newProperty("cdx:reproducible", "enabled"));
-                }
-            }
+        getLog().info(String.format(MESSAGE_CREATING_BOM, schemaVersion, components.size()));
+        executionMetrics.count(ExecutionMetrics.COUNTER_COMPONENTS, components.size());
+        executionMetrics.count(ExecutionMetrics.COUNTER_DEPENDENCIES, dependencies.size());
+        final Bom bom = createBom(metadata, components, dependencies, null);
+        final List<ExternalReference> bomExternalReferences = getBomExternalReferences();
+        if (!bomExternalReferences.isEmpty() && schemaVersion().getVersion() >= 1.1) {
+            bom.setExternalReferences(bomExternalReferences);
+        }
+        saveBom(bom, outputName, classifier);
+    }
 
-            if (schemaVersion().getVersion() >= 1.1 && includeBomSerialNumber) {
-                String serialNumber = generateSerialNumber(metadata.getProperties());
-                bom.setSerialNumber(serialNumber);
-            }
+    /**
+     * Generates a secondary BOM, written next to the BOM as {@code ${outputName}-<id>} and attached once the BOM is
+     * generated. Secondary BOMs always have a serial number, for other BOMs to refer to them with BOM-Link: secondary
+     * BOMs can be generated concurrently.
+     *
+     * @param id the id of the secondary BOM, from {@link #getSecondaryBomIds()}
+     * @param metadata the metadata of the secondary BOM
+     * @param components the components of the secondary BOM
+     * @param dependencies the dependencies of the secondary BOM
+     * @throws MojoExecutionException if the secondary BOM cannot be written
+     * @see #generateSecondarySerialNumber(String)
+     */
+    protected void generateSecondaryBom(String id, Metadata metadata, List<Component> components, List<Dependency> dependencies) throws MojoExecutionException {
+        getLog().info(String.format(MESSAGE_CREATING_SECONDARY_BOM, id, components.size()));
+        saveBom(createBom(metadata, components, dependencies, id), outputName + '-' + id, null);
+    }
 
-            if (schemaVersion().getVersion() >= 1.2) {
-                bom.setMetadata(metadata);
-                bom.setDependencies(dependencies);
+    /**
+     * Creates the BOM, or a secondary BOM when an id is given.
+     */
+    private Bom createBom(Metadata metadata, List<Component> components, List<Dependency> dependencies, String secondaryBomId) {
+        final Bom bom = new Bom();
+        bom.setComponents(components);
+
+        if (outputTimestamp != null) {
+            // activate Reproducible Builds mode
+            metadata.setTimestamp(null);
+            if (schemaVersion().getVersion() >= 1.3) {
+                metadata.addProperty(newProperty("cdx:reproducible", "enabled"));
             }
+        }
 
-            /*if (schemaVersion().getVersion() >= 1.3) {
-                if (excludeArtifactId != null && excludeTypes.length > 0) { // TODO
-                    final Composition composition = new Composition();
-                    composition.setAggregate(Composition.Aggregate.INCOMPLETE);
-                    composition.setDependencies(Collections.singletonList(new Dependency(bom.getMetadata().getComponent().getBomRef())));
-                    bom.setCompositions(Collections.singletonList(composition));
-                }
-            }*/
-
-            if (schemaVersion().getVersion() >= 1.5) {
-                LifecycleChoice build = new LifecycleChoice();
-                build.setPhase(LifecycleChoice.Phase.BUILD);
-                Lifecycles lifecycles = new Lifecycles();
-                lifecycles.setLifecycleChoice(Collections.singletonList(build));
-                metadata.setLifecycles(lifecycles);
+        if (schemaVersion().getVersion() >= 1.1 && secondaryBomId != null) {
+            bom.setSerialNumber(generateSecondarySerialNumber(secondaryBomId));
+        } else if (schemaVersion().getVersion() >= 1.1 && includeBomSerialNumber) {
+            String serialNumber = generateSerialNumber(metadata.getProperties());
+            bom.setSerialNumber(serialNumber);
+        }
+
+        if (schemaVersion().getVersion() >= 1.2) {
+            bom.setMetadata(metadata);
+            bom.setDependencies(dependencies);
+        }
+
+        /*if (schemaVersion().getVersion() >= 1.3) {
+            if (excludeArtifactId != null && excludeTypes.length > 0) { // TODO
+                final Composition composition = new Composition();
+                composition.setAggregate(Composition.Aggregate.INCOMPLETE);
+                composition.setDependencies(Collections.singletonList(new Dependency(bom.getMetadata().getComponent().getBomRef())));
+                bom.setCompositions(Collections.singletonList(composition));
             }
+        }*/
+
+        if (schemaVersion().getVersion() >= 1.5) {
+            LifecycleChoice build = new LifecycleChoice();
+            build.setPhase(LifecycleChoice.Phase.BUILD);
+            Lifecycles lifecycles = new Lifecycles();
+            lifecycles.setLifecycleChoice(Collections.singletonList(build));
+            metadata.setLifecycles(lifecycles);
+        }
+
+        return bom;
+    }
 
+    private void saveBom(Bom bom, String name, String attachClassifier) throws MojoExecutionException {
+        try {
             if ("all".equalsIgnoreCase(outputFormat)
                     || "xml".equalsIgnoreCase(outputFormat)
                     || "json".equalsIgnoreCase(outputFormat)) {
-                saveBom(bom);
+                writeBomFiles(bom, name, attachClassifier);
+            } else if ("protobuf".equalsIgnoreCase(outputFormat)) {
+                if (BomProtobufGenerator.isSupported(schemaVersion())) {
+                    writeBomFiles(bom, name, attachClassifier);
+                } else {
+                    getLog().error("Protobuf output format requires schemaVersion 1.3 or later");
+                }
             } else {
-                getLog().error("Unsupported output format. Valid options are XML and JSON");
+                getLog().error("Unsupported output format. Valid options are XML, JSON and PROTOBUF");
             }
-        } catch (GeneratorException | ParserConfigurationException | IOException e) {
+        } catch (GeneratorException | IOException e) {
             throw new MojoExecutionException("An error occurred executing " + this.getClass().getName() + ": " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Generates the serial number of a secondary BOM, from the project coordinates and the id of the secondary BOM.
+     *
+     * @param id the id of the secondary BOM
+     * @return the serial number, as {@code urn:uuid:} URN
+     */
+    protected String generateSecondarySerialNumber(String id) {
+        final String gav = String.format("%s:%s:%s", project.getGroupId(), project.getArtifactId(), project.getVersion());
+        return String.format("urn:uuid:%s", UUID.nameUUIDFromBytes((gav + ';' + id).getBytes(StandardCharsets.UTF_8)));
+    }
+
     private String generateSerialNumber(List<Property> properties) {
         String gav = String.format("%s:%s:%s", project.getGroupId(), project.getArtifactId(), project.getVersion());
         StringBuilder sb = new StringBuilder(gav);
@@ -439,42 +955,152 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
         return String.format("urn:uuid:%s", uuid);
     }
 
-    private void saveBom(Bom bom) throws ParserConfigurationException, IOException, GeneratorException,
+    private void writeBomFiles(Bom bom, String name, String attachClassifier) throws IOException, GeneratorException,
             MojoExecutionException {
         if ("all".equalsIgnoreCase(outputFormat) || "xml".equalsIgnoreCase(outputFormat)) {
-            final BomXmlGenerator bomGenerator = BomGeneratorFactory.createXml(schemaVersion(), bom);
-            //bomGenerator.generate();
-
-            final String bomString = bomGenerator.toXmlString();
-            saveBomToFile(bomString, "xml", new XmlParser());
+            final StreamingBomXmlGenerator bomGenerator = new StreamingBomXmlGenerator(bom, schemaVersion());
+            final Parser bomParser = new XmlParser();
+            saveBomToFile(bomGenerator::writeTo, name, "xml", "xml", attachClassifier, bomFile -> bomParser.isValid(bomFile, schemaVersion()));
         }
         if ("all".equalsIgnoreCase(outputFormat) || "json".equalsIgnoreCase(outputFormat)) {
-            final BomJsonGenerator bomGenerator = BomGeneratorFactory.createJson(schemaVersion(), bom);
-
-            final String bomString = bomGenerator.toJsonString();
-            saveBomToFile(bomString, "json", new JsonParser());
+            final StreamingBomJsonGenerator bomGenerator = new StreamingBomJsonGenerator(bom, schemaVersion());
+            final Parser bomParser = new JsonParser();
+            // spilled components do not fit in memory: validate them one at a time instead of the whole document
+            saveBomToFile(bomGenerator::writeTo, name, "json", "json", attachClassifier, spillComponents
+                    ? bomFile -> StreamingBomJsonGenerator.isValid(bomFile, schemaVersion())
+                    : bomFile -> bomParser.isValid(bomFile, schemaVersion()));
+        }
+        if ("protobuf".equalsIgnoreCase(outputFormat)) {
+            final BomProtobufGenerator bomGenerator = new BomProtobufGenerator(schemaVersion(), bom);
+            saveBomToFile(bomGenerator::writeTo, name, "protobuf", "bin", attachClassifier, bomFile -> {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(bomFile.toPath()))) {
+                    return BomProtobufGenerator.isStructurallyValid(in, schemaVersion());
+                }
+            });
         }
     }
 
-    private void saveBomToFile(String bomString, String extension, Parser bomParser) throws IOException, MojoExecutionException {
-        final File bomFile = new File(outputDirectory, outputName + "." + extension);
+    /**
+     * Serialization of a BOM to a stream.
+     */
+    @FunctionalInterface
+    private interface BomWriter {
+        void writeTo(OutputStream out) throws IOException, GeneratorException;
+    }
 
-        getLog().info(String.format(MESSAGE_WRITING_BOM, extension.toUpperCase(), bomFile.getAbsolutePath()));
-        FileUtils.write(bomFile, bomString, StandardCharsets.UTF_8, false);
+    /**
+     * Validation of a written BOM file.
+     */
+    @FunctionalInterface
+    private interface BomValidator {
+        boolean isValid(File bomFile) throws IOException;
+    }
+
+    /**
+     * Serializes a BOM to a temporary file next to the BOM file, without holding the serialized BOM in memory, then
+     * validates it and moves it to the BOM file.
+     */
+    private void saveBomToFile(BomWriter bomWriter, String name, String format, String extension, String attachClassifier, BomValidator bomValidator) throws IOException, GeneratorException, MojoExecutionException {
+        final File bomFile = getBomFile(name, extension);
+        final Path tmpFile = new File(bomFile.getPath() + ".tmp").toPath();
+        Files.createDirectories(tmpFile.getParent());
+        try {
+            final FlightRecorderEvents.BomSerialized event = FlightRecorderEvents.INSTANCE.beginBomSerialized();
+            final MessageDigest digest = DigestUtils.getSha256Digest();
+            final long length;
+            try (ExecutionMetrics.Timer timer = executionMetrics.start(ExecutionMetrics.PHASE_SERIALIZE, "serialize " + format);
+                 CountingOutputStream out = new CountingOutputStream(new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)), digest))) {
+                bomWriter.writeTo(out);
+                out.flush();
+                length = out.getByteCount();
+            }
+            event.commit(format, length);
+
+            if (outputTimestamp != null && isUpToDate(bomFile, length, digest.digest())) {
+                // Reproducible Builds mode: keep previous file untouched to avoid invalidating downstream incremental steps
+                getLog().info(String.format(MESSAGE_BOM_UP_TO_DATE, extension.toUpperCase(), bomFile.getAbsolutePath()));
+            } else {
+                getLog().info(String.format(MESSAGE_WRITING_BOM, extension.toUpperCase(), bomFile.getAbsolutePath()));
+                executionMetrics.count(ExecutionMetrics.COUNTER_BYTES_WRITTEN, length);
 
-        if (!bomParser.isValid(bomFile, schemaVersion())) {
-            throw new MojoExecutionException(MESSAGE_VALIDATION_FAILURE);
+                final boolean valid;
+                try (ExecutionMetrics.Timer timer = executionMetrics.start(ExecutionMetrics.PHASE_VALIDATE, "validate " + extension)) {
+                    valid = bomValidator.isValid(tmpFile.toFile());
+                }
+                if (!valid) {
+                    // the invalid temporary file is deleted, previous BOM is kept: forget inputs fingerprint of the
+                    // previous BOM for next execution not to take BOM files of other formats, already written, as
+                    // up to date
+                    Files.deleteIfExists(getFingerprintFile().toPath());
+                    throw new MojoExecutionException(MESSAGE_VALIDATION_FAILURE);
+                }
+                try (ExecutionMetrics.Timer timer = executionMetrics.start(ExecutionMetrics.PHASE_WRITE, "write " + extension)) {
+                    Files.move(tmpFile, bomFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
         }
 
+        if (attachClassifier != null) {
+            attachBomFile(bomFile, extension, attachClassifier);
+        }
+    }
+
+    private void attachBomFile(File bomFile, String extension, String attachClassifier) {
         if (!skipAttach) {
-            getLog().info(String.format(MESSAGE_ATTACHING_BOM, project.getArtifactId(), project.getVersion(), classifier, extension));
-            mavenProjectHelper.attachArtifact(project, extension, classifier, bomFile);
+            getLog().info(String.format(MESSAGE_ATTACHING_BOM, project.getArtifactId(), project.getVersion(), attachClassifier, extension));
+            mavenProjectHelper.attachArtifact(project, extension, attachClassifier, bomFile);
+            if ("json".equals(extension)) {
+                project.setContextValue(BOM_OPTIONS_CONTEXT_KEY + attachClassifier, getBomOptions());
+            }
         }
     }
 
+    private void attachSecondaryBomFiles() {
+        for (String id : getSecondaryBomIds()) {
+            for (String extension : getOutputExtensions()) {
+                final File bomFile = getBomFile(outputName + '-' + id, extension);
+                if (bomFile.isFile()) {
+                    attachBomFile(bomFile, extension, classifier + '-' + id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an existing BOM file already has the expected content, without loading it in memory.
+     *
+     * @param bomFile the BOM file
+     * @param length the length of the expected content
+     * @param sha256 the SHA-256 digest of the expected content
+     * @return {@code true} if the file exists with the same content
+     */
+    private static boolean isUpToDate(File bomFile, long length, byte[] sha256) throws IOException {
+        if (!bomFile.isFile() || bomFile.length() != length) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(bomFile.toPath())) {
+            return MessageDigest.isEqual(sha256, DigestUtils.sha256(in));
+        }
+    }
+
+    /**
+     * Collects the dependency graph of a project for its inputs fingerprint, to be reused by next
+     * {@link #extractBOMDependencies(MavenProject)} of the project.
+     *
+     * @param mavenProject the Maven project
+     * @return the artifacts of the transitive dependency graph, or {@code null} if it cannot be collected
+     * @throws MojoExecutionException if the resolver is not supported
+     */
+    protected List<Artifact> collectDependencyArtifacts(MavenProject mavenProject) throws MojoExecutionException {
+        return projectDependenciesConverter.collectDependencyArtifacts(mavenProject, executionMetrics);
+    }
+
     protected BomDependencies extractBOMDependencies(MavenProject mavenProject) throws MojoExecutionException {
         ProjectDependenciesConverter.MavenDependencyScopes include = new ProjectDependenciesConverter.MavenDependencyScopes(includeCompileScope, includeProvidedScope, includeRuntimeScope, includeTestScope, includeSystemScope);
-        return projectDependenciesConverter.extractBOMDependencies(mavenProject, include, excludeTypes);
+        executionMetrics.count(ExecutionMetrics.COUNTER_PROJECTS, 1);
+        return projectDependenciesConverter.extractBOMDependencies(mavenProject, include, excludeTypes, executionMetrics);
     }
 
     /**
@@ -520,6 +1146,14 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
             getLog().info("includeLicenseText     : " + includeLicenseText);
             getLog().info("outputFormat           : " + outputFormat);
             getLog().info("outputName             : " + outputName);
+            getLog().info("incremental            : " + incremental);
+            getLog().info("metrics                : " + metrics);
+            getLog().info("trace                  : " + trace);
+            getLog().info("slowestArtifacts       : " + slowestArtifacts);
+            getLog().info("noDownload             : " + noDownload);
+            getLog().info("spillComponents        : " + spillComponents);
+            getLog().info("componentCache         : " + componentCache);
+            getLog().info("cacheDirectory         : " + cacheDirectory);
             logAdditionalParameters();
             getLog().info("------------------------------------------------------------------------");
         }
@@ -536,11 +1170,49 @@ public abstract class BaseCycloneDxMojo extends AbstractMojo {
                 newComponent.setScope(artifactScope);
                 components.put(purl, newComponent);
             } else if (!topLevelComponents.contains(purl)) {
-                component.setScope(mergeScopes(component.getScope(), artifactScope));
+                updateScope(components, purl, component, artifactScope);
+            }
+        }
+    }
+
+    /**
+     * Merges the components found for a module into the components of the BOM, with the same scope merging rules as
+     * {@link #populateComponents(Set, Map, Map, ProjectDependencyAnalysis)}. Added components get their strings
+     * pooled, since they may have been read from a module BOM.
+     *
+     * @param topLevelComponents the top level components of the BOM, which scope is not merged
+     * @param components the components of the BOM
+     * @param moduleComponent the component of the module, added as top level component
+     * @param moduleComponents the components found for the module
+     */
+    protected void mergeComponents(final Set<String> topLevelComponents, final Map<String, Component> components, final Component moduleComponent, final Collection<Component> moduleComponents) {
+        stringPool.intern(moduleComponent);
+        components.put(moduleComponent.getPurl(), moduleComponent);
+        topLevelComponents.add(moduleComponent.getPurl());
+        for (Component moduleDependency : moduleComponents) {
+            final String purl = moduleDependency.getPurl();
+            final Component component = components.get(purl);
+            if (component == null) {
+                stringPool.intern(moduleDependency);
+                components.put(moduleDependency.getPurl(), moduleDependency);
+            } else if (!topLevelComponents.contains(purl)) {
+                updateScope(components, purl, component, moduleDependency.getScope());
             }
         }
     }
 
+    /**
+     * Merges the scope of a component found again, putting the component again when its scope changes, for changes
+     * to be stored when components are spilled to disk.
+     */
+    private void updateScope(final Map<String, Component> components, final String purl, final Component component, final Component.Scope scope) {
+        final Component.Scope mergedScope = mergeScopes(component.getScope(), scope);
+        if (mergedScope != component.getScope()) {
+            component.setScope(mergedScope);
+            components.put(purl, component);
+        }
+    }
+
     /**
      * Get the BOM component scope (required/optional/excluded).  The scope can either be determined through bytecode
      * analysis or through maven dependency resolution.
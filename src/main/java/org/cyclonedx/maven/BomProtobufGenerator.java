@@ -0,0 +1,393 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.WireFormat;
+import cyclonedx.v1_6.Bom16;
+import org.cyclonedx.Version;
+import org.cyclonedx.model.AttachmentText;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.LifecycleChoice;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+import org.cyclonedx.model.Tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Generates the <a href="https://cyclonedx.org/docs/1.6/proto/">CycloneDX Protocol Buffers</a> serialization of a BOM,
+ * from the same {@link Bom} model used by XML and JSON generators.
+ * Only the parts of the model populated by this plugin are mapped.
+ * Bindings are generated from the 1.6 schema, which is wire compatible with previous schema versions supporting
+ * protobuf (1.3 and later): the BOM model content is already tailored to the requested schema version.
+ */
+class BomProtobufGenerator {
+    private final Version version;
+    private final Bom bom;
+
+    BomProtobufGenerator(final Version version, final Bom bom) {
+        this.version = version;
+        this.bom = bom;
+    }
+
+    static boolean isSupported(final Version version) {
+        return version.getVersion() >= 1.3;
+    }
+
+    public byte[] toByteArray() {
+        return toProto().toByteArray();
+    }
+
+    /**
+     * Writes the BOM with the same encoding as {@link #toByteArray()}, one top-level message at a time: components
+     * and dependencies are converted and written one by one from the BOM lists, that may be read from a
+     * {@link ComponentStore}.
+     *
+     * @param out the stream, left open
+     * @throws IOException if the stream cannot be written
+     */
+    void writeTo(final OutputStream out) throws IOException {
+        final CodedOutputStream output = CodedOutputStream.newInstance(out);
+        output.writeString(Bom16.Bom.SPEC_VERSION_FIELD_NUMBER, version.getVersionString());
+        output.writeInt32(Bom16.Bom.VERSION_FIELD_NUMBER, bom.getVersion());
+        if (bom.getSerialNumber() != null) {
+            output.writeString(Bom16.Bom.SERIAL_NUMBER_FIELD_NUMBER, bom.getSerialNumber());
+        }
+        if (bom.getMetadata() != null) {
+            output.writeMessage(Bom16.Bom.METADATA_FIELD_NUMBER, convert(bom.getMetadata()));
+        }
+        if (bom.getComponents() != null) {
+            for (Component component : bom.getComponents()) {
+                output.writeMessage(Bom16.Bom.COMPONENTS_FIELD_NUMBER, convert(component));
+            }
+        }
+        if (bom.getDependencies() != null) {
+            for (Dependency dependency : bom.getDependencies()) {
+                output.writeMessage(Bom16.Bom.DEPENDENCIES_FIELD_NUMBER, convert(dependency));
+            }
+        }
+        output.flush();
+    }
+
+    Bom16.Bom toProto() {
+        final Bom16.Bom.Builder builder = Bom16.Bom.newBuilder()
+                .setSpecVersion(version.getVersionString())
+                .setVersion(bom.getVersion());
+        if (bom.getSerialNumber() != null) {
+            builder.setSerialNumber(bom.getSerialNumber());
+        }
+        if (bom.getMetadata() != null) {
+            builder.setMetadata(convert(bom.getMetadata()));
+        }
+        if (bom.getComponents() != null) {
+            bom.getComponents().forEach(c -> builder.addComponents(convert(c)));
+        }
+        if (bom.getDependencies() != null) {
+            bom.getDependencies().forEach(d -> builder.addDependencies(convert(d)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Checks the structure of a protobuf BOM, reading it one top-level message at a time: the BOM must be parseable,
+     * have the expected schema version, every component must have a name and a bom-ref distinct from every other,
+     * and every dependency must reference bom-refs of the BOM.
+     * This is not a schema validation: the protobuf schema only defines the wire format.
+     *
+     * @param in the serialized BOM
+     * @param version the expected schema version
+     * @return {@code true} if the BOM is structurally consistent
+     * @throws IOException if the BOM cannot be read
+     */
+    static boolean isStructurallyValid(final InputStream in, final Version version) throws IOException {
+        final CodedInputStream input = CodedInputStream.newInstance(in);
+        final Set<String> bomRefs = new HashSet<>();
+        final Set<String> references = new HashSet<>();
+        String specVersion = "";
+        try {
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                input.resetSizeCounter();
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case Bom16.Bom.SPEC_VERSION_FIELD_NUMBER:
+                        specVersion = input.readStringRequireUtf8();
+                        break;
+                    case Bom16.Bom.METADATA_FIELD_NUMBER:
+                        final Bom16.Metadata metadata = input.readMessage(Bom16.Metadata.parser(), ExtensionRegistryLite.getEmptyRegistry());
+                        if (metadata.hasComponent() && !addBomRefs(metadata.getComponent(), bomRefs)) {
+                            return false;
+                        }
+                        break;
+                    case Bom16.Bom.COMPONENTS_FIELD_NUMBER:
+                        if (!addBomRefs(input.readMessage(Bom16.Component.parser(), ExtensionRegistryLite.getEmptyRegistry()), bomRefs)) {
+                            return false;
+                        }
+                        break;
+                    case Bom16.Bom.DEPENDENCIES_FIELD_NUMBER:
+                        addReferences(input.readMessage(Bom16.Dependency.parser(), ExtensionRegistryLite.getEmptyRegistry()), references);
+                        break;
+                    default:
+                        input.skipField(tag);
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            return false;
+        }
+        return version.getVersionString().equals(specVersion) && bomRefs.containsAll(references);
+    }
+
+    private static boolean addBomRefs(final Bom16.Component component, final Set<String> bomRefs) {
+        if (component.getName().isEmpty() || (component.hasBomRef() && !bomRefs.add(component.getBomRef()))) {
+            return false;
+        }
+        for (Bom16.Component child : component.getComponentsList()) {
+            if (!addBomRefs(child, bomRefs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addReferences(final Bom16.Dependency dependency, final Set<String> references) {
+        references.add(dependency.getRef());
+        dependency.getDependenciesList().forEach(d -> addReferences(d, references));
+    }
+
+    private Bom16.Metadata convert(final Metadata metadata) {
+        final Bom16.Metadata.Builder builder = Bom16.Metadata.newBuilder();
+        if (metadata.getTimestamp() != null) {
+            builder.setTimestamp(convert(metadata.getTimestamp()));
+        }
+        final Bom16.Tool.Builder tools = Bom16.Tool.newBuilder();
+        if (metadata.getTools() != null) {
+            // legacy metadata.tools.tool: the protobuf schema only supports a single tool
+            for (Tool tool : metadata.getTools()) {
+                setIfNotNull(tool.getVendor(), tools::setVendor);
+                setIfNotNull(tool.getName(), tools::setName);
+                setIfNotNull(tool.getVersion(), tools::setVersion);
+                if (tool.getHashes() != null) {
+                    tool.getHashes().forEach(h -> tools.addHashes(convert(h)));
+                }
+            }
+        }
+        if (metadata.getToolChoice() != null && metadata.getToolChoice().getComponents() != null) {
+            metadata.getToolChoice().getComponents().forEach(c -> tools.addComponents(convert(c)));
+        }
+        if (metadata.getTools() != null || metadata.getToolChoice() != null) {
+            builder.setTools(tools);
+        }
+        if (metadata.getComponent() != null) {
+            builder.setComponent(convert(metadata.getComponent()));
+        }
+        addProperties(metadata.getProperties(), builder::addProperties);
+        if (metadata.getLifecycles() != null && metadata.getLifecycles().getLifecycleChoice() != null) {
+            for (LifecycleChoice choice : metadata.getLifecycles().getLifecycleChoice()) {
+                final Bom16.Lifecycles.Builder lifecycle = Bom16.Lifecycles.newBuilder();
+                if (choice.getPhase() != null) {
+                    lifecycle.setPhase(Bom16.LifecyclePhase.valueOf("LIFECYCLE_PHASE_" + choice.getPhase().name()));
+                } else {
+                    setIfNotNull(choice.getName(), lifecycle::setName);
+                }
+                setIfNotNull(choice.getDescription(), lifecycle::setDescription);
+                builder.addLifecycles(lifecycle);
+            }
+        }
+        return builder.build();
+    }
+
+    private Bom16.Component convert(final Component component) {
+        final Bom16.Component.Builder builder = Bom16.Component.newBuilder()
+                .setType(convert(component.getType()))
+                .setName(nullToEmpty(component.getName()))
+                .setVersion(nullToEmpty(component.getVersion()));
+        setIfNotNull(component.getBomRef(), builder::setBomRef);
+        setIfNotNull(component.getAuthor(), builder::setAuthor);
+        setIfNotNull(component.getPublisher(), builder::setPublisher);
+        setIfNotNull(component.getGroup(), builder::setGroup);
+        setIfNotNull(component.getDescription(), builder::setDescription);
+        if (component.getScope() != null) {
+            builder.setScope(Bom16.Scope.valueOf("SCOPE_" + component.getScope().name()));
+        }
+        if (component.getHashes() != null) {
+            component.getHashes().forEach(h -> builder.addHashes(convert(h)));
+        }
+        addLicenses(component.getLicenseChoice(), builder);
+        setIfNotNull(component.getCopyright(), builder::setCopyright);
+        setIfNotNull(component.getCpe(), builder::setCpe);
+        setIfNotNull(component.getPurl(), builder::setPurl);
+        if (component.getModified() != null) {
+            builder.setModified(component.getModified());
+        }
+        if (component.getExternalReferences() != null) {
+            component.getExternalReferences().forEach(r -> builder.addExternalReferences(convert(r)));
+        }
+        if (component.getComponents() != null) {
+            component.getComponents().forEach(c -> builder.addComponents(convert(c)));
+        }
+        addProperties(component.getProperties(), builder::addProperties);
+        return builder.build();
+    }
+
+    private static Bom16.Classification convert(final Component.Type type) {
+        if (type == null) {
+            return Bom16.Classification.CLASSIFICATION_NULL;
+        }
+        return Bom16.Classification.valueOf("CLASSIFICATION_" + type.name());
+    }
+
+    private static void addLicenses(final LicenseChoice licenseChoice, final Bom16.Component.Builder builder) {
+        if (licenseChoice == null) {
+            return;
+        }
+        if (licenseChoice.getLicenses() != null) {
+            for (License license : licenseChoice.getLicenses()) {
+                final Bom16.License.Builder l = Bom16.License.newBuilder();
+                if (license.getId() != null) {
+                    l.setId(license.getId());
+                } else {
+                    l.setName(nullToEmpty(license.getName()));
+                }
+                setIfNotNull(license.getUrl(), l::setUrl);
+                final AttachmentText text = license.getAttachmentText();
+                if (text != null) {
+                    final Bom16.AttachedText.Builder t = Bom16.AttachedText.newBuilder().setValue(nullToEmpty(text.getText()));
+                    setIfNotNull(text.getContentType(), t::setContentType);
+                    setIfNotNull(text.getEncoding(), t::setEncoding);
+                    l.setText(t);
+                }
+                builder.addLicenses(Bom16.LicenseChoice.newBuilder().setLicense(l));
+            }
+        }
+        if (licenseChoice.getExpression() != null) {
+            builder.addLicenses(Bom16.LicenseChoice.newBuilder().setExpression(licenseChoice.getExpression().getValue()));
+        }
+    }
+
+    private static Bom16.ExternalReference convert(final ExternalReference reference) {
+        Bom16.ExternalReferenceType type;
+        try {
+            type = Bom16.ExternalReferenceType.valueOf("EXTERNAL_REFERENCE_TYPE_" + reference.getType().name());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            type = Bom16.ExternalReferenceType.EXTERNAL_REFERENCE_TYPE_OTHER;
+        }
+        final Bom16.ExternalReference.Builder builder = Bom16.ExternalReference.newBuilder()
+                .setType(type)
+                .setUrl(nullToEmpty(reference.getUrl()));
+        setIfNotNull(reference.getComment(), builder::setComment);
+        if (reference.getHashes() != null) {
+            reference.getHashes().forEach(h -> builder.addHashes(convert(h)));
+        }
+        return builder.build();
+    }
+
+    private static Bom16.Hash convert(final Hash hash) {
+        return Bom16.Hash.newBuilder()
+                .setAlg(convertHashAlgorithm(hash.getAlgorithm()))
+                .setValue(nullToEmpty(hash.getValue()))
+                .build();
+    }
+
+    private static Bom16.HashAlg convertHashAlgorithm(final String algorithm) {
+        final Hash.Algorithm alg = Hash.Algorithm.fromSpec(algorithm);
+        if (alg == null) {
+            return Bom16.HashAlg.HASH_ALG_NULL;
+        }
+        switch (alg) {
+            case MD5:
+                return Bom16.HashAlg.HASH_ALG_MD_5;
+            case SHA1:
+                return Bom16.HashAlg.HASH_ALG_SHA_1;
+            case SHA_256:
+                return Bom16.HashAlg.HASH_ALG_SHA_256;
+            case SHA_384:
+                return Bom16.HashAlg.HASH_ALG_SHA_384;
+            case SHA_512:
+                return Bom16.HashAlg.HASH_ALG_SHA_512;
+            case SHA3_256:
+                return Bom16.HashAlg.HASH_ALG_SHA_3_256;
+            case SHA3_384:
+                return Bom16.HashAlg.HASH_ALG_SHA_3_384;
+            case SHA3_512:
+                return Bom16.HashAlg.HASH_ALG_SHA_3_512;
+            case BLAKE2b_256:
+                return Bom16.HashAlg.HASH_ALG_BLAKE_2_B_256;
+            case BLAKE2b_384:
+                return Bom16.HashAlg.HASH_ALG_BLAKE_2_B_384;
+            case BLAKE2b_512:
+                return Bom16.HashAlg.HASH_ALG_BLAKE_2_B_512;
+            case BLAKE3:
+                return Bom16.HashAlg.HASH_ALG_BLAKE_3;
+            default:
+                return Bom16.HashAlg.HASH_ALG_NULL;
+        }
+    }
+
+    private static Bom16.Dependency convert(final Dependency dependency) {
+        final Bom16.Dependency.Builder builder = Bom16.Dependency.newBuilder().setRef(dependency.getRef());
+        if (dependency.getDependencies() != null) {
+            dependency.getDependencies().forEach(d -> builder.addDependencies(convert(d)));
+        }
+        return builder.build();
+    }
+
+    private static Timestamp convert(final Date date) {
+        final long millis = date.getTime();
+        return Timestamp.newBuilder()
+                .setSeconds(Math.floorDiv(millis, 1000L))
+                .setNanos((int) Math.floorMod(millis, 1000L) * 1_000_000)
+                .build();
+    }
+
+    private static void addProperties(final List<Property> properties, final Consumer<Bom16.Property> consumer) {
+        if (properties != null) {
+            for (Property property : properties) {
+                final Bom16.Property.Builder p = Bom16.Property.newBuilder().setName(nullToEmpty(property.getName()));
+                setIfNotNull(property.getValue(), p::setValue);
+                consumer.accept(p.build());
+            }
+        }
+    }
+
+    private static void setIfNotNull(final String value, final Consumer<String> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,743 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.cyclonedx.Version;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Hash;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent cache of converted components, shared by the builds of a host: converting a component builds the
+ * effective POM of the artifact and hashes its file, which is costly and gives the same result for a same release
+ * artifact.
+ * Entries are keyed by package URL and conversion options, and record the artifact file in the local repository they
+ * were converted from: an entry is used only if the file has the same size and modification time, or else the same
+ * SHA-256 hash. SNAPSHOT artifacts and artifacts outside the local repository are not cached.
+ * The cache of each plugin version is stored in an {@link IndexedCacheFile indexed file} of a subdirectory named after
+ * the version, so that builds with different plugin versions do not supersede each other's cache. The file is
+ * memory-mapped and looked up without loading it.
+ * New entries are kept in memory until the cache is saved: a new file with the next generation number is then written
+ * with all the entries, cached and new, by a single writer at a time, under a file lock, so that concurrent builds
+ * share it. A save therefore costs a rewrite of the whole cache file, whatever the number of new entries: builds
+ * without new entry do not save, and hits refresh the last use time of an entry at most daily. Files are never
+ * replaced, since a mapped file cannot be replaced nor deleted on Windows: older generations are deleted when they are
+ * no longer mapped, by the same save or a next one. A missing or corrupt file, even with a single corrupt index entry,
+ * is ignored and superseded by the next save. The cache is exported and imported between hosts as a bundle file, read
+ * and written in a single pass.
+ * Entries record their last use, for maintenance goals to prune unused entries, and builds add their hits and misses to
+ * the statistics of the cache.
+ */
+class ComponentCache {
+    /**
+     * Prefix of the cache file names, followed by the generation number and {@link #CACHE_FILE_SUFFIX}: the current
+     * cache file is the one with the highest generation.
+     */
+    private static final String CACHE_FILE_PREFIX = "components-";
+
+    private static final String CACHE_FILE_SUFFIX = ".idx";
+
+    private static final String LOCK_FILE = "components.lock";
+
+    private static final String STATS_FILE = "components.stats";
+
+    private static final String STATS_HITS = "hits";
+
+    private static final String STATS_MISSES = "misses";
+
+    /**
+     * Minimum time between two updates of the last use time of an entry, for hits to rarely rewrite the cache.
+     */
+    private static final long USE_REFRESH_INTERVAL = TimeUnit.DAYS.toMillis(1);
+
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private static final byte[] MAGIC = "CDXCACHE".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Version of the bundle format.
+     */
+    static final int BUNDLE_FORMAT_VERSION = 1;
+
+    private final File directory;
+
+    private final String pluginVersion;
+
+    private final File localRepository;
+
+    private final ComponentJson json = new ComponentJson();
+
+    private final IndexedCacheFile file;
+
+    private final Map<String, Entry> updates = new LinkedHashMap<>();
+
+    private long hits;
+
+    private long misses;
+
+    private ComponentCache(final File directory, final String pluginVersion, final File localRepository, final IndexedCacheFile file) {
+        this.directory = directory;
+        this.pluginVersion = pluginVersion;
+        this.localRepository = localRepository;
+        this.file = file;
+    }
+
+    /**
+     * Opens the cache of a directory, empty if it does not exist or was written by another plugin version.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the plugin version, since conversion may differ between versions
+     * @param localRepository the local repository the cached artifacts are in
+     * @return the cache
+     * @throws IOException if the cache cannot be read
+     */
+    static ComponentCache open(final File directory, final String pluginVersion, final File localRepository) throws IOException {
+        return new ComponentCache(directory, pluginVersion, localRepository, openFile(directory, pluginVersion));
+    }
+
+    /**
+     * Maps the cache file of a plugin version in a directory, if it exists and was written by this plugin version.
+     */
+    private static IndexedCacheFile openFile(final File directory, final String pluginVersion) throws IOException {
+        final IndexedCacheFile file = openCurrent(getVersionDirectory(directory, pluginVersion));
+        return (file != null && pluginVersion.equals(file.getPluginVersion())) ? file : null;
+    }
+
+    /**
+     * Returns the subdirectory of a cache directory with the cache files of a plugin version.
+     */
+    private static File getVersionDirectory(final File directory, final String pluginVersion) {
+        return new File(directory, pluginVersion.replaceAll("[^A-Za-z0-9._-]", "_"));
+    }
+
+    /**
+     * Maps the current cache file of a version directory, looking again for the current file if a writer deleted it meanwhile.
+     */
+    private static IndexedCacheFile openCurrent(final File directory) throws IOException {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            final File cacheFile = getCacheFile(directory);
+            if (cacheFile == null) {
+                return null;
+            }
+            final IndexedCacheFile file = IndexedCacheFile.open(cacheFile);
+            if (file != null || cacheFile.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the current cache file of a plugin version in a directory.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the plugin version
+     * @return the cache file with the highest generation, or {@code null} if there is none
+     */
+    static File getCacheFile(final File directory, final String pluginVersion) {
+        return getCacheFile(getVersionDirectory(directory, pluginVersion));
+    }
+
+    private static File getCacheFile(final File versionDirectory) {
+        final long generation = getGeneration(versionDirectory);
+        return (generation < 0) ? null : getCacheFile(versionDirectory, generation);
+    }
+
+    private static File getCacheFile(final File directory, final long generation) {
+        return new File(directory, CACHE_FILE_PREFIX + generation + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the generation of a cache file name.
+     *
+     * @return the generation, or -1 if the name is not the name of a cache file
+     */
+    private static long getGeneration(final String name) {
+        if (name.startsWith(CACHE_FILE_PREFIX) && name.endsWith(CACHE_FILE_SUFFIX)) {
+            try {
+                return Long.parseLong(name.substring(CACHE_FILE_PREFIX.length(), name.length() - CACHE_FILE_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                // not a cache file
+            }
+        }
+        return -1;
+    }
+
+    private static long getGeneration(final File directory) {
+        long generation = -1;
+        final String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                generation = Math.max(generation, getGeneration(name));
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Writes a new cache file in a version directory, under the cache lock, with the next generation number, then
+     * deletes older cache files.
+     */
+    private static <T> T writeLocked(final File directory, final CacheFileWriter<T> writer) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final long generation = getGeneration(directory) + 1;
+        final File cacheFile = getCacheFile(directory, generation);
+        final File tmp = new File(directory, cacheFile.getName() + ".tmp");
+        final T result = writer.write(tmp);
+        Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        deleteOlder(directory, generation);
+        return result;
+    }
+
+    private interface CacheFileWriter<T> {
+        T write(File file) throws IOException;
+    }
+
+    /**
+     * Deletes the cache files of a version directory older than a generation, if not mapped: files still mapped on Windows
+     * are deleted by a next save or prune.
+     */
+    private static void deleteOlder(final File directory, final long generation) {
+        final String[] names = directory.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            final long older = getGeneration(name);
+            if (older >= 0 && older < generation) {
+                try {
+                    Files.deleteIfExists(new File(directory, name).toPath());
+                } catch (IOException e) {
+                    // still mapped
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the plugin that converts the cached components, with the modification time of the plugin
+     * file for SNAPSHOT versions, since conversion may differ between versions.
+     *
+     * @param pluginDescriptor the descriptor of the plugin
+     * @return the plugin version of the cache entries
+     */
+    static String getVersion(final PluginDescriptor pluginDescriptor) {
+        final String version = pluginDescriptor.getVersion();
+        final File file = pluginDescriptor.getPluginArtifact().getFile();
+        if (version.endsWith(Artifact.SNAPSHOT_VERSION) && file != null) {
+            return version + '@' + file.lastModified();
+        }
+        return version;
+    }
+
+    /**
+     * Returns the key of a component: package URL and the conversion options the component depends on.
+     */
+    static String getKey(final String purl, final Version schemaVersion, final boolean includeLicenseText) {
+        return purl + '#' + schemaVersion.getVersionString() + (includeLicenseText ? ";licenseText" : "");
+    }
+
+    /**
+     * Returns the path of a cacheable artifact file, relative to the local repository.
+     *
+     * @return the relative path, or {@code null} if the artifact is not cacheable
+     */
+    private String getPath(final Artifact artifact) {
+        final File file = artifact.getFile();
+        if (artifact.isSnapshot() || file == null || !file.isFile()) {
+            return null;
+        }
+        final Path repository = localRepository.toPath().toAbsolutePath().normalize();
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        return path.startsWith(repository) ? repository.relativize(path).toString().replace(File.separatorChar, '/') : null;
+    }
+
+    /**
+     * Returns whether the component of an artifact can be cached: release artifact with a file in the local
+     * repository.
+     *
+     * @param artifact the artifact
+     * @return {@code true} if the artifact is cacheable
+     */
+    boolean isCacheable(final Artifact artifact) {
+        return getPath(artifact) != null;
+    }
+
+    /**
+     * Returns the cached component of an artifact.
+     *
+     * @param key the key of the component
+     * @param artifact the artifact
+     * @return a copy of the cached component, or {@code null} if none is cached for the artifact file
+     * @throws IOException if the cached component cannot be read or the artifact file cannot be hashed
+     */
+    synchronized Component get(final String key, final Artifact artifact) throws IOException {
+        Entry entry = updates.get(key);
+        if (entry == null && file != null) {
+            entry = file.get(key);
+        }
+        final String path = getPath(artifact);
+        final File artifactFile = artifact.getFile();
+        if (entry == null || path == null || !path.equals(entry.path) || entry.length != artifactFile.length()) {
+            misses++;
+            return null;
+        }
+        final Component component = json.read(entry.component);
+        final long now = System.currentTimeMillis();
+        boolean refresh = now - entry.lastUsed > USE_REFRESH_INTERVAL;
+        if (entry.lastModified != artifactFile.lastModified()) {
+            // restored local repositories may not keep modification times: compare content
+            if (!isSameContent(component, artifactFile)) {
+                misses++;
+                return null;
+            }
+            refresh = true;
+        }
+        if (refresh) {
+            updates.put(key, new Entry(key, path, artifactFile.length(), artifactFile.lastModified(), now, entry.component));
+        }
+        hits++;
+        return component;
+    }
+
+    private static boolean isSameContent(final Component component, final File file) throws IOException {
+        if (component.getHashes() != null) {
+            for (Hash hash : component.getHashes()) {
+                if (Hash.Algorithm.SHA_256.getSpec().equals(hash.getAlgorithm())) {
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        return DigestUtils.sha256Hex(in).equals(hash.getValue());
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Caches the component of an artifact, if the artifact is cacheable.
+     *
+     * @param key the key of the component
+     * @param artifact the artifact
+     * @param component the component converted from the artifact
+     * @throws IOException if the component cannot be serialized
+     */
+    synchronized void put(final String key, final Artifact artifact, final Component component) throws IOException {
+        final String path = getPath(artifact);
+        if (path == null) {
+            return;
+        }
+        final File artifactFile = artifact.getFile();
+        updates.put(key, new Entry(key, path, artifactFile.length(), artifactFile.lastModified(), System.currentTimeMillis(), json.write(component)));
+    }
+
+    /**
+     * Stores the entries added or refreshed since the cache was opened, merged with the entries stored meanwhile by
+     * concurrent builds, and adds hits and misses to the statistics of the cache.
+     *
+     * @throws IOException if the cache cannot be written
+     */
+    synchronized void save() throws IOException {
+        if (updates.isEmpty() && hits + misses == 0) {
+            return;
+        }
+        withLock(directory, () -> {
+            if (!updates.isEmpty()) {
+                mergeLocked(directory, pluginVersion, updates.values(), true);
+            }
+            final Properties stats = readStats(directory);
+            stats.setProperty(STATS_HITS, Long.toString(Long.parseLong(stats.getProperty(STATS_HITS, "0")) + hits));
+            stats.setProperty(STATS_MISSES, Long.toString(Long.parseLong(stats.getProperty(STATS_MISSES, "0")) + misses));
+            final File tmp = new File(directory, STATS_FILE + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+                stats.store(out, "CycloneDX component cache statistics");
+            }
+            Files.move(tmp.toPath(), new File(directory, STATS_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return null;
+        });
+        updates.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private static Properties readStats(final File directory) throws IOException {
+        final Properties stats = new Properties();
+        final File file = new File(directory, STATS_FILE);
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                stats.load(in);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Merges entries into the cache of a directory, under the cache lock.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the plugin version of the entries
+     * @param newEntries the entries
+     * @param replace whether the entries replace cached entries with the same key
+     * @return the number of merged entries
+     * @throws IOException if the cache cannot be read or written
+     */
+    static int merge(final File directory, final String pluginVersion, final Collection<Entry> newEntries, final boolean replace) throws IOException {
+        return withLock(directory, () -> mergeLocked(directory, pluginVersion, newEntries, replace));
+    }
+
+    private static int mergeLocked(final File directory, final String pluginVersion, final Collection<Entry> newEntries, final boolean replace) throws IOException {
+        final IndexedCacheFile current = openFile(directory, pluginVersion);
+        return writeLocked(getVersionDirectory(directory, pluginVersion), file -> IndexedCacheFile.merge(file, pluginVersion, current, newEntries, replace));
+    }
+
+    /**
+     * Runs an action updating the cache of a directory, one writer at a time: builds and maintenance goals lock the
+     * lock file of the directory. File locks are held on behalf of the whole JVM, so threads of a same JVM, like
+     * executions of parallel builds, also synchronize on the lock file path.
+     */
+    private static <T> T withLock(final File directory, final LockedAction<T> action) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final File lockFile = new File(directory, LOCK_FILE).getAbsoluteFile();
+        synchronized (LOCKS.computeIfAbsent(lockFile.getPath(), path -> new Object())) {
+            try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = lockChannel.lock()) {
+                return action.run();
+            }
+        }
+    }
+
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Returns statistics of the cache of a plugin version in a directory, read without lock from the current cache
+     * file.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the plugin version
+     * @return the statistics
+     * @throws IOException if the cache cannot be read
+     */
+    static Stats stats(final File directory, final String pluginVersion) throws IOException {
+        final File cacheFile = getCacheFile(directory, pluginVersion);
+        final IndexedCacheFile file = (cacheFile == null) ? null : IndexedCacheFile.open(cacheFile);
+        final Properties stats = readStats(directory);
+        return new Stats(file == null ? null : file.getPluginVersion(), file == null ? 0 : file.size(), file == null ? 0 : cacheFile.length(),
+                Long.parseLong(stats.getProperty(STATS_HITS, "0")), Long.parseLong(stats.getProperty(STATS_MISSES, "0")));
+    }
+
+    /**
+     * Checks a cache entry against the artifact file it was converted from.
+     *
+     * @param entry the entry
+     * @param localRepository the local repository
+     * @param json the JSON serialization of components
+     * @return the status of the entry
+     */
+    static Status verify(final Entry entry, final File localRepository, final ComponentJson json) {
+        final File artifactFile = new File(localRepository, entry.path);
+        if (!artifactFile.isFile()) {
+            return Status.MISSING;
+        }
+        final Component component;
+        try {
+            component = json.read(entry.component);
+        } catch (IOException e) {
+            return Status.UNREADABLE;
+        }
+        try {
+            if (entry.length != artifactFile.length()
+                    || (entry.lastModified != artifactFile.lastModified() && !isSameContent(component, artifactFile))) {
+                return Status.CHANGED;
+            }
+        } catch (IOException e) {
+            return Status.MISSING;
+        }
+        return Status.VALID;
+    }
+
+    /**
+     * Prunes the cache of a plugin version in a directory, under the cache lock: entries which artifact file is
+     * missing from the local repository, entries not used for a maximum age, then least recently used entries until
+     * the cache file fits a size budget. A cache file of the version directory written by another plugin version, or
+     * invalid, is removed. Caches of other plugin versions are left untouched.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the current plugin version
+     * @param localRepository the local repository, to prune entries which artifact file is missing
+     * @param maxAge the maximum time since last use of an entry, in milliseconds, or 0 for no maximum
+     * @param maxSize the maximum size of the cache file, in bytes, or 0 for no maximum
+     * @param now the current time
+     * @return the numbers of pruned entries
+     * @throws IOException if the cache cannot be read or written
+     */
+    static Pruning prune(final File directory, final String pluginVersion, final File localRepository, final long maxAge, final long maxSize, final long now) throws IOException {
+        return withLock(directory, () -> {
+            final Pruning pruning = new Pruning();
+            final File versionDirectory = getVersionDirectory(directory, pluginVersion);
+            final IndexedCacheFile file = openCurrent(versionDirectory);
+            if (file == null || !pluginVersion.equals(file.getPluginVersion())) {
+                pruning.otherVersion = (file == null) ? 0 : file.size();
+                deleteOlder(versionDirectory, Long.MAX_VALUE);
+                return pruning;
+            }
+            final List<Entry> entries = file.entries();
+            final BitSet selected = new BitSet(entries.size());
+            final List<Integer> retained = new ArrayList<>();
+            final long[] lastUsed = new long[entries.size()];
+            long size = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                final Entry entry = entries.get(i);
+                lastUsed[i] = entry.lastUsed;
+                if (localRepository != null && !new File(localRepository, entry.path).isFile()) {
+                    pruning.missing++;
+                } else if (maxAge > 0 && now - entry.lastUsed > maxAge) {
+                    pruning.expired++;
+                } else {
+                    selected.set(i);
+                    retained.add(i);
+                    size += file.sizeOf(i);
+                }
+            }
+            if (maxSize > 0 && size > maxSize) {
+                retained.sort(Comparator.comparingLong(i -> lastUsed[i]));
+                for (int i : retained) {
+                    if (size <= maxSize) {
+                        break;
+                    }
+                    selected.clear(i);
+                    size -= file.sizeOf(i);
+                    pruning.overBudget++;
+                }
+            }
+            pruning.retained = selected.cardinality();
+            if (pruning.retained < entries.size()) {
+                writeLocked(versionDirectory, tmp -> {
+                    IndexedCacheFile.select(tmp, file, selected);
+                    return null;
+                });
+            }
+            return pruning;
+        });
+    }
+
+    /**
+     * Reads the entries cached for a plugin version in a directory.
+     *
+     * @param directory the cache directory
+     * @param pluginVersion the plugin version
+     * @return the cache content, with {@code null} plugin version if there is no cache
+     * @throws IOException if the cache cannot be read
+     */
+    static Bundle read(final File directory, final String pluginVersion) throws IOException {
+        final IndexedCacheFile file = openCurrent(getVersionDirectory(directory, pluginVersion));
+        return (file == null) ? new Bundle(null, new ArrayList<>()) : new Bundle(file.getPluginVersion(), file.entries());
+    }
+
+    /**
+     * Reads a bundle: a header with format and plugin versions, then gzipped entries, read in a single pass. Entries
+     * get the current time as last use time.
+     *
+     * @param file the bundle file
+     * @return the bundle
+     * @throws IOException if the file cannot be read or is not a bundle of a supported format
+     */
+    static Bundle readBundle(final File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            final DataInputStream header = new DataInputStream(in);
+            final byte[] magic = new byte[MAGIC.length];
+            header.readFully(magic);
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IOException("Not a CycloneDX cache bundle: " + file);
+            }
+            final int formatVersion = header.readInt();
+            if (formatVersion != BUNDLE_FORMAT_VERSION) {
+                throw new IOException("Unsupported CycloneDX cache bundle format " + formatVersion + ": " + file);
+            }
+            final String pluginVersion = header.readUTF();
+            final DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+            final long imported = System.currentTimeMillis();
+            // counts are read from the file: not trusted to size buffers, a truncated bundle fails at end of data
+            final int count = data.readInt();
+            final List<Entry> entries = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final String key = data.readUTF();
+                final String path = data.readUTF();
+                final long length = data.readLong();
+                final long lastModified = data.readLong();
+                final byte[] component = readBytes(data, data.readInt());
+                entries.add(new Entry(key, path, length, lastModified, imported, component));
+            }
+            return new Bundle(pluginVersion, entries);
+        }
+    }
+
+    private static byte[] readBytes(final InputStream in, final int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Invalid CycloneDX cache bundle entry length " + length);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(length, 8192));
+        if (IOUtils.copyLarge(in, out, 0, length) != length) {
+            throw new EOFException();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a bundle.
+     *
+     * @param file the bundle file
+     * @param bundle the bundle
+     * @throws IOException if the file cannot be written
+     */
+    static void writeBundle(final File file, final Bundle bundle) throws IOException {
+        if (file.getParentFile() != null) {
+            Files.createDirectories(file.getParentFile().toPath());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+            final DataOutputStream header = new DataOutputStream(out);
+            header.write(MAGIC);
+            header.writeInt(BUNDLE_FORMAT_VERSION);
+            header.writeUTF(bundle.pluginVersion);
+            header.flush();
+            final GZIPOutputStream gzip = new GZIPOutputStream(out);
+            final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+            data.writeInt(bundle.entries.size());
+            for (Entry entry : bundle.entries) {
+                data.writeUTF(entry.key);
+                data.writeUTF(entry.path);
+                data.writeLong(entry.length);
+                data.writeLong(entry.lastModified);
+                data.writeInt(entry.component.length);
+                data.write(entry.component);
+            }
+            data.flush();
+            gzip.finish();
+        }
+    }
+
+    /**
+     * Cached component of an artifact, serialized as JSON, with the size and modification time of the artifact file
+     * it was converted from, and the last time it was used.
+     */
+    static final class Entry {
+        final String key;
+        final String path;
+        final long length;
+        final long lastModified;
+        final long lastUsed;
+        final byte[] component;
+
+        Entry(final String key, final String path, final long length, final long lastModified, final long lastUsed, final byte[] component) {
+            this.key = key;
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.lastUsed = lastUsed;
+            this.component = component;
+        }
+    }
+
+    /**
+     * Status of a cache entry, checked against the artifact file it was converted from.
+     */
+    enum Status {
+        VALID,
+        CHANGED,
+        MISSING,
+        UNREADABLE
+    }
+
+    /**
+     * Statistics of a cache: plugin version, entry count and size of the cache file, hits and misses of the builds.
+     */
+    static final class Stats {
+        final String pluginVersion;
+        final int entries;
+        final long size;
+        final long hits;
+        final long misses;
+
+        Stats(final String pluginVersion, final int entries, final long size, final long hits, final long misses) {
+            this.pluginVersion = pluginVersion;
+            this.entries = entries;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+
+    /**
+     * Numbers of entries pruned from a cache, by reason, and of retained entries.
+     */
+    static final class Pruning {
+        int missing;
+        int expired;
+        int overBudget;
+        int otherVersion;
+        int retained;
+    }
+
+    /**
+     * Cache entries of a plugin version.
+     */
+    static final class Bundle {
+        final String pluginVersion;
+        final Collection<Entry> entries;
+
+        Bundle(final String pluginVersion, final Collection<Entry> entries) {
+            this.pluginVersion = pluginVersion;
+            this.entries = entries;
+        }
+    }
+}
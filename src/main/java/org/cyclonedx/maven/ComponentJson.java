@@ -0,0 +1,47 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cyclonedx.Version;
+import org.cyclonedx.generators.json.BomJsonGenerator;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+
+import java.io.IOException;
+
+/**
+ * JSON serialization of single components, with the CycloneDX serializers of the latest schema version for stored
+ * components not to lose any field.
+ */
+class ComponentJson extends BomJsonGenerator {
+    private final ObjectMapper reader = new ObjectMapper();
+
+    ComponentJson() {
+        super(new Bom(), Version.VERSION_16);
+    }
+
+    byte[] write(final Component component) throws IOException {
+        return mapper.writeValueAsBytes(component);
+    }
+
+    Component read(final byte[] json) throws IOException {
+        return reader.readValue(json, Component.class);
+    }
+}
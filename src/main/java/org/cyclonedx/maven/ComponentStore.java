@@ -0,0 +1,229 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.cyclonedx.model.Component;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BOM components indexed by package URL, kept out of the heap for bounded-memory aggregation: components are
+ * serialized as JSON to an append-only temporary file, and only the package URL and location of each component is
+ * kept in memory, in insertion order.
+ * Components are read from the file on each access: a changed component must be put again for the change to be
+ * stored.
+ */
+class ComponentStore extends AbstractMap<String, Component> implements Closeable {
+    private final FileChannel channel;
+
+    private final ComponentJson json = new ComponentJson();
+
+    private final Map<String, Location> index = new LinkedHashMap<>();
+
+    private long length;
+
+    /**
+     * Creates a store, with its temporary file deleted when the store is closed, or as soon as it is opened on
+     * platforms that allow it.
+     *
+     * @param directory the directory of the temporary file
+     * @throws IOException if the temporary file cannot be created
+     */
+    ComponentStore(final File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final Path file = Files.createTempFile(directory.toPath(), "cyclonedx-components-", ".tmp");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Returns the number of bytes written to the store, including components that were replaced or removed.
+     *
+     * @return the size of the temporary file
+     */
+    long getLength() {
+        return length;
+    }
+
+    private Location write(final Component component) {
+        try {
+            final byte[] bytes = json.write(component);
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            final Location location = new Location(length, bytes.length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, length + buffer.position());
+            }
+            length += bytes.length;
+            return location;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to store component " + component.getPurl(), e);
+        }
+    }
+
+    private Component read(final Location location) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            return json.read(buffer.array());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read stored component", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public Component get(final Object key) {
+        final Location location = index.get(key);
+        return (location == null) ? null : read(location);
+    }
+
+    /**
+     * Stores a component, replacing the component stored with the same package URL.
+     *
+     * @return {@code null}: the replaced component is not read back from the file
+     */
+    @Override
+    public Component put(final String key, final Component value) {
+        index.put(key, write(value));
+        return null;
+    }
+
+    @Override
+    public Component remove(final Object key) {
+        final Location location = index.remove(key);
+        return (location == null) ? null : read(location);
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    @Override
+    public Set<Entry<String, Component>> entrySet() {
+        return new AbstractSet<Entry<String, Component>>() {
+            @Override
+            public Iterator<Entry<String, Component>> iterator() {
+                final Iterator<Entry<String, Location>> locations = index.entrySet().iterator();
+                return new Iterator<Entry<String, Component>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return locations.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Component> next() {
+                        final Entry<String, Location> entry = locations.next();
+                        return new SimpleEntry<String, Component>(entry.getKey(), null) {
+                            @Override
+                            public Component getValue() {
+                                return read(entry.getValue());
+                            }
+
+                            @Override
+                            public Component setValue(final Component value) {
+                                final Component previous = getValue();
+                                entry.setValue(write(value));
+                                return previous;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        locations.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the components as a list that reads each component from the store when it is accessed, for output
+     * writers to stream the components without holding them all in memory.
+     *
+     * @return a snapshot of the components, in insertion order
+     */
+    List<Component> asList() {
+        final List<Location> locations = new ArrayList<>(index.values());
+        return new AbstractList<Component>() {
+            @Override
+            public Component get(final int index) {
+                return read(locations.get(index));
+            }
+
+            @Override
+            public int size() {
+                return locations.size();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        index.clear();
+        channel.close();
+    }
+
+    private static final class Location {
+        private final long offset;
+        private final int length;
+
+        Location(final long offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -18,20 +18,43 @@
  */
 package org.cyclonedx.maven;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.cyclonedx.maven.ProjectDependenciesConverter.BomDependencies;
+import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Metadata;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Creates a CycloneDX aggregate BOM at build root (with dependencies from the whole multi-modules build), and eventually a BOM for each module.
@@ -43,7 +66,6 @@ import java.util.Set;
         defaultPhase = LifecyclePhase.PACKAGE,
         threadSafe = true,
         aggregator = true,
-        requiresOnline = true,
         configurator = "cyclonedx-mojo-component-configurator"
 )
 public class CycloneDxAggregateMojo extends CycloneDxMojo {
@@ -82,6 +104,50 @@ public class CycloneDxAggregateMojo extends CycloneDxMojo {
     @Parameter(property = "excludeTestProject", defaultValue = "false", required = false)
     protected Boolean excludeTestProject;
 
+    /**
+     * Strategy to create the aggregate BOM:
+     * <ul>
+     * <li>{@code analyze}: resolve and analyze the dependencies of every module,</li>
+     * <li>{@code merge}: merge the JSON BOMs already generated and attached by the modules in the same build, falling
+     * back to analysis for modules without such BOM, or with different schema version, {@code maven.scopes} or goal
+     * options. Components are deduplicated by {@code bom-ref} and dependency edges are unioned.</li>
+     * </ul>
+     * Module BOMs are generated during the lifecycle of each module, that runs after the lifecycle of the execution
+     * root: {@code merge} is useful when the goal is invoked from command line after the lifecycle phase, like
+     * {@code mvn package cyclonedx:makeAggregateBom}. Modules without attached BOM are listed in a warning.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.aggregateStrategy", defaultValue = "analyze", required = false)
+    private String aggregateStrategy;
+
+    /**
+     * Directory where, in incremental mode, the analysis result of each module is cached with the fingerprint of its
+     * inputs: next aggregate BOM generation analyzes only the modules with changed inputs. Configure a directory
+     * outside the build directory to keep the cache across {@code clean} builds.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.moduleCacheDirectory", defaultValue = "${project.build.directory}/cyclonedx-modules", required = false)
+    private File moduleCacheDirectory;
+
+    /**
+     * Number of modules per aggregate BOM shard. When set, the components and dependencies of each group of modules
+     * are written to a separate BOM shard {@code ${outputName}-shard-N}, attached with classifier
+     * {@code ${classifier}-shard-N}, and the aggregate BOM only lists the modules, with BOM-Link external references
+     * to the shard describing each module. Shards are serialized and validated in parallel.
+     * {@code 0} disables sharding. Requires {@code schemaVersion} 1.5 or later.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.aggregateShardSize", defaultValue = "0", required = false)
+    private int aggregateShardSize;
+
+    /**
+     * BOM-Link references to the BOM shards, for the aggregate BOM.
+     */
+    private final List<ExternalReference> shardReferences = new ArrayList<>();
+
     protected boolean shouldExclude(MavenProject mavenProject) {
         boolean shouldExclude = false;
         if (excludeArtifactId != null && excludeArtifactId.length > 0) {
@@ -102,10 +168,43 @@ public class CycloneDxAggregateMojo extends CycloneDxMojo {
     @Override
     protected void logAdditionalParameters() {
         getLog().info("outputReactorProjects  : " + outputReactorProjects);
+        getLog().info("aggregateStrategy      : " + aggregateStrategy);
+        if (incremental) {
+            getLog().info("moduleCacheDirectory   : " + moduleCacheDirectory);
+        }
+        getLog().info("aggregateShardSize     : " + aggregateShardSize);
     }
 
     @Override
-    protected String extractComponentsAndDependencies(final Set<String> topLevelComponents, final Map<String, Component> components, final Map<String, Dependency> dependencies) throws MojoExecutionException {
+    protected void fingerprintAdditionalParameters(InputFingerprint fingerprint) {
+        super.fingerprintAdditionalParameters(fingerprint);
+        fingerprint.add("outputReactorProjects", outputReactorProjects)
+                .add("excludeArtifactId", excludeArtifactId)
+                .add("excludeGroupId", excludeGroupId)
+                .add("excludeTestProject", excludeTestProject)
+                .add("aggregateStrategy", aggregateStrategy)
+                .add("aggregateShardSize", aggregateShardSize);
+    }
+
+    @Override
+    protected Map<String, String> getBomOptions() {
+        final Map<String, String> options = super.getBomOptions();
+        options.put("excludeArtifactId", joinSorted(excludeArtifactId));
+        options.put("excludeGroupId", joinSorted(excludeGroupId));
+        options.put("excludeTestProject", String.valueOf(excludeTestProject));
+        return options;
+    }
+
+    @Override
+    protected List<MavenProject> getInputProjects() {
+        if (! getProject().isExecutionRoot()) {
+            return super.getInputProjects();
+        }
+        return reactorProjects.stream().filter(p -> !shouldExclude(p)).collect(Collectors.toList());
+    }
+
+    @Override
+    protected String extractComponentsAndDependencies(final Set<String> topLevelComponents, final Map<String, Component> components, final DependencyGraph dependencies) throws MojoExecutionException {
         if (! getProject().isExecutionRoot()) {
             // non-root project: let parent class create a module-only BOM?
             if (outputReactorProjects) {
@@ -118,30 +217,402 @@ public class CycloneDxAggregateMojo extends CycloneDxMojo {
         // root project: analyze and aggregate all the modules
         getLog().info((reactorProjects.size() <= 1) ? MESSAGE_RESOLVING_DEPS : MESSAGE_RESOLVING_AGGREGATED_DEPS);
 
+        final boolean merge = "merge".equalsIgnoreCase(aggregateStrategy);
+        if (!merge && !"analyze".equalsIgnoreCase(aggregateStrategy)) {
+            getLog().warn("Unsupported aggregateStrategy '" + aggregateStrategy + "', valid options are analyze and merge: using analyze");
+        }
+        if (aggregateShardSize > 0 && !isSharded()) {
+            getLog().warn("aggregateShardSize requires schemaVersion 1.5 or later for BOM-Link: writing a single aggregate BOM");
+        }
+        final ModuleBomCache moduleCache = incremental ? new ModuleBomCache(moduleCacheDirectory) : null;
         final List<String> excludedProjects = new ArrayList<>();
+        final List<MavenProject> modules = new ArrayList<>();
         for (final MavenProject mavenProject : reactorProjects) {
             if (shouldExclude(mavenProject)) {
             	excludedProjects.add(mavenProject.getArtifactId());
                 continue;
             }
+            modules.add(mavenProject);
+        }
+        if (merge) {
+            final List<String> modulesWithoutBom = modules.stream()
+                    .filter(module -> findModuleBom(module) == null)
+                    .map(MavenProject::getArtifactId)
+                    .collect(Collectors.toList());
+            if (!modulesWithoutBom.isEmpty()) {
+                getLog().warn(String.format(MESSAGE_MODULES_WITHOUT_BOM, modulesWithoutBom.size(), String.join(", ", modulesWithoutBom)));
+            }
+        }
+        if (isSharded()) {
+            aggregateShards(modules, merge, moduleCache, topLevelComponents, components, dependencies);
+        } else {
+            for (final MavenProject mavenProject : modules) {
+                try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.PHASE_MODULE, mavenProject.getArtifactId())) {
+                    aggregateModule(mavenProject, merge, moduleCache, topLevelComponents, components, dependencies);
+                }
+            }
+        }
 
-            final BomDependencies bomDependencies = extractBOMDependencies(mavenProject);
-            final Map<String, Dependency> projectDependencies = bomDependencies.getDependencies();
+        excludedProjects.stream().sorted(String.CASE_INSENSITIVE_ORDER).forEach(excluded -> getLog().info("Excluding " + excluded));
+        if (merge) {
+            getLog().info(String.format(MESSAGE_MERGED_MODULES, getMetrics().getCounter(ExecutionMetrics.COUNTER_MODULE_BOMS_MERGED)));
+        }
+        if (moduleCache != null) {
+            getLog().info(String.format(MESSAGE_CACHED_MODULES, getMetrics().getCounter(ExecutionMetrics.COUNTER_MODULE_CACHE_HITS)));
+        }
+        if (getMetrics().getCounter(ExecutionMetrics.COUNTER_MODULE_GRAPHS_COLLECTED) > 0) {
+            getLog().info(String.format(MESSAGE_COLLECTED_MODULES, getMetrics().getCounter(ExecutionMetrics.COUNTER_MODULE_GRAPHS_COLLECTED)));
+        }
 
-            final Component projectBomComponent = convertMavenDependency(mavenProject.getArtifact());
-            components.put(projectBomComponent.getPurl(), projectBomComponent);
-            topLevelComponents.add(projectBomComponent.getPurl());
+        addMavenProjectsAsParentDependencies(reactorProjects, dependencies);
+        // modules may depend on a same component with different dependencies: sort the union of its dependencies
+        dependencies.sortDependsOn();
 
-            populateComponents(topLevelComponents, components, bomDependencies.getArtifacts(), doProjectDependencyAnalysis(mavenProject, bomDependencies));
+        return "makeAggregateBom";
+    }
+
+    private boolean isSharded() {
+        return aggregateShardSize > 0 && getProject().isExecutionRoot() && schemaVersion().getVersion() >= 1.5;
+    }
 
-            projectDependencies.forEach(dependencies::putIfAbsent);
+    @Override
+    protected List<String> getSecondaryBomIds() {
+        if (!isSharded()) {
+            return Collections.emptyList();
+        }
+        final long modules = reactorProjects.stream().filter(p -> !shouldExclude(p)).count();
+        final List<String> ids = new ArrayList<>();
+        for (int shard = 1; (shard - 1) * (long) aggregateShardSize < modules; shard++) {
+            ids.add("shard-" + shard);
         }
+        return ids;
+    }
 
-        excludedProjects.stream().sorted(String.CASE_INSENSITIVE_ORDER).forEach(excluded -> getLog().info("Excluding " + excluded));
+    @Override
+    protected List<ExternalReference> getBomExternalReferences() {
+        return shardReferences;
+    }
 
-        addMavenProjectsAsParentDependencies(reactorProjects, dependencies);
+    /**
+     * Aggregates the modules in BOM shards of {@code aggregateShardSize} modules, written in parallel while next shards
+     * are analyzed: the aggregate gets a reference to each module and the dependencies between modules.
+     */
+    private void aggregateShards(final List<MavenProject> modules, final boolean merge, final ModuleBomCache moduleCache, final Set<String> topLevelComponents,
+                                 final Map<String, Component> components, final DependencyGraph dependencies) throws MojoExecutionException {
+        final Set<String> modulePurls = new HashSet<>();
+        for (MavenProject mavenProject : modules) {
+            modulePurls.add(generatePackageUrl(mavenProject.getArtifact()));
+        }
+        final List<String> ids = getSecondaryBomIds();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(ids.size(), Runtime.getRuntime().availableProcessors())));
+        try {
+            final List<Future<?>> shardBoms = new ArrayList<>();
+            for (int shard = 0; shard < ids.size(); shard++) {
+                final String id = ids.get(shard);
+                final String bomLink = "urn:cdx:" + generateSecondarySerialNumber(id).substring("urn:uuid:".length()) + "/1";
+                final Set<String> shardTopLevelComponents = new LinkedHashSet<>();
+                final Map<String, Component> shardComponents = new LinkedHashMap<>();
+                final DependencyGraph shardDependencies = new DependencyGraph(getStringPool());
+                final List<MavenProject> shardModules = modules.subList(shard * aggregateShardSize, Math.min(modules.size(), (shard + 1) * aggregateShardSize));
+                for (final MavenProject mavenProject : shardModules) {
+                    try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.PHASE_MODULE, mavenProject.getArtifactId())) {
+                        aggregateModule(mavenProject, merge, moduleCache, shardTopLevelComponents, shardComponents, shardDependencies);
+                    }
+                }
 
-        return "makeAggregateBom";
+                for (final MavenProject mavenProject : shardModules) {
+                    final String purl = generatePackageUrl(mavenProject.getArtifact());
+                    final Component component = shardComponents.get(purl);
+                    if (component != null) {
+                        components.put(purl, newModuleReference(component, bomLink));
+                        topLevelComponents.add(purl);
+                        dependencies.add(purl);
+                    }
+                }
+
+                final Metadata metadata = createMetadata("makeAggregateBom");
+                shardComponents.remove(metadata.getComponent().getPurl());
+                getProjectDependenciesConverter().cleanupBomDependencies(metadata, shardComponents, shardDependencies);
+                shardDependencies.sortDependsOn();
+                final List<Dependency> shardDependencyList = shardDependencies.toDependencies();
+                for (Dependency dependency : shardDependencyList) {
+                    if (dependencies.contains(dependency.getRef()) && dependency.getDependencies() != null) {
+                        for (Dependency dependsOn : dependency.getDependencies()) {
+                            if (modulePurls.contains(dependsOn.getRef())) {
+                                dependencies.addDependsOn(dependency.getRef(), dependsOn.getRef());
+                            }
+                        }
+                    }
+                }
+
+                final List<Component> shardComponentList = new ArrayList<>(shardComponents.values());
+                shardBoms.add(executor.submit(() -> {
+                    generateSecondaryBom(id, metadata, shardComponentList, shardDependencyList);
+                    return null;
+                }));
+                final ExternalReference shardReference = new ExternalReference();
+                shardReference.setType(ExternalReference.Type.BOM);
+                shardReference.setUrl(bomLink);
+                shardReference.setComment("BOM " + id + ", with " + shardModules.size() + " module(s)");
+                shardReferences.add(shardReference);
+            }
+            for (Future<?> shardBom : shardBoms) {
+                shardBom.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while writing BOM shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("An error occurred writing BOM shards: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        getLog().info(String.format(MESSAGE_SHARDED_MODULES, modules.size(), ids.size()));
+    }
+
+    /**
+     * Creates the reference to a module in the aggregate BOM: the module is described in its BOM shard.
+     *
+     * @param component the component of the module
+     * @param bomLink the BOM-Link to the BOM shard
+     * @return the component identifying the module, with BOM-Link to the module in the BOM shard
+     */
+    private static Component newModuleReference(final Component component, final String bomLink) {
+        final Component reference = new Component();
+        reference.setType(component.getType());
+        reference.setGroup(component.getGroup());
+        reference.setName(component.getName());
+        reference.setVersion(component.getVersion());
+        reference.setPurl(component.getPurl());
+        reference.setBomRef(component.getBomRef());
+        final ExternalReference externalReference = new ExternalReference();
+        externalReference.setType(ExternalReference.Type.BOM);
+        try {
+            externalReference.setUrl(bomLink + '#' + URLEncoder.encode(component.getBomRef(), StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        reference.addExternalReference(externalReference);
+        return reference;
+    }
+
+    /**
+     * Adds the components and dependencies of a module to the aggregate, either merged from the module BOM, read from
+     * the incremental cache or analyzed.
+     */
+    private void aggregateModule(final MavenProject mavenProject, final boolean merge, final ModuleBomCache moduleCache, final Set<String> topLevelComponents,
+                                 final Map<String, Component> components, final DependencyGraph dependencies) throws MojoExecutionException {
+        final Bom moduleBom = merge ? readModuleBom(mavenProject) : null;
+        if (moduleBom != null) {
+            getMetrics().count(ExecutionMetrics.COUNTER_MODULE_BOMS_MERGED, 1);
+            mergeComponents(topLevelComponents, components, convertMavenDependency(mavenProject.getArtifact()), moduleBom.getComponents());
+            dependencies.mergeAll(moduleBom.getDependencies());
+            return;
+        }
+
+        final String fingerprint = (moduleCache == null) ? null : computeModuleFingerprint(mavenProject);
+        final Bom cachedBom = (fingerprint == null) ? null : readCachedModule(moduleCache, mavenProject, fingerprint);
+        if (cachedBom != null) {
+            getMetrics().count(ExecutionMetrics.COUNTER_MODULE_CACHE_HITS, 1);
+            mergeComponents(topLevelComponents, components, cachedBom.getMetadata().getComponent(), cachedBom.getComponents());
+            dependencies.mergeAll(cachedBom.getDependencies());
+            return;
+        }
+
+        final BomDependencies bomDependencies = extractBOMDependencies(mavenProject);
+        final DependencyGraph projectDependencies = bomDependencies.getDependencies();
+
+        final Component projectBomComponent = convertMavenDependency(mavenProject.getArtifact());
+
+        // analyze module alone, for module scopes to be cached before they get merged with other modules
+        final Map<String, Component> projectComponents = new LinkedHashMap<>();
+        populateComponents(Collections.singleton(projectBomComponent.getPurl()), projectComponents, bomDependencies.getArtifacts(), doProjectDependencyAnalysis(mavenProject, bomDependencies));
+        projectComponents.remove(projectBomComponent.getPurl());
+
+        if (fingerprint != null) {
+            try {
+                moduleCache.write(mavenProject, fingerprint, projectBomComponent, projectComponents.values(), projectDependencies.toDependencies());
+            } catch (IOException e) {
+                getLog().warn("Unable to cache module " + mavenProject.getId() + ": " + e.getMessage());
+            }
+        }
+
+        mergeComponents(topLevelComponents, components, projectBomComponent, projectComponents.values());
+
+        dependencies.mergeAll(projectDependencies);
+    }
+
+    /**
+     * Returns the JSON BOM attached by a module during the current build.
+     *
+     * @param mavenProject the module
+     * @return the attached module BOM file, or {@code null} if none was attached
+     */
+    private File findModuleBom(final MavenProject mavenProject) {
+        for (Artifact attached : mavenProject.getAttachedArtifacts()) {
+            if (getClassifier().equals(attached.getClassifier()) && "json".equals(attached.getType()) && attached.getFile() != null) {
+                return attached.getFile();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the JSON BOM attached by a module during the current build.
+     *
+     * @param mavenProject the module
+     * @return the module BOM with non-null components and dependencies, or {@code null} if none was attached or if
+     *         it was generated with different scopes
+     */
+    private Bom readModuleBom(final MavenProject mavenProject) {
+        final File bomFile = findModuleBom(mavenProject);
+        if (bomFile == null) {
+            return null;
+        }
+        final Bom bom;
+        try {
+            bom = readJsonBom(bomFile);
+        } catch (IOException e) {
+            getLog().warn("Unable to read module BOM " + bomFile + ": " + e.getMessage());
+            return null;
+        }
+        final Metadata metadata = bom.getMetadata();
+        if (metadata == null || metadata.getProperties() == null || bom.getDependencies() == null) {
+            return null;
+        }
+        final boolean sameScopes = metadata.getProperties().stream()
+                .anyMatch(p -> "maven.scopes".equals(p.getName()) && getIncludedScopes().equals(p.getValue()));
+        if (!sameScopes) {
+            getLog().info("Module BOM of " + mavenProject.getArtifactId() + " has different scopes, analyzing module");
+            return null;
+        }
+        if (!schemaVersion().getVersionString().equals(bom.getSpecVersion()) || !hasSameOptions(mavenProject)) {
+            getLog().info("Module BOM of " + mavenProject.getArtifactId() + " has different options, analyzing module");
+            return null;
+        }
+        if (bom.getComponents() == null) {
+            bom.setComponents(new ArrayList<>());
+        }
+        return bom;
+    }
+
+    /**
+     * Reads the values of a JSON BOM used by the merge, one top-level value at a time and components and dependencies
+     * one by one, without building the tree of the whole document.
+     *
+     * @param bomFile the JSON BOM file
+     * @return the BOM, with top-level scalar values, metadata, components and dependencies
+     * @throws IOException if the file cannot be read or is not a JSON BOM
+     */
+    static Bom readJsonBom(final File bomFile) throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectNode scalars = mapper.createObjectNode();
+        Metadata metadata = null;
+        List<Component> components = null;
+        List<Dependency> dependencies = null;
+        try (JsonParser parser = mapper.getFactory().createParser(bomFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a JSON BOM");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (token.isScalarValue()) {
+                    scalars.set(name, mapper.readTree(parser));
+                } else if ("metadata".equals(name)) {
+                    metadata = mapper.readValue(parser, Metadata.class);
+                } else if ("components".equals(name) && token == JsonToken.START_ARRAY) {
+                    components = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        components.add(mapper.readValue(parser, Component.class));
+                    }
+                } else if ("dependencies".equals(name) && token == JsonToken.START_ARRAY) {
+                    dependencies = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        dependencies.add(mapper.readValue(parser, Dependency.class));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        // top-level scalar values, like specVersion, have no setter
+        final Bom bom = mapper.treeToValue(scalars, Bom.class);
+        bom.setMetadata(metadata);
+        bom.setComponents(components);
+        bom.setDependencies(dependencies);
+        return bom;
+    }
+
+    /**
+     * Checks that the module BOM attached in the current build was generated with the options of the aggregate:
+     * options of makeBom are required, module exclusion options are only compared when the module BOM was generated
+     * by makeAggregateBom.
+     */
+    private boolean hasSameOptions(final MavenProject mavenProject) {
+        @SuppressWarnings("unchecked")
+        final Map<String, String> moduleOptions = (Map<String, String>) mavenProject.getContextValue(BOM_OPTIONS_CONTEXT_KEY + getClassifier());
+        if (moduleOptions == null) {
+            return false;
+        }
+        final Set<String> requiredOptions = super.getBomOptions().keySet();
+        for (Map.Entry<String, String> option : getBomOptions().entrySet()) {
+            final String moduleValue = moduleOptions.get(option.getKey());
+            if (moduleValue == null ? requiredOptions.contains(option.getKey()) : !moduleValue.equals(option.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Bom readCachedModule(final ModuleBomCache moduleCache, final MavenProject mavenProject, final String fingerprint) {
+        try {
+            return moduleCache.read(mavenProject, fingerprint);
+        } catch (IOException e) {
+            getLog().warn("Ignoring cached module " + mavenProject.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of a module: goal parameters, effective POM and artifact of the module,
+     * its collected transitive dependency graph, and effective POM of the reactor projects it depends on.
+     *
+     * @param mavenProject the module
+     * @return the fingerprint, or {@code null} if the dependency graph cannot be collected or if the module depends
+     *         on a SNAPSHOT from outside the reactor, which POM may change without any change in the reactor
+     * @throws MojoExecutionException if a file cannot be read
+     */
+    private String computeModuleFingerprint(final MavenProject mavenProject) throws MojoExecutionException {
+        final List<Artifact> dependencyArtifacts = collectDependencyArtifacts(mavenProject);
+        if (dependencyArtifacts == null) {
+            getLog().debug("Not caching " + mavenProject.getId() + ": dependencies cannot be collected");
+            return null;
+        }
+        final Map<String, MavenProject> reactor = new HashMap<>();
+        for (MavenProject reactorProject : reactorProjects) {
+            reactor.put(reactorProject.getGroupId() + ':' + reactorProject.getArtifactId() + ':' + reactorProject.getVersion(), reactorProject);
+        }
+
+        final InputFingerprint fingerprint = newInputFingerprint();
+        try {
+            fingerprint.addProject(mavenProject, dependencyArtifacts);
+            for (Artifact artifact : dependencyArtifacts) {
+                final MavenProject reactorDependency = reactor.get(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getBaseVersion());
+                if (reactorDependency != null) {
+                    fingerprint.addProject(reactorDependency, Collections.emptyList());
+                } else if (artifact.isSnapshot()) {
+                    getLog().debug("Not caching " + mavenProject.getId() + ": SNAPSHOT dependency " + artifact.getId());
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("An error occurred computing inputs fingerprint: " + e.getMessage(), e);
+        }
+        return fingerprint.toHex();
     }
 
     /**
@@ -152,14 +623,13 @@ public class CycloneDxAggregateMojo extends CycloneDxMojo {
      * @param reactorProjects the Maven projects from the reactor
      * @param dependencies all BOM dependencies found in reactor
      */
-    private void addMavenProjectsAsParentDependencies(List<MavenProject> reactorProjects, Map<String, Dependency> dependencies) {
+    private void addMavenProjectsAsParentDependencies(List<MavenProject> reactorProjects, DependencyGraph dependencies) {
         for (final MavenProject project: reactorProjects) {
             if (project.hasParent() && !shouldExclude(project)) {
                 final String parentRef = generatePackageUrl(project.getParent().getArtifact());
-                Dependency parentDependency = dependencies.get(parentRef);
-                if (parentDependency != null) {
+                if (dependencies.contains(parentRef)) {
                     final String projectRef = generatePackageUrl(project.getArtifact());
-                    parentDependency.addDependency(new Dependency(projectRef));
+                    dependencies.addDependsOn(parentRef, projectRef);
                 }
             }
         }
@@ -0,0 +1,52 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.IOException;
+
+/**
+ * Exports the persistent component cache to a bundle file, to be imported with {@code cache-import} on another host.
+ *
+ * @since 2.10.0
+ */
+@Mojo(
+        name = "cache-export",
+        requiresProject = false,
+        aggregator = true,
+        threadSafe = true
+)
+public class CycloneDxCacheExportMojo extends BaseCycloneDxCacheMojo {
+    @Override
+    public void execute() throws MojoExecutionException {
+        try {
+            final ComponentCache.Bundle bundle = ComponentCache.read(getCacheDirectory(), getCacheVersion());
+            if (!getCacheVersion().equals(bundle.pluginVersion)) {
+                getLog().info("CycloneDX: no component cache to export in " + getCacheDirectory());
+                return;
+            }
+            ComponentCache.writeBundle(getCacheBundle(), bundle);
+            getLog().info("CycloneDX: " + bundle.entries.size() + " cached component(s) exported to " + getCacheBundle());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to export component cache to " + getCacheBundle() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.IOException;
+
+/**
+ * Imports a bundle file exported with {@code cache-export} into the persistent component cache. Components already
+ * cached are kept, and a bundle exported by another plugin version is ignored. A missing bundle is not an error, for
+ * the first build of a CI cache.
+ *
+ * @since 2.10.0
+ */
+@Mojo(
+        name = "cache-import",
+        requiresProject = false,
+        aggregator = true,
+        threadSafe = true
+)
+public class CycloneDxCacheImportMojo extends BaseCycloneDxCacheMojo {
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!getCacheBundle().isFile()) {
+            getLog().info("CycloneDX: no component cache bundle to import: " + getCacheBundle());
+            return;
+        }
+        try {
+            final ComponentCache.Bundle bundle = ComponentCache.readBundle(getCacheBundle());
+            if (!getCacheVersion().equals(bundle.pluginVersion)) {
+                getLog().warn("CycloneDX: ignoring component cache bundle exported by plugin version " + bundle.pluginVersion + ": " + getCacheBundle());
+                return;
+            }
+            final int imported = ComponentCache.merge(getCacheDirectory(), bundle.pluginVersion, bundle.entries, false);
+            getLog().info("CycloneDX: " + imported + " cached component(s) imported from " + getCacheBundle());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to import component cache from " + getCacheBundle() + ": " + e.getMessage(), e);
+        }
+    }
+}
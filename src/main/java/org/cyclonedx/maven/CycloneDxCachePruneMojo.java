@@ -0,0 +1,78 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prunes the persistent component cache: entries which artifact file is missing from the local repository, entries
+ * not used for {@code cacheMaxAge} days, then least recently used entries until the cache fits {@code cacheMaxSize}.
+ *
+ * @since 2.10.0
+ */
+@Mojo(
+        name = "cache-prune",
+        requiresProject = false,
+        aggregator = true,
+        threadSafe = true
+)
+public class CycloneDxCachePruneMojo extends BaseCycloneDxCacheMojo {
+    /**
+     * Maximum number of days since an entry was last used, or 0 for no maximum.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cacheMaxAge", defaultValue = "0")
+    private int cacheMaxAge;
+
+    /**
+     * Maximum size of the cache, in megabytes, or 0 for no maximum.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cacheMaxSize", defaultValue = "0")
+    private long cacheMaxSize;
+
+    /**
+     * Prune entries which artifact file is missing from the local repository.
+     *
+     * @since 2.10.0
+     */
+    @Parameter(property = "cyclonedx.cachePruneMissing", defaultValue = "true")
+    private boolean cachePruneMissing;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final ComponentCache.Pruning pruning;
+        try {
+            pruning = ComponentCache.prune(getCacheDirectory(), getCacheVersion(), cachePruneMissing ? getLocalRepository() : null,
+                    TimeUnit.DAYS.toMillis(cacheMaxAge), cacheMaxSize * 1024 * 1024, System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to prune component cache in " + getCacheDirectory() + ": " + e.getMessage(), e);
+        }
+        getLog().info(String.format("CycloneDX: %d cached component(s) pruned (%d missing, %d expired, %d over size budget, %d of another plugin version), %d retained",
+                pruning.missing + pruning.expired + pruning.overBudget + pruning.otherVersion, pruning.missing, pruning.expired,
+                pruning.overBudget, pruning.otherVersion, pruning.retained));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.IOException;
+
+/**
+ * Reports the size, entry count and hit ratio of the persistent component cache.
+ *
+ * @since 2.10.0
+ */
+@Mojo(
+        name = "cache-stats",
+        requiresProject = false,
+        aggregator = true,
+        threadSafe = true
+)
+public class CycloneDxCacheStatsMojo extends BaseCycloneDxCacheMojo {
+    @Override
+    public void execute() throws MojoExecutionException {
+        final ComponentCache.Stats stats;
+        try {
+            stats = ComponentCache.stats(getCacheDirectory(), getCacheVersion());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read component cache in " + getCacheDirectory() + ": " + e.getMessage(), e);
+        }
+        final long lookups = stats.hits + stats.misses;
+        getLog().info("CycloneDX: component cache " + getCacheDirectory());
+        getLog().info("entries        : " + stats.entries);
+        getLog().info("size           : " + stats.size + " bytes");
+        getLog().info("plugin version : " + (stats.pluginVersion == null ? "-" : stats.pluginVersion)
+                + (stats.pluginVersion == null || getCacheVersion().equals(stats.pluginVersion) ? "" : " (not current, ignored by builds)"));
+        getLog().info("hits           : " + stats.hits);
+        getLog().info("misses         : " + stats.misses);
+        getLog().info("hit ratio      : " + (lookups == 0 ? "-" : String.format("%.1f%%", 100.0 * stats.hits / lookups)));
+    }
+}
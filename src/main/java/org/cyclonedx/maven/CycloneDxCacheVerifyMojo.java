@@ -0,0 +1,66 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Verifies the entries of the persistent component cache against the artifact files of the local repository they were
+ * converted from, without changing the cache: entries which artifact file is missing, has changed or which component
+ * cannot be read are reported.
+ *
+ * @since 2.10.0
+ */
+@Mojo(
+        name = "cache-verify",
+        requiresProject = false,
+        aggregator = true,
+        threadSafe = true
+)
+public class CycloneDxCacheVerifyMojo extends BaseCycloneDxCacheMojo {
+    @Override
+    public void execute() throws MojoExecutionException {
+        final ComponentCache.Bundle cache;
+        try {
+            cache = ComponentCache.read(getCacheDirectory(), getCacheVersion());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read component cache in " + getCacheDirectory() + ": " + e.getMessage(), e);
+        }
+        final ComponentJson json = new ComponentJson();
+        final Map<ComponentCache.Status, Integer> counts = new EnumMap<>(ComponentCache.Status.class);
+        for (ComponentCache.Status status : ComponentCache.Status.values()) {
+            counts.put(status, 0);
+        }
+        for (ComponentCache.Entry entry : cache.entries) {
+            final ComponentCache.Status status = ComponentCache.verify(entry, getLocalRepository(), json);
+            counts.merge(status, 1, Integer::sum);
+            if (status != ComponentCache.Status.VALID) {
+                getLog().warn("CycloneDX: cached component " + status.name().toLowerCase() + ": " + entry.key + " (" + entry.path + ")");
+            }
+        }
+        getLog().info(String.format("CycloneDX: %d cached component(s) verified: %d valid, %d changed, %d missing, %d unreadable",
+                cache.entries.size(), counts.get(ComponentCache.Status.VALID), counts.get(ComponentCache.Status.CHANGED),
+                counts.get(ComponentCache.Status.MISSING), counts.get(ComponentCache.Status.UNREADABLE)));
+    }
+}
@@ -30,7 +30,6 @@ import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.cyclonedx.maven.ProjectDependenciesConverter.BomDependencies;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
 
 import javax.inject.Inject;
 import java.util.LinkedHashSet;
@@ -44,7 +43,6 @@ import java.util.Set;
         name = "makeBom",
         defaultPhase = LifecyclePhase.PACKAGE,
         threadSafe = true,
-        requiresOnline = true,
         configurator = "cyclonedx-mojo-component-configurator"
 )
 public class CycloneDxMojo extends BaseCycloneDxMojo {
@@ -95,7 +93,7 @@ public class CycloneDxMojo extends BaseCycloneDxMojo {
             final MavenProject localMavenProject = new MavenProject(mavenProject);
             localMavenProject.setArtifacts(new LinkedHashSet<>(bomDependencies.getArtifacts().values()));
             localMavenProject.setDependencyArtifacts(new LinkedHashSet<>(bomDependencies.getDependencyArtifacts().values()));
-            try {
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.PHASE_ANALYSIS)) {
                 return getProjectDependencyAnalyzer().analyze(localMavenProject);
             } catch (ProjectDependencyAnalyzerException pdae) {
                 getLog().debug("Could not analyze " + mavenProject.getId(), pdae); // TODO should warn...
@@ -104,6 +102,12 @@ public class CycloneDxMojo extends BaseCycloneDxMojo {
         return null;
     }
 
+    @Override
+    protected void fingerprintAdditionalParameters(InputFingerprint fingerprint) {
+        fingerprint.add("skipNotDeployed", skipNotDeployed)
+                .add("analyzer", analyzer);
+    }
+
     @Override
     protected boolean shouldSkip() {
         // The list of artifacts would be empty
@@ -118,11 +122,11 @@ public class CycloneDxMojo extends BaseCycloneDxMojo {
         return "module skips deploy";
     }
 
-    protected String extractComponentsAndDependencies(final Set<String> topLevelComponents, final Map<String, Component> components, final Map<String, Dependency> dependencies) throws MojoExecutionException {
+    protected String extractComponentsAndDependencies(final Set<String> topLevelComponents, final Map<String, Component> components, final DependencyGraph dependencies) throws MojoExecutionException {
         getLog().info(MESSAGE_RESOLVING_DEPS);
 
         final BomDependencies bomDependencies = extractBOMDependencies(getProject());
-        final Map<String, Dependency> projectDependencies = bomDependencies.getDependencies();
+        final DependencyGraph projectDependencies = bomDependencies.getDependencies();
 
         final Component projectBomComponent = convertMavenDependency(getProject().getArtifact());
         components.put(projectBomComponent.getPurl(), projectBomComponent);
@@ -130,7 +134,7 @@ public class CycloneDxMojo extends BaseCycloneDxMojo {
 
         populateComponents(topLevelComponents, components, bomDependencies.getArtifacts(), doProjectDependencyAnalysis(getProject(), bomDependencies));
 
-        projectDependencies.forEach(dependencies::putIfAbsent);
+        dependencies.putAllIfAbsent(projectDependencies);
 
         return "makeBom";
     }
@@ -25,12 +25,12 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.cyclonedx.maven.ProjectDependenciesConverter.BomDependencies;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Creates a CycloneDX BOM for each Maven module with {@code war} or {@code ear} packaging.
@@ -42,7 +42,6 @@ import java.util.Set;
         defaultPhase = LifecyclePhase.PACKAGE,
         threadSafe = true,
         aggregator = true,
-        requiresOnline = true,
         configurator = "cyclonedx-mojo-component-configurator"
 )
 public class CycloneDxPackageMojo extends BaseCycloneDxMojo {
@@ -54,7 +53,12 @@ public class CycloneDxPackageMojo extends BaseCycloneDxMojo {
         return Arrays.asList(new String[]{"war", "ear"}).contains(mavenProject.getPackaging());
     }
 
-    protected String extractComponentsAndDependencies(Set<String> topLevelComponents, Map<String, Component> components, Map<String, Dependency> dependencies) throws MojoExecutionException {
+    @Override
+    protected List<MavenProject> getInputProjects() {
+        return reactorProjects.stream().filter(this::shouldInclude).collect(Collectors.toList());
+    }
+
+    protected String extractComponentsAndDependencies(Set<String> topLevelComponents, Map<String, Component> components, DependencyGraph dependencies) throws MojoExecutionException {
         getLog().info(MESSAGE_RESOLVING_DEPS);
 
         for (final MavenProject mavenProject : reactorProjects) {
@@ -64,7 +68,7 @@ public class CycloneDxPackageMojo extends BaseCycloneDxMojo {
             getLog().info("Analyzing " + mavenProject.getArtifactId());
 
             final BomDependencies bomDependencies = extractBOMDependencies(mavenProject);
-            final Map<String, Dependency> projectDependencies = bomDependencies.getDependencies();
+            final DependencyGraph projectDependencies = bomDependencies.getDependencies();
 
             final Component projectBomComponent = convertMavenDependency(mavenProject.getArtifact());
             components.put(projectBomComponent.getPurl(), projectBomComponent);
@@ -72,7 +76,7 @@ public class CycloneDxPackageMojo extends BaseCycloneDxMojo {
 
             populateComponents(topLevelComponents, components, bomDependencies.getArtifacts(), null);
 
-            projectDependencies.forEach(dependencies::putIfAbsent);
+            dependencies.putAllIfAbsent(projectDependencies);
         }
 
         return "makePackageBom";
@@ -19,7 +19,7 @@
 package org.cyclonedx.maven;
 
 import com.github.packageurl.MalformedPackageURLException;
-import com.github.packageurl.PackageURL;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
@@ -27,9 +27,11 @@ import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.MailingList;
 import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
 import org.apache.maven.repository.RepositorySystem;
 import org.cyclonedx.Version;
@@ -54,11 +56,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
-import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import org.apache.maven.model.Plugin;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -83,6 +87,38 @@ public class DefaultModelConverter implements ModelConverter {
     @Inject
     private ProjectBuilder mavenProjectBuilder;
 
+    @Inject
+    private StringPool stringPool;
+
+    private final PackageUrlCache packageUrlCache = new PackageUrlCache();
+
+    private final ComponentJson componentJson = new ComponentJson();
+
+    /**
+     * Converted components of release artifacts, as JSON for each conversion to get its own copy, by artifact id,
+     * conversion options and session inputs of effective POMs, stamped with the artifact file.
+     */
+    private static final SoftCache<List<Object>, byte[]> COMPONENTS = new SoftCache<>();
+
+    /**
+     * License resolution results by license name or URL and {@code includeLicenseText}. Resolved licenses are shared
+     * by the components, and never modified: their strings are pooled before they are cached, for
+     * {@link StringPool#intern(Component)} to find nothing to replace.
+     */
+    private static final SoftCache<List<Object>, Optional<LicenseChoice>> LICENSES = new SoftCache<>();
+
+    /**
+     * Hashes of the plugin artifact by file and schema version, stamped with the file.
+     */
+    private static final SoftCache<List<Object>, List<Hash>> SELF_HASHES = new SoftCache<>();
+
+    private static volatile Properties pluginProperties;
+
+    /**
+     * Project building request of the session, and digest of its inputs of effective POMs.
+     */
+    private volatile Object[] sessionInputs;
+
     public DefaultModelConverter() {
     }
 
@@ -97,18 +133,8 @@ public class DefaultModelConverter implements ModelConverter {
     }
 
     private String generatePackageUrl(final Artifact artifact, final boolean includeVersion) {
-        TreeMap<String, String> qualifiers = null;
-        if (artifact.getType() != null || artifact.getClassifier() != null) {
-            qualifiers = new TreeMap<>();
-            if (artifact.getType() != null) {
-                qualifiers.put("type", artifact.getType());
-            }
-            if (artifact.getClassifier() != null) {
-                qualifiers.put("classifier", artifact.getClassifier());
-            }
-        }
         final String version = includeVersion ? artifact.getBaseVersion() : null;
-        return generatePackageUrl(artifact.getGroupId(), artifact.getArtifactId(), version, qualifiers, null);
+        return generatePackageUrl(artifact.getGroupId(), artifact.getArtifactId(), version, artifact.getType(), artifact.getClassifier());
     }
 
     @Override
@@ -131,25 +157,16 @@ public class DefaultModelConverter implements ModelConverter {
     }
 
     private String generatePackageUrl(final org.eclipse.aether.artifact.Artifact artifact, final boolean includeVersion, final boolean includeClassifier) {
-        TreeMap<String, String> qualifiers = null;
         final String type = artifact.getProperties().get(ArtifactProperties.TYPE);
         final String classifier = artifact.getClassifier();
-        if (!isEmpty(type) || (includeClassifier && !isEmpty(classifier))) {
-            qualifiers = new TreeMap<>();
-            if (!isEmpty(type)) {
-                qualifiers.put("type", type);
-            }
-            if (includeClassifier && !isEmpty(classifier)) {
-                qualifiers.put("classifier", classifier);
-            }
-        }
         final String version = includeVersion ? artifact.getBaseVersion() : null;
-        return generatePackageUrl(artifact.getGroupId(), artifact.getArtifactId(), version, qualifiers, null);
+        return generatePackageUrl(artifact.getGroupId(), artifact.getArtifactId(), version, isEmpty(type) ? null : type,
+                (includeClassifier && !isEmpty(classifier)) ? classifier : null);
     }
 
-    private String generatePackageUrl(String groupId, String artifactId, String version, TreeMap<String, String> qualifiers, String subpath) {
+    private String generatePackageUrl(String groupId, String artifactId, String version, String type, String classifier) {
         try {
-            return new PackageURL(PackageURL.StandardTypes.MAVEN, groupId, artifactId, version, qualifiers, subpath).canonicalize();
+            return packageUrlCache.get(groupId, artifactId, version, type, classifier);
         } catch(MalformedPackageURLException e) {
           logger.warn("An unexpected issue occurred attempting to create a PackageURL for "
                 + groupId + ":" + artifactId + ":" + version, e);
@@ -158,54 +175,112 @@ public class DefaultModelConverter implements ModelConverter {
     }
 
     @Override
-    public Component convertMavenDependency(Artifact artifact, Version schemaVersion, boolean includeLicenseText) {
-        final Component component = new Component();
-        component.setGroup(artifact.getGroupId());
-        component.setName(artifact.getArtifactId());
-        component.setVersion(artifact.getBaseVersion());
-        component.setType(Component.Type.LIBRARY);
-         
-        try {
-            logger.debug(BaseCycloneDxMojo.MESSAGE_CALCULATING_HASHES);
-            component.setHashes(BomUtils.calculateHashes(artifact.getFile(), schemaVersion));
-        } catch (IOException e) {
-            logger.error("Error encountered calculating hashes", e);
-        }
-        if (Version.VERSION_10 == schemaVersion) {
-            component.setModified(isModified(artifact));
-        }
-        component.setPurl(generatePackageUrl(artifact));
-        if (Version.VERSION_10 != schemaVersion) {
-            component.setBomRef(component.getPurl());
+    public ConvertedComponent convertMavenArtifact(Artifact artifact, Version schemaVersion, boolean includeLicenseText, ExecutionMetrics metrics) {
+        // SNAPSHOT artifacts may have their POM or parent POMs changed without their file changing
+        final File file = artifact.getFile();
+        final boolean cacheable = !artifact.isSnapshot() && file != null && file.isFile();
+        final List<Object> key = cacheable ? Arrays.asList(artifact.getId(), schemaVersion, includeLicenseText, getSessionInputs()) : null;
+        final List<Object> stamp = cacheable ? SoftCache.stamp(file) : null;
+        if (cacheable) {
+            final byte[] cached = COMPONENTS.get(key, stamp);
+            if (cached != null) {
+                try {
+                    final Component component = componentJson.read(cached);
+                    metrics.count(ExecutionMetrics.COUNTER_JVM_CACHE_HITS, 1);
+                    return new ConvertedComponent(stringPool.intern(component), true);
+                } catch (IOException e) {
+                    logger.debug("Unable to read cached component of " + artifact.getId(), e);
+                }
+            }
         }
-        try {
-            final MavenProject project = getEffectiveMavenProject(artifact);
+        final long start = System.nanoTime();
+        long hashNanos = 0;
+        long metadataNanos = 0;
+        boolean complete = true;
+        try (ExecutionMetrics.Timer timer = metrics.start(ExecutionMetrics.PHASE_COMPONENT, artifact.getId())) {
+            final Component component = new Component();
+            component.setGroup(artifact.getGroupId());
+            component.setName(artifact.getArtifactId());
+            component.setVersion(artifact.getBaseVersion());
+            component.setType(Component.Type.LIBRARY);
+
+            final long hashStart = System.nanoTime();
+            try {
+                logger.debug(BaseCycloneDxMojo.MESSAGE_CALCULATING_HASHES);
+                component.setHashes(calculateHashes(artifact.getFile(), schemaVersion, metrics));
+            } catch (IOException e) {
+                logger.error("Error encountered calculating hashes", e);
+                complete = false;
+            } finally {
+                hashNanos = System.nanoTime() - hashStart;
+            }
+            if (Version.VERSION_10 == schemaVersion) {
+                component.setModified(isModified(artifact));
+            }
+            component.setPurl(generatePackageUrl(artifact));
+            if (Version.VERSION_10 != schemaVersion) {
+                component.setBomRef(component.getPurl());
+            }
+            final long metadataStart = System.nanoTime();
+            try {
+                final MavenProject project;
+                try (ExecutionMetrics.Timer pomTimer = metrics.start(ExecutionMetrics.PHASE_EFFECTIVE_POM)) {
+                    project = getEffectiveMavenProject(artifact, metrics);
+                }
 
-            if (project != null) {
-                String projectType = getPluginConfiguration(project, BaseCycloneDxMojo.PROJECT_TYPE);
-                if (projectType != null) {
-                    component.setType(resolveProjectType(projectType));
+                if (project != null) {
+                    String projectType = getPluginConfiguration(project, BaseCycloneDxMojo.PROJECT_TYPE);
+                    if (projectType != null) {
+                        component.setType(resolveProjectType(projectType));
+                    }
+                    extractComponentMetadata(project, component, schemaVersion, includeLicenseText);
+                } else {
+                    complete = false;
                 }
-                extractComponentMetadata(project, component, schemaVersion, includeLicenseText);
-            }
-        } catch (ProjectBuildingException e) {
-            if (logger.isDebugEnabled()) {
-                logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.", e);
-            } else {
-                logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.");
+            } catch (ProjectBuildingException e) {
+                complete = false;
+                if (logger.isDebugEnabled()) {
+                    logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.", e);
+                } else {
+                    logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.");
+                }
+            } catch (IllegalArgumentException e) {
+                // Maven 4 introduces ArtifactResult$NoRepository which may not be handled
+                // by all Maven API implementations, causing IllegalArgumentException.
+                // See https://github.com/CycloneDX/cyclonedx-maven-plugin/issues/671
+                complete = false;
+                if (logger.isDebugEnabled()) {
+                    logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.", e);
+                } else {
+                    logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.");
+                }
+            } finally {
+                metadataNanos = System.nanoTime() - metadataStart;
             }
-        } catch (IllegalArgumentException e) {
-            // Maven 4 introduces ArtifactResult$NoRepository which may not be handled
-            // by all Maven API implementations, causing IllegalArgumentException.
-            // See https://github.com/CycloneDX/cyclonedx-maven-plugin/issues/671
-            if (logger.isDebugEnabled()) {
-                logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.", e);
-            } else {
-                logger.warn("Unable to create Maven project for " + artifact.getId() + " from repository.");
+            // components of effective POMs built offline with unavailable artifacts may be partial
+            complete &= metrics.getResolverAccounting().getUnavailableArtifacts().isEmpty();
+            if (cacheable && complete) {
+                try {
+                    COMPONENTS.put(key, stamp, componentJson.write(component));
+                } catch (IOException e) {
+                    logger.debug("Unable to cache component of " + artifact.getId(), e);
+                }
             }
+            return new ConvertedComponent(stringPool.intern(component), complete);
+        } finally {
+            metrics.recordArtifact(artifact.getId(), System.nanoTime() - start, hashNanos, metadataNanos);
         }
-        return component;
+    }
 
+    private static List<Hash> calculateHashes(final File file, final Version schemaVersion, final ExecutionMetrics metrics) throws IOException {
+        final FlightRecorderEvents.ArtifactHashed event = FlightRecorderEvents.INSTANCE.beginArtifactHashed();
+        try (ExecutionMetrics.Timer timer = metrics.start(ExecutionMetrics.PHASE_HASH)) {
+            final List<Hash> hashes = BomUtils.calculateHashes(file, schemaVersion);
+            final long bytes = (file != null && file.isFile()) ? file.length() : 0;
+            metrics.count(ExecutionMetrics.COUNTER_BYTES_HASHED, bytes);
+            event.commit(file, bytes, hashes);
+            return hashes;
+        }
     }
 
     public String getPluginConfiguration(MavenProject project, String property) {
@@ -282,17 +357,55 @@ public class DefaultModelConverter implements ModelConverter {
         }
     }
 
+    /**
+     * Returns a digest of the session inputs effective POMs depend on, besides POM files: active and inactive profiles,
+     * user and system properties, used by profile activation and interpolation. Computed once per session.
+     */
+    private String getSessionInputs() {
+        final ProjectBuildingRequest request = session.getProjectBuildingRequest();
+        final Object[] inputs = sessionInputs;
+        if (inputs != null && inputs[0] == request) {
+            return (String) inputs[1];
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append(request.getActiveProfileIds()).append('\n').append(request.getInactiveProfileIds()).append('\n');
+        appendProperties(sb, request.getUserProperties());
+        appendProperties(sb, request.getSystemProperties());
+        final String digest = DigestUtils.sha256Hex(sb.toString());
+        sessionInputs = new Object[] {request, digest};
+        return digest;
+    }
+
+    private static void appendProperties(final StringBuilder sb, final Properties properties) {
+        if (properties != null) {
+            for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+                sb.append(name).append('=').append(properties.getProperty(name)).append('\n');
+            }
+        }
+        sb.append('\n');
+    }
+
     /**
      * This method generates an 'effective pom' for an artifact.
      * @param artifact the artifact to generate an effective pom of
+     * @param metrics the execution metrics accounting resolver activity
      * @throws ProjectBuildingException if an error is encountered
      */
-    private MavenProject getEffectiveMavenProject(final Artifact artifact) throws ProjectBuildingException {
-        final Artifact pomArtifact = repositorySystem.createProjectArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
-        final ProjectBuildingResult build = mavenProjectBuilder.build(pomArtifact,
-                session.getProjectBuildingRequest().setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL).setProcessPlugins(false)
-        );
-        return build.getProject();
+    private MavenProject getEffectiveMavenProject(final Artifact artifact, final ExecutionMetrics metrics) throws ProjectBuildingException {
+        final FlightRecorderEvents.EffectivePomBuilt event = FlightRecorderEvents.INSTANCE.beginEffectivePomBuilt();
+        boolean success = false;
+        try {
+            final Artifact pomArtifact = repositorySystem.createProjectArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+            final ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+            buildingRequest.setRepositorySession(metrics.getResolverAccounting().session(buildingRequest.getRepositorySession()));
+            final ProjectBuildingResult build = mavenProjectBuilder.build(pomArtifact,
+                    buildingRequest.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL).setProcessPlugins(false)
+            );
+            success = true;
+            return build.getProject();
+        } finally {
+            event.commit(artifact.getId(), success);
+        }
     }
 
     private void addExternalReference(final ExternalReference.Type referenceType, final String url, final Component component) {
@@ -326,13 +439,11 @@ public class DefaultModelConverter implements ModelConverter {
         for (org.apache.maven.model.License artifactLicense : projectLicenses) {
             boolean resolved = false;
             if (artifactLicense.getName() != null) {
-                final LicenseChoice resolvedByName =
-                    LicenseResolver.resolve(artifactLicense.getName(), includeLicenseText);
+                final LicenseChoice resolvedByName = resolveLicense(artifactLicense.getName(), includeLicenseText);
                 resolved = resolveLicenseInfo(licenseChoice, resolvedByName, schemaVersion);
             }
             if (artifactLicense.getUrl() != null && !resolved) {
-                final LicenseChoice resolvedByUrl =
-                    LicenseResolver.resolve(artifactLicense.getUrl(), includeLicenseText);
+                final LicenseChoice resolvedByUrl = resolveLicense(artifactLicense.getUrl(), includeLicenseText);
                 resolved = resolveLicenseInfo(licenseChoice, resolvedByUrl, schemaVersion);
             }
             if (artifactLicense.getName() != null && !resolved) {
@@ -352,6 +463,17 @@ public class DefaultModelConverter implements ModelConverter {
         return licenseChoice;
     }
 
+    private LicenseChoice resolveLicense(final String licenseString, final boolean includeLicenseText) {
+        final List<Object> key = Arrays.asList(licenseString, includeLicenseText);
+        Optional<LicenseChoice> licenseChoice = LICENSES.get(key, Boolean.TRUE);
+        if (licenseChoice == null) {
+            licenseChoice = Optional.ofNullable(LicenseResolver.resolve(licenseString, includeLicenseText));
+            licenseChoice.map(LicenseChoice::getLicenses).ifPresent(licenses -> licenses.forEach(stringPool::intern));
+            LICENSES.put(key, Boolean.TRUE, licenseChoice);
+        }
+        return licenseChoice.orElse(null);
+    }
+
     private boolean resolveLicenseInfo(final LicenseChoice licenseChoice, final LicenseChoice licenseChoiceToResolve, final Version schemaVersion) {
         if (licenseChoiceToResolve != null) {
             if (licenseChoiceToResolve.getLicenses() != null && !licenseChoiceToResolve.getLicenses().isEmpty()) {
@@ -367,7 +489,7 @@ public class DefaultModelConverter implements ModelConverter {
     }
 
     @Override
-    public Metadata convertMavenProject(final MavenProject project, String projectType, Version schemaVersion, boolean includeLicenseText, ExternalReference[] externalReferences) {
+    public Metadata convertMavenProject(final MavenProject project, String projectType, Version schemaVersion, boolean includeLicenseText, ExternalReference[] externalReferences, ExecutionMetrics metrics) {
         final Metadata metadata = new Metadata();
 
         // prepare properties and hash values from the current mojo
@@ -379,7 +501,7 @@ public class DefaultModelConverter implements ModelConverter {
         if (resolved != null) {
             try {
                 resolved.setFile(new File(resolved.getFile() + ".jar"));
-                hashes = BomUtils.calculateHashes(resolved.getFile(), schemaVersion);
+                hashes = calculateSelfHashes(resolved.getFile(), schemaVersion, metrics);
             } catch (IOException e) {
                 logger.warn("Unable to calculate hashes of self", e);
             }
@@ -416,17 +538,37 @@ public class DefaultModelConverter implements ModelConverter {
         component.setBomRef(component.getPurl());
         setExternalReferences(component, externalReferences);
         extractComponentMetadata(project, component, schemaVersion, includeLicenseText);
-        metadata.setComponent(component);
+        metadata.setComponent(stringPool.intern(component));
 
         return metadata;
     }
 
+    private static List<Hash> calculateSelfHashes(final File file, final Version schemaVersion, final ExecutionMetrics metrics) throws IOException {
+        final List<Object> key = Arrays.asList(file.getAbsolutePath(), schemaVersion);
+        final List<Object> stamp = SoftCache.stamp(file);
+        List<Hash> hashes = SELF_HASHES.get(key, stamp);
+        if (hashes == null) {
+            hashes = calculateHashes(file, schemaVersion, metrics);
+            SELF_HASHES.put(key, stamp, hashes);
+        } else {
+            metrics.count(ExecutionMetrics.COUNTER_JVM_CACHE_HITS, 1);
+        }
+        return new ArrayList<>(hashes);
+    }
+
+    /**
+     * Reads the properties of the plugin, once per plugin class realm.
+     */
     private Properties readPluginProperties() {
-        final Properties props = new Properties();
-        try {
-            props.load(this.getClass().getClassLoader().getResourceAsStream("plugin.properties"));
-        } catch (NullPointerException | IOException e) {
-            logger.warn("Unable to load plugin.properties", e);
+        Properties props = pluginProperties;
+        if (props == null) {
+            props = new Properties();
+            try {
+                props.load(this.getClass().getClassLoader().getResourceAsStream("plugin.properties"));
+                pluginProperties = props;
+            } catch (NullPointerException | IOException e) {
+                logger.warn("Unable to load plugin.properties", e);
+            }
         }
         return props;
     }
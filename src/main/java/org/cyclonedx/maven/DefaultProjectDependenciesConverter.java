@@ -29,7 +29,6 @@ import org.apache.maven.shared.dependency.graph.DependencyCollectorBuilderExcept
 import org.apache.maven.shared.dependency.graph.internal.ConflictData;
 import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyCollectorBuilder;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Metadata;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.artifact.ArtifactProperties;
@@ -42,7 +41,9 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -65,66 +66,164 @@ public class DefaultProjectDependenciesConverter implements ProjectDependenciesC
     @Inject
     private RepositorySystem aetherRepositorySystem;
 
+    @Inject
+    private StringPool stringPool;
+
+    /**
+     * Aether root node data keys of the Maven artifacts of the graph, in collection order, and of the direct
+     * dependencies.
+     */
+    private static final String NODE_DATA_ARTIFACTS = "cyclonedx.artifacts";
+    private static final String NODE_DATA_DEPENDENCY_ARTIFACTS = "cyclonedx.dependencyArtifacts";
+
     private Set<String> excludeTypesSet;
     private MavenDependencyScopes include;
 
-    @Override
-    public BomDependencies extractBOMDependencies(MavenProject mavenProject, MavenDependencyScopes include, String[] excludeTypes) throws MojoExecutionException {
-        this.include = include;
-        excludeTypesSet = new HashSet<>(Arrays.asList(excludeTypes));
+    /**
+     * Dependency graphs collected ahead of the extraction of BOM dependencies, by project.
+     */
+    private final Map<MavenProject, DependencyNode> collectedGraphs = new HashMap<>();
 
-        final ProjectBuildingRequest buildingRequest = getProjectBuildingRequest(mavenProject);
+    private SubgraphCache subgraphCache;
+    private Map<DependencyNode, SubgraphCache.Subgraph> nodeSubgraphs;
+    private long nodeVisits;
+    private long subgraphReuses;
 
-        final Map<String, Dependency> dependencies = new LinkedHashMap<>();
+    @Override
+    public BomDependencies extractBOMDependencies(MavenProject mavenProject, MavenDependencyScopes include, String[] excludeTypes, ExecutionMetrics metrics) throws MojoExecutionException {
+        final DependencyGraph dependencies = new DependencyGraph(stringPool);
         final Map<String, Artifact> mavenArtifacts = new LinkedHashMap<>();
         final Map<String, Artifact> mavenDependencyArtifacts = new LinkedHashMap<>();
         try {
-            final DelegatingRepositorySystem delegateRepositorySystem = new DelegatingRepositorySystem(aetherRepositorySystem);
-            final DependencyCollectorBuilder dependencyCollectorBuilder = new DefaultDependencyCollectorBuilder(delegateRepositorySystem);
-
-            final org.apache.maven.shared.dependency.graph.DependencyNode mavenRoot = dependencyCollectorBuilder.collectDependencyGraph(buildingRequest, null);
-            populateArtifactMap(mavenArtifacts, mavenDependencyArtifacts, mavenRoot, 0);
-
-            final CollectResult collectResult = delegateRepositorySystem.getCollectResult();
-            if (collectResult == null) {
-                throw new MojoExecutionException("Failed to generate aether dependency graph");
+            DependencyNode root = collectedGraphs.remove(mavenProject);
+            if (root == null) {
+                root = collectGraph(mavenProject, metrics);
             }
-            final DependencyNode root = collectResult.getRoot();
-
-            // Generate the tree, removing excluded and filtered nodes
-            final Set<String> loggedFilteredArtifacts = new HashSet<>();
+            populateArtifactMap(mavenArtifacts, (List<?>) root.getData().get(NODE_DATA_ARTIFACTS));
+            populateArtifactMap(mavenDependencyArtifacts, (List<?>) root.getData().get(NODE_DATA_DEPENDENCY_ARTIFACTS));
 
-            buildDependencyGraphNode(dependencies, root, null, null, loggedFilteredArtifacts);
+            final SubgraphCache subgraphCache = SubgraphCache.get(session.getRepositorySession(), getFilteringConfiguration(include, excludeTypes));
+            buildDependencyGraph(dependencies, root, include, excludeTypes, subgraphCache);
+            metrics.count(ExecutionMetrics.COUNTER_DEPENDENCY_NODE_VISITS, nodeVisits);
+            metrics.count(ExecutionMetrics.COUNTER_SUBGRAPH_REUSES, subgraphReuses);
         } catch (DependencyCollectorBuilderException e) {
             // When executing makeAggregateBom, some projects may not yet be built. Workaround is to warn on this
             // rather than throwing an exception https://github.com/CycloneDX/cyclonedx-maven-plugin/issues/55
             logger.warn("An error occurred building dependency graph: " + e.getMessage());
         }
+        metrics.getResolverAccounting().checkNoDownload();
         return new BomDependencies(dependencies, mavenArtifacts, mavenDependencyArtifacts);
     }
 
-    private void populateArtifactMap(final Map<String, Artifact> artifactMap, final Map<String, Artifact> dependencyArtifactMap, final org.apache.maven.shared.dependency.graph.DependencyNode node, final int level) {
+    @Override
+    public List<Artifact> collectDependencyArtifacts(MavenProject mavenProject, ExecutionMetrics metrics) throws MojoExecutionException {
+        DependencyNode root = collectedGraphs.get(mavenProject);
+        if (root == null) {
+            try {
+                root = collectGraph(mavenProject, metrics);
+            } catch (DependencyCollectorBuilderException e) {
+                logger.debug("Unable to collect dependency graph of " + mavenProject.getId() + ": " + e.getMessage());
+                return null;
+            }
+            collectedGraphs.put(mavenProject, root);
+        }
+        final List<Artifact> artifacts = new ArrayList<>();
+        for (Object artifact : (List<?>) root.getData().get(NODE_DATA_ARTIFACTS)) {
+            artifacts.add((Artifact) artifact);
+        }
+        return artifacts;
+    }
+
+    @Override
+    public void releaseCollectedGraphs() {
+        collectedGraphs.clear();
+    }
+
+    private DependencyNode collectGraph(final MavenProject mavenProject, final ExecutionMetrics metrics) throws DependencyCollectorBuilderException, MojoExecutionException {
+        final DependencyNode root = getCollectedGraph(mavenProject, metrics);
+        if (root != null) {
+            metrics.count(ExecutionMetrics.COUNTER_MODULE_GRAPHS_COLLECTED, 1);
+            return root;
+        }
+        return collectDependencyGraph(aetherRepositorySystem, getProjectBuildingRequest(mavenProject, metrics), metrics);
+    }
+
+    /**
+     * Collects the dependency graph of a project, without scope nor type filtering.
+     *
+     * @param repositorySystem the repository system
+     * @param buildingRequest the project building request, with the project
+     * @param metrics the execution metrics accounting resolver activity
+     * @return the root of the Aether dependency graph, with the Maven artifacts of the graph and of the direct
+     *         dependencies as lists in its data
+     * @throws DependencyCollectorBuilderException if the dependencies cannot be collected
+     * @throws MojoExecutionException if no Aether dependency graph was collected
+     */
+    static DependencyNode collectDependencyGraph(final RepositorySystem repositorySystem, final ProjectBuildingRequest buildingRequest,
+            final ExecutionMetrics metrics) throws DependencyCollectorBuilderException, MojoExecutionException {
+        final DelegatingRepositorySystem delegateRepositorySystem = new DelegatingRepositorySystem(repositorySystem, metrics);
+        final DependencyCollectorBuilder dependencyCollectorBuilder = new DefaultDependencyCollectorBuilder(delegateRepositorySystem);
+
+        final FlightRecorderEvents.DependencyGraphCollected event = FlightRecorderEvents.INSTANCE.beginDependencyGraphCollected();
+        final org.apache.maven.shared.dependency.graph.DependencyNode mavenRoot = dependencyCollectorBuilder.collectDependencyGraph(buildingRequest, null);
+
+        final CollectResult collectResult = delegateRepositorySystem.getCollectResult();
+        if (collectResult == null) {
+            throw new MojoExecutionException("Failed to generate aether dependency graph");
+        }
+        final DependencyNode root = collectResult.getRoot();
+        event.commit(buildingRequest.getProject().getId(), root);
+
+        final List<Artifact> artifacts = new ArrayList<>();
+        final List<Artifact> dependencyArtifacts = new ArrayList<>();
+        collectArtifacts(artifacts, dependencyArtifacts, mavenRoot, 0);
+        root.setData(NODE_DATA_ARTIFACTS, artifacts);
+        root.setData(NODE_DATA_DEPENDENCY_ARTIFACTS, dependencyArtifacts);
+        return root;
+    }
+
+    /**
+     * Returns the dependency graph collected by the {@link ModuleGraphCollector} build extension when the project
+     * build completed: the graph is not reused when offline or in no-download mode, where resolver activity of the
+     * goal execution is checked.
+     *
+     * @return the root of the collected graph, or {@code null} if none was collected
+     */
+    private DependencyNode getCollectedGraph(final MavenProject mavenProject, final ExecutionMetrics metrics) {
+        if (session.isOffline() || metrics.getResolverAccounting().isNoDownload()) {
+            return null;
+        }
+        return ModuleGraphCollector.take(session.getRepositorySession(), mavenProject);
+    }
+
+    private static void collectArtifacts(final List<Artifact> artifacts, final List<Artifact> dependencyArtifacts, final org.apache.maven.shared.dependency.graph.DependencyNode node, final int level) {
         final ConflictData conflictData = getConflictData(node);
         if ((conflictData != null) && (conflictData.getWinnerVersion() != null)) {
             return;
         }
 
         final Artifact artifact = node.getArtifact();
-        final String purl = modelConverter.generatePackageUrl(artifact);
         if (level > 0) {
-            artifactMap.putIfAbsent(purl, artifact);
+            artifacts.add(artifact);
         }
         if (level == 1) {
-            dependencyArtifactMap.putIfAbsent(purl, artifact);
+            dependencyArtifacts.add(artifact);
         }
 
         final int childLevel = level + 1;
         for (org.apache.maven.shared.dependency.graph.DependencyNode child: node.getChildren()) {
-            populateArtifactMap(artifactMap, dependencyArtifactMap, child, childLevel);
+            collectArtifacts(artifacts, dependencyArtifacts, child, childLevel);
+        }
+    }
+
+    private void populateArtifactMap(final Map<String, Artifact> artifactMap, final List<?> artifacts) {
+        for (Object artifact : artifacts) {
+            final String purl = stringPool.intern(modelConverter.generatePackageUrl((Artifact) artifact));
+            artifactMap.putIfAbsent(purl, (Artifact) artifact);
         }
     }
 
-    private ConflictData getConflictData(final org.apache.maven.shared.dependency.graph.DependencyNode node) {
+    private static ConflictData getConflictData(final org.apache.maven.shared.dependency.graph.DependencyNode node) {
         if (!node.getChildren().isEmpty()) {
             return null;
         }
@@ -143,6 +242,19 @@ public class DefaultProjectDependenciesConverter implements ProjectDependenciesC
     }
 
     private boolean isFilteredNode(final DependencyNode node, final Set<String> loggedFilteredArtifacts) {
+        final boolean result = isFilteredScope(node);
+        if (result && logger.isDebugEnabled()) {
+            final String originalScope = (String) node.getData().get(ConflictResolver.NODE_DATA_ORIGINAL_SCOPE);
+            final String purl = modelConverter.generatePackageUrl(node.getArtifact());
+            final String key = purl + ":" + originalScope + ":" + node.getDependency().getScope();
+            if (loggedFilteredArtifacts.add(key)) {
+                logger.debug("Filtering " + purl + " with original scope " + originalScope + " and scope " + node.getDependency().getScope());
+            }
+        }
+        return result;
+    }
+
+    private boolean isFilteredScope(final DependencyNode node) {
         final Map<?, ?> nodeData = node.getData();
         final String originalScope = (String)nodeData.get(ConflictResolver.NODE_DATA_ORIGINAL_SCOPE);
         final String scope;
@@ -172,15 +284,7 @@ public class DefaultProjectDependenciesConverter implements ProjectDependenciesC
             default:
                 scoped = Boolean.FALSE;
         }
-        final boolean result = Boolean.FALSE.equals(scoped);
-        if (result && logger.isDebugEnabled()) {
-            final String purl = modelConverter.generatePackageUrl(node.getArtifact());
-            final String key = purl + ":" + originalScope + ":" + node.getDependency().getScope();
-            if (loggedFilteredArtifacts.add(key)) {
-                logger.debug("Filtering " + purl + " with original scope " + originalScope + " and scope " + node.getDependency().getScope());
-            }
-        }
-        return result;
+        return Boolean.FALSE.equals(scoped);
     }
 
     private boolean isExcludedNode(final DependencyNode node) {
@@ -188,71 +292,167 @@ public class DefaultProjectDependenciesConverter implements ProjectDependenciesC
         return ((type == null) || excludeTypesSet.contains(type));
     }
 
-    private void buildDependencyGraphNode(final Map<String, Dependency> dependencies, DependencyNode node,
-            final Dependency parent, final String parentClassifierlessPUrl, final Set<String> loggedFilteredArtifacts) {
+    /**
+     * If the node has no children then it could be a marker node for conflict resolution: returns the winner node.
+     */
+    private static DependencyNode getEffectiveNode(final DependencyNode node) {
+        if (node.getChildren().isEmpty()) {
+            final DependencyNode winner = (DependencyNode) node.getData().get(ConflictResolver.NODE_DATA_WINNER);
+            if (winner != null) {
+                return winner;
+            }
+        }
+        return node;
+    }
+
+    private static String getFilteringConfiguration(final MavenDependencyScopes include, final String[] excludeTypes) {
+        final String[] types = excludeTypes.clone();
+        Arrays.sort(types);
+        return include.compile + "," + include.provided + "," + include.runtime + "," + include.test + "," + include.system
+                + ":" + String.join(",", types);
+    }
+
+    /**
+     * Generate the tree of BOM dependencies from an Aether dependency graph, removing excluded and filtered nodes.
+     * @param dependencies The BOM dependency graph to populate, by purl
+     * @param root The root of the Aether dependency graph
+     * @param include The dependency scopes to include
+     * @param excludeTypes The dependency types to exclude
+     * @param subgraphCache The cache of subgraphs already walked with the same scopes and types, or {@code null}
+     */
+    void buildDependencyGraph(final DependencyGraph dependencies, final DependencyNode root,
+            final MavenDependencyScopes include, final String[] excludeTypes, final SubgraphCache subgraphCache) {
+        this.include = include;
+        excludeTypesSet = new HashSet<>(Arrays.asList(excludeTypes));
+        this.subgraphCache = subgraphCache;
+        nodeSubgraphs = new IdentityHashMap<>();
+        nodeVisits = 0;
+        subgraphReuses = 0;
+
+        final Set<String> loggedFilteredArtifacts = new HashSet<>();
+
+        buildDependencyGraphNode(dependencies, root, null, null, loggedFilteredArtifacts, null, -1);
+        nodeSubgraphs = null;
+    }
+
+    private void buildDependencyGraphNode(final DependencyGraph dependencies, DependencyNode node,
+            final String parent, final String parentClassifierlessPUrl, final Set<String> loggedFilteredArtifacts,
+            final SubgraphCache.Recorder recorder, final int recorderParent) {
 
         if (isExcludedNode(node) || (parent != null && isFilteredNode(node, loggedFilteredArtifacts))) {
             return;
         }
 
-        // If the node has no children then it could be a marker node for conflict resolution
-        if (node.getChildren().isEmpty()) {
-            final Map<?,?> nodeData = node.getData();
-            final DependencyNode winner = (DependencyNode) nodeData.get(ConflictResolver.NODE_DATA_WINNER);
-            if (winner != null) {
-                node = winner;
-            }
-        }
+        node = getEffectiveNode(node);
+        nodeVisits++;
 
         String purl = modelConverter.generatePackageUrl(node.getArtifact());
-        if (!dependencies.containsKey(purl)) {
-            Dependency topDependency = new Dependency(purl);
-            dependencies.put(purl, topDependency);
+        final int entry = (recorder == null) ? -1 : recorder.add(purl, recorderParent);
+        if (dependencies.add(purl)) {
             final String nodeClassifierlessPUrl = modelConverter.generateClassifierlessPackageUrl(node.getArtifact());
             if (!nodeClassifierlessPUrl.equals(parentClassifierlessPUrl)) {
+                buildDependencyGraphChildren(dependencies, node, purl, nodeClassifierlessPUrl, loggedFilteredArtifacts, recorder, entry);
+            }
+        }
+        if (recorder != null) {
+            recorder.end(entry);
+        }
+
+        if (parent != null) {
+            dependencies.addDependsOn(parent, purl);
+        }
+    }
+
+    /**
+     * Walks the children of a node, or replays the walk recorded for the same subgraph in another module.
+     */
+    private void buildDependencyGraphChildren(final DependencyGraph dependencies, final DependencyNode node, final String purl,
+            final String classifierlessPUrl, final Set<String> loggedFilteredArtifacts, final SubgraphCache.Recorder recorder, final int entry) {
+        final SubgraphCache.Subgraph subgraph = getSubgraph(node);
+        if (subgraph != null && subgraph.hasChildren()) {
+            SubgraphCache.Trace trace = subgraphCache.getTrace(subgraph);
+            if (trace != null) {
+                subgraphReuses++;
+            } else if (!subgraphCache.isFull()) {
+                // record the walk in isolation, for the trace not to depend on the nodes already in this graph
+                final DependencyGraph isolated = new DependencyGraph();
+                isolated.add(purl);
+                final SubgraphCache.Recorder isolatedRecorder = new SubgraphCache.Recorder();
                 for (final DependencyNode childrenNode : node.getChildren()) {
-                    buildDependencyGraphNode(dependencies, childrenNode, topDependency, nodeClassifierlessPUrl, loggedFilteredArtifacts);
+                    buildDependencyGraphNode(isolated, childrenNode, purl, classifierlessPUrl, loggedFilteredArtifacts, isolatedRecorder, -1);
                 }
+                trace = isolatedRecorder.build();
+                subgraphCache.putTrace(subgraph, trace);
             }
+            if (trace != null) {
+                trace.replay(dependencies, purl, recorder, entry);
+                return;
+            }
+        }
+        for (final DependencyNode childrenNode : node.getChildren()) {
+            buildDependencyGraphNode(dependencies, childrenNode, purl, classifierlessPUrl, loggedFilteredArtifacts, recorder, entry);
         }
+    }
 
-        if (parent != null) {
-            parent.addDependency(new Dependency(purl));
+    /**
+     * Returns the hash-consed subgraph of a node, with its children kept after scope and type filtering.
+     *
+     * @return the subgraph, or {@code null} if there is no cache or if the subgraph contains a cycle
+     */
+    private SubgraphCache.Subgraph getSubgraph(final DependencyNode node) {
+        if (subgraphCache == null) {
+            return null;
         }
+        if (nodeSubgraphs.containsKey(node)) {
+            return nodeSubgraphs.get(node);
+        }
+        // in progress: a cycle leaves the subgraph uncached
+        nodeSubgraphs.put(node, null);
+        final List<SubgraphCache.Subgraph> children = new ArrayList<>(node.getChildren().size());
+        for (final DependencyNode childrenNode : node.getChildren()) {
+            if (isExcludedNode(childrenNode) || isFilteredScope(childrenNode)) {
+                continue;
+            }
+            final SubgraphCache.Subgraph child = getSubgraph(getEffectiveNode(childrenNode));
+            if (child == null) {
+                return null;
+            }
+            children.add(child);
+        }
+        final org.eclipse.aether.artifact.Artifact artifact = node.getArtifact();
+        final SubgraphCache.Subgraph subgraph = subgraphCache.intern(new SubgraphCache.Subgraph(artifact.getGroupId(),
+                artifact.getArtifactId(), artifact.getBaseVersion(), artifact.getClassifier(),
+                artifact.getProperties().get(ArtifactProperties.TYPE), children.toArray(new SubgraphCache.Subgraph[0])));
+        nodeSubgraphs.put(node, subgraph);
+        return subgraph;
     }
 
     /**
      * Create a project building request
      * @param mavenProject The maven project associated with this build request
+     * @param metrics The execution metrics accounting resolver activity
      * @return The project building request
      */
-    private ProjectBuildingRequest getProjectBuildingRequest(final MavenProject mavenProject) {
+    private ProjectBuildingRequest getProjectBuildingRequest(final MavenProject mavenProject, final ExecutionMetrics metrics) {
         final ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
         buildingRequest.setProject(mavenProject);
+        buildingRequest.setRepositorySession(metrics.getResolverAccounting().session(buildingRequest.getRepositorySession()));
         return buildingRequest;
     }
 
     @Override
-    public void cleanupBomDependencies(Metadata metadata, Map<String, Component> components, Map<String, Dependency> dependencies) {
-        // set(dependencies refs) and set(dependencies of dependencies)
-        final Set<String> dependsOns = new HashSet<>();
-        dependencies.values().forEach(d -> {
-            if (d.getDependencies() != null) {
-                d.getDependencies().forEach(on -> dependsOns.add(on.getRef()));
-            }
-        });
-
+    public void cleanupBomDependencies(Metadata metadata, Map<String, Component> components, DependencyGraph dependencies) {
         // Check all BOM components have an associated BOM dependency
 
         final List<String> notDepended = new ArrayList<>();
         for (Iterator<Map.Entry<String, Component>> it = components.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, Component> entry = it.next();
-            if (!dependencies.containsKey(entry.getKey())) {
+            if (!dependencies.contains(entry.getKey())) {
                 if (logger.isDebugEnabled()) {
                     logger.debug("Component reference not listed in dependencies, pruning from bom components: " + entry.getKey());
                 }
                 it.remove();
-            } else if (!dependsOns.contains(entry.getKey())) {
+            } else if (!dependencies.isDependedOn(entry.getKey())) {
                 notDepended.add(entry.getKey());
             }
         }
@@ -264,7 +464,7 @@ public class DefaultProjectDependenciesConverter implements ProjectDependenciesC
         final String mainBomRef = main.getBomRef();
 
         // Check all BOM dependencies have a BOM component
-        for (String dependencyRef: dependencies.keySet()) {
+        for (String dependencyRef: dependencies.getRefs()) {
             if (!mainBomRef.equals(dependencyRef) && !components.containsKey(dependencyRef)) {
                 logger.warn("Dependency missing component entry: " + dependencyRef);
             }
@@ -41,16 +41,18 @@ import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
 
 /**
  * Maven Resolver (Aether) repository system that delegates to provided system, but keep tracks of
- * collected dependencies result.
+ * collected dependencies result and counts resolver requests.
  * 
  * @see #getCollectResult()
  */
 class DelegatingRepositorySystem implements RepositorySystem {
     private final RepositorySystem delegate;
+    private final ExecutionMetrics metrics;
     private CollectResult collectResult;
 
-    public DelegatingRepositorySystem(final RepositorySystem repositorySystem) {
+    public DelegatingRepositorySystem(final RepositorySystem repositorySystem, final ExecutionMetrics metrics) {
         this.delegate = repositorySystem;
+        this.metrics = metrics;
     }
 
     public CollectResult getCollectResult() {
@@ -60,14 +62,16 @@ class DelegatingRepositorySystem implements RepositorySystem {
     @Override
     public CollectResult collectDependencies(final RepositorySystemSession session, final CollectRequest request)
             throws DependencyCollectionException {
-        collectResult = delegate.collectDependencies(session, request);
+        try (ExecutionMetrics.Timer timer = metrics.start(ExecutionMetrics.PHASE_COLLECT)) {
+            collectResult = delegate.collectDependencies(session, request);
+        }
         final DependencyNode root = collectResult.getRoot();
         root.accept(new TreeDependencyVisitor(new DependencyVisitor() {
             @Override
             public boolean visitEnter(final DependencyNode node)
             {
                 if (root != node) {
-                    try {
+                    try (ExecutionMetrics.Timer timer = metrics.start(ExecutionMetrics.PHASE_RESOLVE, String.valueOf(node.getArtifact()))) {
                         final ArtifactResult resolveArtifact = resolveArtifact(session, new ArtifactRequest(node));
                         node.setArtifact(resolveArtifact.getArtifact());
                     } catch (ArtifactResolutionException e) { // ignored
@@ -124,18 +128,21 @@ class DelegatingRepositorySystem implements RepositorySystem {
     @Override
     public ArtifactDescriptorResult readArtifactDescriptor(final RepositorySystemSession session,
             final ArtifactDescriptorRequest request) throws ArtifactDescriptorException {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_DESCRIPTOR_REQUESTS, 1);
         return delegate.readArtifactDescriptor(null, request);
     }
 
     @Override
     public ArtifactResult resolveArtifact(final RepositorySystemSession session, final ArtifactRequest request)
             throws ArtifactResolutionException {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_ARTIFACT_REQUESTS, 1);
         return delegate.resolveArtifact(session, request);
     }
 
     @Override
     public List<ArtifactResult> resolveArtifacts(final RepositorySystemSession session,
             final Collection<? extends ArtifactRequest> requests) throws ArtifactResolutionException {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_ARTIFACT_REQUESTS, requests.size());
         return delegate.resolveArtifacts(session, requests);
     }
 
@@ -148,18 +155,21 @@ class DelegatingRepositorySystem implements RepositorySystem {
     @Override
     public List<MetadataResult> resolveMetadata(final RepositorySystemSession session,
             final Collection<? extends MetadataRequest> requests) {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_METADATA_REQUESTS, requests.size());
         return delegate.resolveMetadata(session, requests);
     }
 
     @Override
     public VersionResult resolveVersion(final RepositorySystemSession session, final VersionRequest request)
             throws VersionResolutionException {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_VERSION_REQUESTS, 1);
         return delegate.resolveVersion(session, request);
     }
 
     @Override
     public VersionRangeResult resolveVersionRange(final RepositorySystemSession session, final VersionRangeRequest request)
             throws VersionRangeResolutionException {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_VERSION_RANGE_REQUESTS, 1);
         return delegate.resolveVersionRange(session, request);
     }
 }
@@ -0,0 +1,370 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.cyclonedx.model.Dependency;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BOM dependency graph, held as a symbol table of references with integer-indexed adjacency lists, and materialized
+ * as CycloneDX {@link Dependency} model only when the BOM is generated.
+ * A reference gets a node when it is added as a dependency or as the target of a {@code dependsOn} edge; only added
+ * nodes are BOM dependencies, in the order they were added. Duplicate edges are ignored.
+ */
+public class DependencyGraph {
+    private static final long NO_EDGE = -1L;
+
+    private final StringPool stringPool;
+
+    private final Map<String, Integer> nodes = new HashMap<>();
+    private String[] refs = new String[16];
+
+    /**
+     * Adjacency lists, by node, with their length: edges keep the order they were added in.
+     */
+    private int[][] dependsOn = new int[16][];
+    private int[] dependsOnCount = new int[16];
+
+    /**
+     * Open addressing set of {@code (node << 32 | dependsOn)} edges, for deduplication.
+     */
+    private long[] edges = newEdgeTable(64);
+    private int edgeCount;
+
+    /**
+     * Added nodes, in the order they were added.
+     */
+    private int[] order = new int[16];
+    private int size;
+    private final BitSet added = new BitSet();
+
+    /**
+     * Nodes that are the target of an edge from an added node, computed on demand.
+     */
+    private BitSet dependedOn;
+
+    public DependencyGraph() {
+        this(null);
+    }
+
+    /**
+     * Creates a graph pooling the strings of its symbol table.
+     *
+     * @param stringPool the string pool, or {@code null}
+     */
+    public DependencyGraph(final StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    private static long[] newEdgeTable(final int capacity) {
+        final long[] table = new long[capacity];
+        Arrays.fill(table, NO_EDGE);
+        return table;
+    }
+
+    private int node(final String ref) {
+        final Integer node = nodes.get(ref);
+        if (node != null) {
+            return node;
+        }
+        final int newNode = nodes.size();
+        if (newNode == refs.length) {
+            refs = Arrays.copyOf(refs, newNode * 2);
+            dependsOn = Arrays.copyOf(dependsOn, newNode * 2);
+            dependsOnCount = Arrays.copyOf(dependsOnCount, newNode * 2);
+        }
+        final String pooledRef = (stringPool == null) ? ref : stringPool.intern(ref);
+        refs[newNode] = pooledRef;
+        nodes.put(pooledRef, newNode);
+        return newNode;
+    }
+
+    /**
+     * Returns the number of BOM dependencies.
+     *
+     * @return the number of added nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a reference is a BOM dependency.
+     *
+     * @param ref the reference
+     * @return {@code true} if a node was added for the reference
+     */
+    public boolean contains(final String ref) {
+        final Integer node = nodes.get(ref);
+        return node != null && added.get(node);
+    }
+
+    /**
+     * Adds a BOM dependency, unless already added.
+     *
+     * @param ref the reference
+     * @return {@code true} if the dependency was added
+     */
+    public boolean add(final String ref) {
+        final int node = node(ref);
+        if (added.get(node)) {
+            return false;
+        }
+        added.set(node);
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+        }
+        order[size++] = node;
+        dependedOn = null;
+        return true;
+    }
+
+    /**
+     * Adds a {@code dependsOn} edge, unless already present.
+     *
+     * @param ref the reference of the dependent
+     * @param dependsOnRef the reference of the dependency
+     * @return {@code true} if the edge was added
+     */
+    public boolean addDependsOn(final String ref, final String dependsOnRef) {
+        return addEdge(node(ref), node(dependsOnRef));
+    }
+
+    private boolean addEdge(final int from, final int to) {
+        final long edge = ((long) from << 32) | to;
+        final int mask = edges.length - 1;
+        int slot = mix(edge) & mask;
+        while (edges[slot] != NO_EDGE) {
+            if (edges[slot] == edge) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        edges[slot] = edge;
+        if (++edgeCount * 2 > edges.length) {
+            rehash();
+        }
+
+        int[] adjacency = dependsOn[from];
+        final int count = dependsOnCount[from];
+        if (adjacency == null) {
+            adjacency = dependsOn[from] = new int[4];
+        } else if (count == adjacency.length) {
+            adjacency = dependsOn[from] = Arrays.copyOf(adjacency, count * 2);
+        }
+        adjacency[count] = to;
+        dependsOnCount[from] = count + 1;
+        dependedOn = null;
+        return true;
+    }
+
+    private static int mix(final long edge) {
+        final long h = edge * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void rehash() {
+        final long[] previous = edges;
+        edges = newEdgeTable(previous.length * 2);
+        final int mask = edges.length - 1;
+        for (long edge : previous) {
+            if (edge != NO_EDGE) {
+                int slot = mix(edge) & mask;
+                while (edges[slot] != NO_EDGE) {
+                    slot = (slot + 1) & mask;
+                }
+                edges[slot] = edge;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a reference is the target of a {@code dependsOn} edge of a BOM dependency.
+     *
+     * @param ref the reference
+     * @return {@code true} if a BOM dependency depends on the reference
+     */
+    public boolean isDependedOn(final String ref) {
+        final Integer node = nodes.get(ref);
+        if (node == null) {
+            return false;
+        }
+        if (dependedOn == null) {
+            final BitSet targets = new BitSet(nodes.size());
+            for (int i = 0; i < size; i++) {
+                final int from = order[i];
+                for (int j = 0; j < dependsOnCount[from]; j++) {
+                    targets.set(dependsOn[from][j]);
+                }
+            }
+            dependedOn = targets;
+        }
+        return dependedOn.get(node);
+    }
+
+    /**
+     * Returns the references of the BOM dependencies.
+     *
+     * @return the references, in the order they were added
+     */
+    public List<String> getRefs() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return refs[order[index]];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Adds the BOM dependencies of another graph that are not in this graph yet, with their edges.
+     *
+     * @param other the other graph
+     */
+    public void putAllIfAbsent(final DependencyGraph other) {
+        for (int i = 0; i < other.size; i++) {
+            final int otherNode = other.order[i];
+            final String ref = other.refs[otherNode];
+            if (add(ref)) {
+                final int node = node(ref);
+                for (int j = 0; j < other.dependsOnCount[otherNode]; j++) {
+                    addEdge(node, node(other.refs[other.dependsOn[otherNode][j]]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges CycloneDX dependencies into this graph, unioning the edges of dependencies already in this graph.
+     *
+     * @param dependencies the dependencies, typically read from a BOM
+     */
+    public void mergeAll(final Collection<Dependency> dependencies) {
+        for (Dependency dependency : dependencies) {
+            add(dependency.getRef());
+            if (dependency.getDependencies() != null) {
+                final int node = node(dependency.getRef());
+                for (Dependency on : dependency.getDependencies()) {
+                    addEdge(node, node(on.getRef()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges another graph into this graph, unioning the edges of dependencies already in this graph, in time linear in
+     * the size of the other graph.
+     *
+     * @param other the other graph
+     */
+    public void mergeAll(final DependencyGraph other) {
+        final int[] mapping = new int[other.nodes.size()];
+        Arrays.fill(mapping, -1);
+        for (int i = 0; i < other.size; i++) {
+            final int otherNode = other.order[i];
+            final int node = mapNode(other, mapping, otherNode);
+            add(refs[node]);
+            for (int j = 0; j < other.dependsOnCount[otherNode]; j++) {
+                addEdge(node, mapNode(other, mapping, other.dependsOn[otherNode][j]));
+            }
+        }
+    }
+
+    private int mapNode(final DependencyGraph other, final int[] mapping, final int otherNode) {
+        if (mapping[otherNode] < 0) {
+            mapping[otherNode] = node(other.refs[otherNode]);
+        }
+        return mapping[otherNode];
+    }
+
+    /**
+     * Sorts the {@code dependsOn} edges of every dependency by reference, for the BOM not to depend on the order graphs
+     * were merged in.
+     */
+    public void sortDependsOn() {
+        final int count = nodes.size();
+        final Integer[] byRef = new Integer[count];
+        for (int node = 0; node < count; node++) {
+            byRef[node] = node;
+        }
+        Arrays.sort(byRef, (a, b) -> refs[a].compareTo(refs[b]));
+        final int[] rank = new int[count];
+        for (int i = 0; i < count; i++) {
+            rank[byRef[i]] = i;
+        }
+        for (int node = 0; node < count; node++) {
+            final int[] adjacency = dependsOn[node];
+            final int length = dependsOnCount[node];
+            if (length > 1) {
+                for (int j = 0; j < length; j++) {
+                    adjacency[j] = rank[adjacency[j]];
+                }
+                Arrays.sort(adjacency, 0, length);
+                for (int j = 0; j < length; j++) {
+                    adjacency[j] = byRef[adjacency[j]];
+                }
+            }
+        }
+    }
+
+    /**
+     * Materializes the BOM dependencies as CycloneDX model. {@code dependsOn} entries of a same reference share the
+     * same instance.
+     *
+     * @return the dependencies, in the order they were added
+     */
+    public List<Dependency> toDependencies() {
+        final List<Dependency> dependencies = new ArrayList<>(size);
+        final Dependency[] targets = new Dependency[nodes.size()];
+        for (int i = 0; i < size; i++) {
+            final int node = order[i];
+            final Dependency dependency = new Dependency(refs[node]);
+            final int count = dependsOnCount[node];
+            if (count > 0) {
+                final List<Dependency> on = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    final int target = dependsOn[node][j];
+                    if (targets[target] == null) {
+                        targets[target] = new Dependency(refs[target]);
+                    }
+                    on.add(targets[target]);
+                }
+                dependency.setDependencies(on);
+            }
+            dependencies.add(dependency);
+        }
+        return dependencies;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metrics of a goal execution: duration and count of each phase, and counters (components, bytes hashed, cache hits,
+ * ...). An instance is created for each goal execution and passed to the converters.
+ * When tracing is enabled, every timed phase is also recorded as a span, to be written in
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Trace Event Format</a>.
+ */
+public class ExecutionMetrics {
+    public static final String PHASE_MODULE = "module";
+    public static final String PHASE_COMPONENT = "component";
+    public static final String PHASE_COLLECT = "collect";
+    public static final String PHASE_RESOLVE = "resolve";
+    public static final String PHASE_HASH = "hash";
+    public static final String PHASE_EFFECTIVE_POM = "effectivePom";
+    public static final String PHASE_ANALYSIS = "analysis";
+    public static final String PHASE_SERIALIZE = "serialize";
+    public static final String PHASE_VALIDATE = "validate";
+    public static final String PHASE_WRITE = "write";
+
+    public static final String COUNTER_PROJECTS = "projects";
+    public static final String COUNTER_COMPONENTS = "components";
+    public static final String COUNTER_DEPENDENCIES = "dependencies";
+    public static final String COUNTER_BYTES_HASHED = "bytesHashed";
+    public static final String COUNTER_BYTES_WRITTEN = "bytesWritten";
+    public static final String COUNTER_INCREMENTAL_HITS = "incrementalHits";
+    public static final String COUNTER_MODULE_CACHE_HITS = "moduleCacheHits";
+    public static final String COUNTER_MODULE_BOMS_MERGED = "moduleBomsMerged";
+    public static final String COUNTER_RESOLVER_ARTIFACT_REQUESTS = "resolverArtifactRequests";
+    public static final String COUNTER_RESOLVER_DESCRIPTOR_REQUESTS = "resolverDescriptorRequests";
+    public static final String COUNTER_RESOLVER_METADATA_REQUESTS = "resolverMetadataRequests";
+    public static final String COUNTER_RESOLVER_VERSION_REQUESTS = "resolverVersionRequests";
+    public static final String COUNTER_RESOLVER_VERSION_RANGE_REQUESTS = "resolverVersionRangeRequests";
+    public static final String COUNTER_RESOLVER_LOCAL_HITS = "resolverLocalHits";
+    public static final String COUNTER_RESOLVER_REMOTE_FETCHES = "resolverRemoteFetches";
+    public static final String COUNTER_DEPENDENCY_NODE_VISITS = "dependencyNodeVisits";
+    public static final String COUNTER_SUBGRAPH_REUSES = "subgraphReuses";
+    public static final String COUNTER_COMPONENT_BYTES_SPILLED = "componentBytesSpilled";
+    public static final String COUNTER_MODULE_GRAPHS_COLLECTED = "moduleGraphsCollected";
+    public static final String COUNTER_COMPONENT_CACHE_HITS = "componentCacheHits";
+    public static final String COUNTER_COMPONENT_CACHE_MISSES = "componentCacheMisses";
+    public static final String COUNTER_JVM_CACHE_HITS = "jvmCacheHits";
+
+    private final long start = System.nanoTime();
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    private List<Span> spans;
+
+    private final ResolverAccounting resolverAccounting = new ResolverAccounting(this);
+
+    private final Map<String, ArtifactTiming> artifactTimings = new LinkedHashMap<>();
+
+    /**
+     * Duration and count of a phase.
+     */
+    private static class Phase {
+        long count;
+        long nanos;
+    }
+
+    /**
+     * Span of a traced phase.
+     */
+    private static class Span {
+        final String name;
+        final String phase;
+        final long start;
+        final long nanos;
+        final long threadId;
+        final String threadName;
+
+        Span(final String name, final String phase, final long start, final long nanos) {
+            this.name = name;
+            this.phase = phase;
+            this.start = start;
+            this.nanos = nanos;
+            final Thread thread = Thread.currentThread();
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+        }
+    }
+
+    /**
+     * Wall time spent converting an artifact to a component.
+     */
+    private static class ArtifactTiming {
+        final String artifactId;
+        long nanos;
+        long hashNanos;
+        long metadataNanos;
+
+        ArtifactTiming(final String artifactId) {
+            this.artifactId = artifactId;
+        }
+    }
+
+    /**
+     * Timer of a phase, to be closed when the phase ends.
+     */
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase the phase name
+     * @return the timer to close when the phase ends
+     */
+    public Timer start(final String phase) {
+        return start(phase, null);
+    }
+
+    /**
+     * Starts timing a phase, with a span name to identify it in trace.
+     *
+     * @param phase the phase name
+     * @param name the span name, or {@code null} to use the phase name
+     * @return the timer to close when the phase ends
+     */
+    public Timer start(final String phase, final String name) {
+        final long phaseStart = System.nanoTime();
+        return () -> record(phase, name, phaseStart, System.nanoTime() - phaseStart);
+    }
+
+    private synchronized void record(final String phase, final String name, final long phaseStart, final long nanos) {
+        final Phase p = phases.computeIfAbsent(phase, k -> new Phase());
+        p.count++;
+        p.nanos += nanos;
+        if (spans != null) {
+            spans.add(new Span((name == null) ? phase : name, phase, phaseStart, nanos));
+        }
+    }
+
+    /**
+     * Records a span for every timed phase from now on.
+     */
+    public synchronized void enableTrace() {
+        if (spans == null) {
+            spans = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Increments a counter.
+     *
+     * @param counter the counter name
+     * @param value the value to add
+     */
+    public synchronized void count(final String counter, final long value) {
+        counters.merge(counter, value, Long::sum);
+    }
+
+    public synchronized long getCounter(final String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    /**
+     * Returns the accounting of Maven Resolver activity, to wrap the repository sessions used by the plugin.
+     *
+     * @return the resolver accounting
+     */
+    ResolverAccounting getResolverAccounting() {
+        return resolverAccounting;
+    }
+
+    /**
+     * Records the wall time spent converting an artifact to a component.
+     *
+     * @param artifactId the artifact id
+     * @param nanos the total conversion time
+     * @param hashNanos the time spent hashing the artifact file
+     * @param metadataNanos the time spent building the effective POM and extracting metadata
+     */
+    public synchronized void recordArtifact(final String artifactId, final long nanos, final long hashNanos, final long metadataNanos) {
+        final ArtifactTiming timing = artifactTimings.computeIfAbsent(artifactId, ArtifactTiming::new);
+        timing.nanos += nanos;
+        timing.hashNanos += hashNanos;
+        timing.metadataNanos += metadataNanos;
+    }
+
+    private List<ArtifactTiming> getSlowestArtifacts(final int count) {
+        final List<ArtifactTiming> timings = new ArrayList<>(artifactTimings.values());
+        timings.sort(Comparator.comparingLong((ArtifactTiming t) -> t.nanos).reversed());
+        return timings.subList(0, Math.min(count, timings.size()));
+    }
+
+    private static double toMillis(final long nanos) {
+        return Math.round(nanos / 1_000d) / 1_000d;
+    }
+
+    /**
+     * Logs the metrics as a table, in the same layout as verbose parameters.
+     *
+     * @param log the Maven logger
+     */
+    public synchronized void log(final Log log) {
+        log.info("CycloneDX: Metrics");
+        log.info("------------------------------------------------------------------------");
+        for (Map.Entry<String, Phase> entry : phases.entrySet()) {
+            log.info(String.format("%-23s: %d in %.3f ms", entry.getKey(), entry.getValue().count, toMillis(entry.getValue().nanos)));
+        }
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            log.info(String.format("%-23s: %d", entry.getKey(), entry.getValue()));
+        }
+        log.info(String.format("%-23s: %.3f ms", "total", toMillis(System.nanoTime() - start)));
+        log.info("------------------------------------------------------------------------");
+    }
+
+    /**
+     * Logs the slowest artifacts, with time split between hashing and metadata.
+     *
+     * @param log the Maven logger
+     * @param count the maximum number of artifacts to log
+     */
+    public synchronized void logSlowestArtifacts(final Log log, final int count) {
+        final List<ArtifactTiming> slowest = getSlowestArtifacts(count);
+        log.info("CycloneDX: " + slowest.size() + " slowest artifact(s)");
+        log.info("------------------------------------------------------------------------");
+        for (ArtifactTiming timing : slowest) {
+            log.info(String.format("%10.3f ms (hash %.3f ms, metadata %.3f ms) %s", toMillis(timing.nanos),
+                    toMillis(timing.hashNanos), toMillis(timing.metadataNanos), timing.artifactId));
+        }
+        log.info("------------------------------------------------------------------------");
+    }
+
+    /**
+     * Writes the slowest artifacts as JSON, with time split between hashing and metadata.
+     *
+     * @param file the JSON file
+     * @param goal the goal name
+     * @param projectId the id of the Maven project
+     * @param count the maximum number of artifacts to write
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeSlowestArtifacts(final File file, final String goal, final String projectId, final int count) throws IOException {
+        final List<Map<String, Object>> artifacts = new ArrayList<>();
+        for (ArtifactTiming timing : getSlowestArtifacts(count)) {
+            final Map<String, Object> artifactJson = new LinkedHashMap<>();
+            artifactJson.put("artifact", timing.artifactId);
+            artifactJson.put("durationMs", toMillis(timing.nanos));
+            artifactJson.put("hashMs", toMillis(timing.hashNanos));
+            artifactJson.put("metadataMs", toMillis(timing.metadataNanos));
+            artifacts.add(artifactJson);
+        }
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("goal", goal);
+        json.put("project", projectId);
+        json.put("artifacts", artifacts);
+
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+    }
+
+    /**
+     * Writes the metrics as JSON.
+     *
+     * @param file the JSON file
+     * @param goal the goal name
+     * @param projectId the id of the Maven project
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void write(final File file, final String goal, final String projectId) throws IOException {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("goal", goal);
+        json.put("project", projectId);
+        json.put("durationMs", toMillis(System.nanoTime() - start));
+        final Map<String, Object> phasesJson = new LinkedHashMap<>();
+        for (Map.Entry<String, Phase> entry : phases.entrySet()) {
+            final Map<String, Object> phaseJson = new LinkedHashMap<>();
+            phaseJson.put("count", entry.getValue().count);
+            phaseJson.put("durationMs", toMillis(entry.getValue().nanos));
+            phasesJson.put(entry.getKey(), phaseJson);
+        }
+        json.put("phases", phasesJson);
+        json.put("counters", new LinkedHashMap<>(counters));
+
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+    }
+
+    /**
+     * Writes recorded spans in Trace Event Format JSON, to be opened in {@code chrome://tracing} or Perfetto.
+     *
+     * @param file the JSON file
+     * @param goal the goal name
+     * @param projectId the id of the Maven project
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeTrace(final File file, final String goal, final String projectId) throws IOException {
+        final List<Map<String, Object>> events = new ArrayList<>();
+        events.add(metadataEvent("process_name", 0, goal + ' ' + projectId));
+        final Map<Long, String> threads = new LinkedHashMap<>();
+        if (spans != null) {
+            for (Span span : spans) {
+                threads.putIfAbsent(span.threadId, span.threadName);
+                final Map<String, Object> event = new LinkedHashMap<>();
+                event.put("name", span.name);
+                event.put("cat", span.phase);
+                event.put("ph", "X");
+                event.put("ts", (span.start - start) / 1_000d);
+                event.put("dur", span.nanos / 1_000d);
+                event.put("pid", 1);
+                event.put("tid", span.threadId);
+                events.add(event);
+            }
+        }
+        threads.forEach((id, name) -> events.add(metadataEvent("thread_name", id, name)));
+
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceEvents", events);
+        json.put("displayTimeUnit", "ms");
+
+        file.getParentFile().mkdirs();
+        new ObjectMapper().writeValue(file, json);
+    }
+
+    private static Map<String, Object> metadataEvent(final String name, final long threadId, final String value) {
+        final Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("ph", "M");
+        event.put("pid", 1);
+        event.put("tid", threadId);
+        event.put("args", Collections.singletonMap("name", value));
+        return event;
+    }
+}
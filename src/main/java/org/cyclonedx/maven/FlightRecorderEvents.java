@@ -0,0 +1,84 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.cyclonedx.model.Hash;
+import org.eclipse.aether.graph.DependencyNode;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Java Flight Recorder events for the plugin hot paths. Each event is begun before the operation and committed with
+ * its data after.
+ * <p>
+ * This implementation does nothing, to run on Java 8: when running on Java 11 or later, {@code JfrFlightRecorderEvents}
+ * compiled from {@code src/main/java11} is used instead, whose events cost nothing when no recording is running.
+ */
+class FlightRecorderEvents {
+    static final FlightRecorderEvents INSTANCE = load();
+
+    interface ArtifactHashed {
+        void commit(File file, long bytes, List<Hash> hashes);
+    }
+
+    interface EffectivePomBuilt {
+        void commit(String gav, boolean success);
+    }
+
+    interface DependencyGraphCollected {
+        void commit(String module, DependencyNode root);
+    }
+
+    interface BomSerialized {
+        void commit(String format, long bytes);
+    }
+
+    private static final ArtifactHashed NO_ARTIFACT_HASHED = (file, bytes, hashes) -> { };
+    private static final EffectivePomBuilt NO_EFFECTIVE_POM_BUILT = (gav, success) -> { };
+    private static final DependencyGraphCollected NO_DEPENDENCY_GRAPH_COLLECTED = (module, root) -> { };
+    private static final BomSerialized NO_BOM_SERIALIZED = (format, bytes) -> { };
+
+    ArtifactHashed beginArtifactHashed() {
+        return NO_ARTIFACT_HASHED;
+    }
+
+    EffectivePomBuilt beginEffectivePomBuilt() {
+        return NO_EFFECTIVE_POM_BUILT;
+    }
+
+    DependencyGraphCollected beginDependencyGraphCollected() {
+        return NO_DEPENDENCY_GRAPH_COLLECTED;
+    }
+
+    BomSerialized beginBomSerialized() {
+        return NO_BOM_SERIALIZED;
+    }
+
+    private static FlightRecorderEvents load() {
+        try {
+            return (FlightRecorderEvents) Class.forName(FlightRecorderEvents.class.getPackage().getName() + ".JfrFlightRecorderEvents")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Java 8, or plugin built without Java 11 classes
+            return new FlightRecorderEvents();
+        }
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only component cache file, memory-mapped and looked up without loading it: a Bloom filter answers most
+ * lookups of missing keys, and a binary search in the key index sorted by UTF-8 bytes finds the others in
+ * {@code O(log n)}.
+ * <p>
+ * Layout, in big-endian order:
+ * <ul>
+ * <li>header: magic {@code CDXINDEX}, format version, UTF-8 plugin version preceded by its length, entry count, Bloom
+ * filter size in longs and number of hash functions,</li>
+ * <li>Bloom filter bits,</li>
+ * <li>index: for each entry in key order, offset of the record from the start of the records, and lengths of the key,
+ * path and component,</li>
+ * <li>records: key, path relative to the local repository, size and modification time of the artifact file, last use
+ * time of the entry, and component JSON.</li>
+ * </ul>
+ * The index is checked when the file is opened, a file with an entry out of the records being invalid. A cache file is
+ * never modified nor replaced: a new file is written for each change, and readers keep the mapping of the file they
+ * opened.
+ */
+class IndexedCacheFile {
+    private static final byte[] MAGIC = "CDXINDEX".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Version of the indexed file format.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4 + 4;
+
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+
+    private static final int BLOOM_HASHES = 7;
+
+    private static final int BLOOM_SEED = 0x9747b28c;
+
+    private static final Comparator<byte[]> UTF8_ORDER = IndexedCacheFile::compare;
+
+    private final ByteBuffer buffer;
+
+    private final String pluginVersion;
+
+    private final int count;
+
+    private final long[] bloom;
+
+    private final int bloomHashes;
+
+    private final int indexStart;
+
+    private final int recordsStart;
+
+    private IndexedCacheFile(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        final byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a CycloneDX cache file");
+        }
+        final int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported CycloneDX cache file format " + formatVersion);
+        }
+        final byte[] version = new byte[buffer.getInt()];
+        buffer.get(version);
+        pluginVersion = new String(version, StandardCharsets.UTF_8);
+        count = buffer.getInt();
+        final int bloomLength = buffer.getInt();
+        bloomHashes = buffer.getInt();
+        if (count < 0 || bloomLength < 1 || bloomHashes < 1
+                || (buffer.remaining() - (long) count * INDEX_ENTRY_SIZE) / 8 < bloomLength) {
+            throw new IOException("Truncated CycloneDX cache file");
+        }
+        bloom = new long[bloomLength];
+        buffer.asLongBuffer().get(bloom);
+        indexStart = buffer.position() + bloom.length * 8;
+        recordsStart = indexStart + count * INDEX_ENTRY_SIZE;
+        // each record is within the records, and the last one ends at the end of the file: lookups and reads of a
+        // corrupt index entry would otherwise fail out of bounds
+        final long recordsLength = buffer.capacity() - recordsStart;
+        long end = 0;
+        for (int index = 0; index < count; index++) {
+            final int entry = indexStart + index * INDEX_ENTRY_SIZE;
+            final long offset = buffer.getLong(entry);
+            if (offset < 0 || offset > recordsLength
+                    || buffer.getInt(entry + 8) < 0 || buffer.getInt(entry + 12) < 0 || buffer.getInt(entry + 16) < 0
+                    || (end = offset + recordLength(index)) > recordsLength) {
+                throw new IOException("Corrupt CycloneDX cache file index entry " + index);
+            }
+        }
+        if (end != recordsLength) {
+            throw new IOException("Truncated CycloneDX cache file");
+        }
+    }
+
+    /**
+     * Maps a cache file read-only.
+     *
+     * @param file the cache file
+     * @return the cache file, or {@code null} if it does not exist, has another format version, is larger than 2 GB
+     *         or is not a valid cache file: the file is then to be replaced like an empty cache
+     * @throws IOException if the file cannot be mapped
+     */
+    static IndexedCacheFile open(final File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (isOtherFormatVersion(buffer)) {
+                return null;
+            }
+            try {
+                return new IndexedCacheFile(buffer);
+            } catch (IOException | RuntimeException e) {
+                // corrupt or truncated file
+                return null;
+            }
+        }
+    }
+
+    private static boolean isOtherFormatVersion(final ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length + 4) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return buffer.getInt(MAGIC.length) != FORMAT_VERSION;
+    }
+
+    /**
+     * Writes a cache file.
+     *
+     * @param file the cache file
+     * @param pluginVersion the plugin version of the entries
+     * @param entries the entries, with unique keys
+     * @throws IOException if the file cannot be written
+     */
+    static void write(final File file, final String pluginVersion, final Collection<ComponentCache.Entry> entries) throws IOException {
+        writeSorted(file, pluginVersion, sort(entries));
+    }
+
+    /**
+     * Writes a cache file with the entries of a cache file merged with new entries, streaming the entries of the
+     * cache file instead of loading them.
+     *
+     * @param file the new cache file
+     * @param pluginVersion the plugin version of the entries
+     * @param current the current cache file of the same plugin version, or {@code null}
+     * @param newEntries the new entries, with unique keys
+     * @param replace whether new entries replace the current entries with the same key
+     * @return the number of new entries written
+     * @throws IOException if the file cannot be written
+     */
+    static int merge(final File file, final String pluginVersion, final IndexedCacheFile current, final Collection<ComponentCache.Entry> newEntries, final boolean replace) throws IOException {
+        final List<ComponentCache.Entry> added = sort(newEntries);
+        final List<ComponentCache.Entry> existing = (current == null) ? new ArrayList<>() : current.entries();
+        // merged entries, as index of a current entry, or -1 - index of a new entry
+        final int[] sources = new int[existing.size() + added.size()];
+        int size = 0;
+        int merged = 0;
+        int i = 0;
+        int j = 0;
+        while (i < existing.size() || j < added.size()) {
+            final int comparison;
+            if (i == existing.size()) {
+                comparison = 1;
+            } else if (j == added.size()) {
+                comparison = -1;
+            } else {
+                comparison = current.compareKey(i, added.get(j).key.getBytes(StandardCharsets.UTF_8));
+            }
+            if (comparison < 0) {
+                sources[size++] = i++;
+            } else if (comparison > 0) {
+                sources[size++] = -1 - j++;
+                merged++;
+            } else if (replace) {
+                sources[size++] = -1 - j++;
+                i++;
+                merged++;
+            } else {
+                sources[size++] = i++;
+                j++;
+            }
+        }
+        final int count = size;
+        writeSorted(file, pluginVersion, new AbstractList<ComponentCache.Entry>() {
+            @Override
+            public ComponentCache.Entry get(final int index) {
+                final int source = sources[index];
+                return (source >= 0) ? existing.get(source) : added.get(-1 - source);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * Writes a cache file with selected entries of a cache file.
+     *
+     * @param file the new cache file
+     * @param current the current cache file
+     * @param selected the indexes of the selected entries
+     * @throws IOException if the file cannot be written
+     */
+    static void select(final File file, final IndexedCacheFile current, final BitSet selected) throws IOException {
+        final int[] indexes = selected.stream().toArray();
+        final List<ComponentCache.Entry> entries = current.entries();
+        writeSorted(file, current.pluginVersion, new AbstractList<ComponentCache.Entry>() {
+            @Override
+            public ComponentCache.Entry get(final int index) {
+                return entries.get(indexes[index]);
+            }
+
+            @Override
+            public int size() {
+                return indexes.length;
+            }
+        });
+    }
+
+    private static List<ComponentCache.Entry> sort(final Collection<ComponentCache.Entry> entries) {
+        final List<ComponentCache.Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(entry -> entry.key.getBytes(StandardCharsets.UTF_8), UTF8_ORDER));
+        return sorted;
+    }
+
+    /**
+     * Writes entries sorted by key, read once for the Bloom filter, once for the index and once for the records.
+     */
+    private static void writeSorted(final File file, final String pluginVersion, final List<ComponentCache.Entry> entries) throws IOException {
+        final long[] bloom = new long[Math.max(1, (entries.size() * BLOOM_BITS_PER_ENTRY + 63) / 64)];
+        for (ComponentCache.Entry entry : entries) {
+            final byte[] key = entry.key.getBytes(StandardCharsets.UTF_8);
+            final int h1 = hash(key, BLOOM_SEED);
+            final int h2 = hash(key, h1) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                final int bit = bloomBit(h1, h2, i, bloom.length);
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            final byte[] version = pluginVersion.getBytes(StandardCharsets.UTF_8);
+            out.write(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(version.length);
+            out.write(version);
+            out.writeInt(entries.size());
+            out.writeInt(bloom.length);
+            out.writeInt(BLOOM_HASHES);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            long offset = 0;
+            for (ComponentCache.Entry entry : entries) {
+                final int keyLength = entry.key.getBytes(StandardCharsets.UTF_8).length;
+                final int pathLength = entry.path.getBytes(StandardCharsets.UTF_8).length;
+                out.writeLong(offset);
+                out.writeInt(keyLength);
+                out.writeInt(pathLength);
+                out.writeInt(entry.component.length);
+                offset += keyLength + pathLength + 8 + 8 + 8 + entry.component.length;
+            }
+            for (ComponentCache.Entry entry : entries) {
+                out.write(entry.key.getBytes(StandardCharsets.UTF_8));
+                out.write(entry.path.getBytes(StandardCharsets.UTF_8));
+                out.writeLong(entry.length);
+                out.writeLong(entry.lastModified);
+                out.writeLong(entry.lastUsed);
+                out.write(entry.component);
+            }
+        }
+    }
+
+    String getPluginVersion() {
+        return pluginVersion;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes of the file used by an entry.
+     *
+     * @param index the index of the entry
+     * @return the size of the index entry, record and Bloom filter bits of the entry
+     */
+    long sizeOf(final int index) {
+        return INDEX_ENTRY_SIZE + recordLength(index) + BLOOM_BITS_PER_ENTRY / 8;
+    }
+
+    private long recordLength(final int index) {
+        final int entry = indexStart + index * INDEX_ENTRY_SIZE;
+        return (long) buffer.getInt(entry + 8) + buffer.getInt(entry + 12) + 8 + 8 + 8 + buffer.getInt(entry + 16);
+    }
+
+    /**
+     * Looks up an entry.
+     *
+     * @param key the key of the entry
+     * @return the entry, or {@code null} if there is no entry with this key
+     */
+    ComponentCache.Entry get(final String key) {
+        final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!mightContain(bytes)) {
+            return null;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compareKey(middle, bytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return read(middle);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the entries, read from the file on each access.
+     *
+     * @return the entries, in key order
+     */
+    List<ComponentCache.Entry> entries() {
+        return new AbstractList<ComponentCache.Entry>() {
+            @Override
+            public ComponentCache.Entry get(final int index) {
+                return read(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private boolean mightContain(final byte[] key) {
+        final int h1 = hash(key, BLOOM_SEED);
+        final int h2 = hash(key, h1) | 1;
+        for (int i = 0; i < bloomHashes; i++) {
+            final int bit = bloomBit(h1, h2, i, bloom.length);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compareKey(final int index, final byte[] key) {
+        final int entry = indexStart + index * INDEX_ENTRY_SIZE;
+        final int offset = recordsStart + (int) buffer.getLong(entry);
+        final int length = buffer.getInt(entry + 8);
+        final int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            final int comparison = (buffer.get(offset + i) & 0xff) - (key[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - key.length;
+    }
+
+    private ComponentCache.Entry read(final int index) {
+        final int entry = indexStart + index * INDEX_ENTRY_SIZE;
+        final ByteBuffer record = buffer.duplicate();
+        record.position(recordsStart + (int) buffer.getLong(entry));
+        final byte[] key = new byte[buffer.getInt(entry + 8)];
+        final byte[] path = new byte[buffer.getInt(entry + 12)];
+        final byte[] component = new byte[buffer.getInt(entry + 16)];
+        record.get(key);
+        record.get(path);
+        final long length = record.getLong();
+        final long lastModified = record.getLong();
+        final long lastUsed = record.getLong();
+        record.get(component);
+        return new ComponentCache.Entry(new String(key, StandardCharsets.UTF_8), new String(path, StandardCharsets.UTF_8), length, lastModified, lastUsed, component);
+    }
+
+    private static int bloomBit(final int h1, final int h2, final int i, final int words) {
+        return (int) (((h1 + (long) i * h2) & 0xffffffffL) % (words * 64L));
+    }
+
+    /**
+     * MurmurHash3 32-bit hash of the key bytes.
+     */
+    private static int hash(final byte[] key, final int seed) {
+        int h = seed;
+        int i = 0;
+        for (; i + 4 <= key.length; i += 4) {
+            int k = (key[i] & 0xff) | (key[i + 1] & 0xff) << 8 | (key[i + 2] & 0xff) << 16 | (key[i + 3] & 0xff) << 24;
+            h ^= mix(k);
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        int k = 0;
+        for (int shift = 0; i < key.length; i++, shift += 8) {
+            k |= (key[i] & 0xff) << shift;
+        }
+        h ^= mix(k);
+        h ^= key.length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mix(int k) {
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1b873593;
+    }
+
+    private static int compare(final byte[] a, final byte[] b) {
+        final int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            final int comparison = (a[i] & 0xff) - (b[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return a.length - b.length;
+    }
+}
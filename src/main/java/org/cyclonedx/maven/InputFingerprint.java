@@ -0,0 +1,153 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SHA-256 fingerprint of everything a BOM is generated from: plugin version, mojo parameters, effective POM of
+ * the analyzed Maven projects, their artifact and their collected transitive dependencies (resolved coordinates and
+ * file content).
+ * When the fingerprint of a previous execution is unchanged, the BOM does not need to be generated again.
+ */
+class InputFingerprint {
+    private final MessageDigest digest = DigestUtils.getSha256Digest();
+
+    /**
+     * Adds a named value to the fingerprint.
+     *
+     * @param name the name of the input
+     * @param value the value of the input, arrays being expanded
+     * @return this fingerprint
+     */
+    public InputFingerprint add(final String name, final Object value) {
+        final String string = (value instanceof Object[]) ? Arrays.toString((Object[]) value) : String.valueOf(value);
+        digest.update((name + '=' + string + '\n').getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * Adds a file to the fingerprint: content for a regular file, relative path and content of each file for a
+     * directory (like {@code target/classes} of a reactor module, whose bytecode is analyzed with
+     * {@code detectUnusedForOptionalScope}), path only for a missing file.
+     *
+     * @param name the name of the input
+     * @param file the file
+     * @return this fingerprint
+     * @throws IOException if the file cannot be read
+     */
+    public InputFingerprint addFile(final String name, final File file) throws IOException {
+        if (file != null && file.isDirectory()) {
+            add(name, file);
+            final Path directory = file.toPath();
+            final List<Path> paths;
+            try (Stream<Path> walk = Files.walk(directory)) {
+                paths = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                addFile(name + '/' + directory.relativize(path), path.toFile());
+            }
+            return this;
+        }
+        if (file == null || !file.isFile()) {
+            return add(name, file);
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return add(name, file.getName() + '@' + DigestUtils.sha256Hex(in));
+        }
+    }
+
+    /**
+     * Adds a Maven project to the fingerprint: its effective POM, its artifact and its collected dependency graph.
+     *
+     * @param project the Maven project
+     * @param dependencyArtifacts the artifacts of the transitive dependency graph of the project, with their
+     *        resolved version and file
+     * @return this fingerprint
+     * @throws IOException if a file cannot be read
+     */
+    public InputFingerprint addProject(final MavenProject project, final Collection<Artifact> dependencyArtifacts) throws IOException {
+        add("project", project.getId());
+        try (OutputStream out = new DigestOutputStream(NullOutputStream.INSTANCE, digest)) {
+            new MavenXpp3Writer().write(out, project.getModel());
+        }
+        addFile("project.artifact", project.getArtifact().getFile());
+        final List<Artifact> artifacts = new ArrayList<>(dependencyArtifacts);
+        artifacts.sort(Comparator.comparing(Artifact::getId));
+        for (Artifact artifact : artifacts) {
+            add("artifact", artifact.getId());
+            addFile("artifact.file", artifact.getFile());
+        }
+        return this;
+    }
+
+    /**
+     * Completes the fingerprint computation: no input can be added after.
+     *
+     * @return the hexadecimal value of the fingerprint
+     */
+    public String toHex() {
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Reads the fingerprint stored by a previous execution.
+     *
+     * @param file the fingerprint file
+     * @return the fingerprint, or {@code null} if none was stored
+     * @throws IOException if the file cannot be read
+     */
+    static String read(final File file) throws IOException {
+        return file.isFile() ? FileUtils.readFileToString(file, StandardCharsets.UTF_8).trim() : null;
+    }
+
+    /**
+     * Stores the fingerprint for next execution.
+     *
+     * @param file the fingerprint file
+     * @param fingerprint the fingerprint
+     * @throws IOException if the file cannot be written
+     */
+    static void write(final File file, final String fingerprint) throws IOException {
+        FileUtils.write(file, fingerprint, StandardCharsets.UTF_8, false);
+    }
+}
@@ -47,9 +47,24 @@ public interface ModelConverter {
      * @param artifact the artifact to convert
      * @param schemaVersion the target CycloneDX schema version
      * @param includeLicenseText should license text be included in bom?
+     * @param metrics the metrics of the goal execution
      * @return a CycloneDX component
      */
-    Component convertMavenDependency(Artifact artifact, Version schemaVersion, boolean includeLicenseText);
+    default Component convertMavenDependency(Artifact artifact, Version schemaVersion, boolean includeLicenseText, ExecutionMetrics metrics) {
+        return convertMavenArtifact(artifact, schemaVersion, includeLicenseText, metrics).getComponent();
+    }
+
+    /**
+     * Converts a Maven artifact (dependency or transitive dependency) into a
+     * CycloneDX component, telling if the component is complete.
+     *
+     * @param artifact the artifact to convert
+     * @param schemaVersion the target CycloneDX schema version
+     * @param includeLicenseText should license text be included in bom?
+     * @param metrics the metrics of the goal execution
+     * @return the CycloneDX component, with its completeness
+     */
+    ConvertedComponent convertMavenArtifact(Artifact artifact, Version schemaVersion, boolean includeLicenseText, ExecutionMetrics metrics);
 
     /**
      * Converts a MavenProject into a CycloneDX Metadata object.
@@ -59,8 +74,30 @@ public interface ModelConverter {
      * @param schemaVersion the target CycloneDX schema version
      * @param includeLicenseText should license text be included in bom?
      * @param externalReferences the external references
+     * @param metrics the metrics of the goal execution
      * @return a CycloneDX Metadata object
      */
-    Metadata convertMavenProject(MavenProject project, String projectType, Version schemaVersion, boolean includeLicenseText, ExternalReference[] externalReferences);
+    Metadata convertMavenProject(MavenProject project, String projectType, Version schemaVersion, boolean includeLicenseText, ExternalReference[] externalReferences, ExecutionMetrics metrics);
+
+    /**
+     * A component converted from a Maven artifact: the component is incomplete when its hashes or effective POM could
+     * not be computed, or when artifacts were unavailable, and must then not be cached.
+     */
+    public static class ConvertedComponent {
+        private final Component component;
+        private final boolean complete;
+
+        public ConvertedComponent(final Component component, final boolean complete) {
+            this.component = component;
+            this.complete = complete;
+        }
+
+        public final Component getComponent() {
+            return component;
+        }
 
+        public final boolean isComplete() {
+            return complete;
+        }
+    }
 }
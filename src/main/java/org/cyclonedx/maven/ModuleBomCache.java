@@ -0,0 +1,128 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.project.MavenProject;
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.generators.BomGeneratorFactory;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+import org.cyclonedx.parsers.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Cache of the analysis result of each module for incremental aggregate BOM generation: a module result is stored
+ * as a partial JSON BOM, with the module as metadata component, its components and dependencies, and the
+ * fingerprint of the module inputs as metadata property.
+ */
+class ModuleBomCache {
+    static final String FINGERPRINT_PROPERTY = "maven.fingerprint";
+
+    private final File directory;
+
+    ModuleBomCache(final File directory) {
+        this.directory = directory;
+    }
+
+    private File getFile(final MavenProject mavenProject) {
+        return new File(directory, mavenProject.getGroupId() + '_' + mavenProject.getArtifactId() + ".json");
+    }
+
+    /**
+     * Reads the cached result of a module.
+     *
+     * @param mavenProject the module
+     * @param fingerprint the fingerprint of the current module inputs
+     * @return the cached result with non-null components and dependencies, or {@code null} if none was stored with the
+     *         same inputs fingerprint
+     * @throws IOException if the cached result cannot be read
+     */
+    Bom read(final MavenProject mavenProject, final String fingerprint) throws IOException {
+        final File file = getFile(mavenProject);
+        if (!file.isFile()) {
+            return null;
+        }
+        final Bom bom;
+        try {
+            bom = new JsonParser().parse(file);
+        } catch (ParseException e) {
+            throw new IOException("Invalid cached module BOM " + file, e);
+        }
+        final Metadata metadata = bom.getMetadata();
+        if (metadata == null || metadata.getComponent() == null || metadata.getProperties() == null) {
+            return null;
+        }
+        final boolean upToDate = metadata.getProperties().stream()
+                .anyMatch(p -> FINGERPRINT_PROPERTY.equals(p.getName()) && fingerprint.equals(p.getValue()));
+        if (!upToDate) {
+            return null;
+        }
+        if (bom.getComponents() == null) {
+            bom.setComponents(new ArrayList<>());
+        }
+        if (bom.getDependencies() == null) {
+            bom.setDependencies(new ArrayList<>());
+        }
+        return bom;
+    }
+
+    /**
+     * Stores the result of a module.
+     *
+     * @param mavenProject the module
+     * @param fingerprint the fingerprint of the module inputs
+     * @param moduleComponent the component of the module
+     * @param components the components found for the module
+     * @param dependencies the dependencies found for the module
+     * @throws IOException if the result cannot be written
+     */
+    void write(final MavenProject mavenProject, final String fingerprint, final Component moduleComponent,
+               final Collection<Component> components, final Collection<Dependency> dependencies) throws IOException {
+        final Property property = new Property();
+        property.setName(FINGERPRINT_PROPERTY);
+        property.setValue(fingerprint);
+        final Metadata metadata = new Metadata();
+        metadata.setComponent(moduleComponent);
+        metadata.setProperties(Collections.singletonList(property));
+
+        final Bom bom = new Bom();
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(components));
+        bom.setDependencies(new ArrayList<>(dependencies));
+        final String json;
+        try {
+            json = BomGeneratorFactory.createJson(Version.VERSION_16, bom).toJsonString();
+        } catch (GeneratorException e) {
+            throw new IOException("Unable to generate module BOM", e);
+        }
+        FileUtils.write(getFile(mavenProject), json, StandardCharsets.UTF_8, false);
+    }
+}
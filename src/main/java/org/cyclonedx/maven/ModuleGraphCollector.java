@@ -0,0 +1,397 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.dependency.graph.DependencyCollectorBuilderException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.graph.DependencyNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Build extension collecting the dependency graph of each module as soon as the build of the module succeeds, in
+ * background while next modules are built: {@code makeAggregateBom} run at the end of the build, like
+ * {@code mvn -T 4 package cyclonedx:makeAggregateBom}, then reuses the collected graphs instead of collecting them
+ * one module after the other.
+ * The extension is enabled by declaring the plugin with {@code <extensions>true</extensions>}. Goals run in another
+ * class realm than the extension: collected graphs are shared in the repository session data with Java, Maven and
+ * Maven Resolver types only.
+ * Graphs are collected only for projects built before {@code makeAggregateBom} runs, as a goal of the command line or
+ * as an execution of the execution root, and not when offline or in no-download mode, where graphs are not reused.
+ * Graphs not taken are released when {@code makeAggregateBom} ends.
+ */
+@Named("cyclonedx-module-graph-collector")
+@Singleton
+public class ModuleGraphCollector extends AbstractMavenLifecycleParticipant {
+    /**
+     * Key of the repository session data holding the collected graphs, as futures of the Aether dependency graph
+     * root by project id.
+     */
+    private static final String GRAPHS_KEY = ModuleGraphCollector.class.getName() + ":graphs";
+
+    private static final String AGGREGATE_GOAL = "makeAggregateBom";
+
+    private final Logger logger = LoggerFactory.getLogger(ModuleGraphCollector.class);
+
+    @Inject
+    private RepositorySystem repositorySystem;
+
+    /**
+     * Takes the dependency graph collected for a project, waiting for the end of its collection.
+     *
+     * @param session the repository session
+     * @param mavenProject the project
+     * @return the root of the graph, as returned by
+     *         {@link DefaultProjectDependenciesConverter#collectDependencyGraph(RepositorySystem, ProjectBuildingRequest, ExecutionMetrics)},
+     *         or {@code null} if the extension is not enabled or if the graph was not collected
+     */
+    static DependencyNode take(final RepositorySystemSession session, final MavenProject mavenProject) {
+        final Object graphs = session.getData().get(GRAPHS_KEY);
+        final Object graph = (graphs instanceof Map) ? ((Map<?, ?>) graphs).remove(mavenProject.getId()) : null;
+        if (!(graph instanceof Future)) {
+            return null;
+        }
+        try {
+            final Object root = ((Future<?>) graph).get();
+            return (root instanceof DependencyNode) ? (DependencyNode) root : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            LoggerFactory.getLogger(ModuleGraphCollector.class).debug("CycloneDX: unable to collect dependency graph of " + mavenProject.getId(), e.getCause());
+            return null;
+        }
+    }
+
+    @Override
+    public void afterProjectsRead(final MavenSession session) {
+        if (isEnabled(session, "cyclonedx.skip") || isEnabled(session, "cyclonedx.noDownload") || session.isOffline()
+                || session.getProjects().size() <= 1) {
+            return;
+        }
+        final Set<String> projectIds = new HashSet<>();
+        final MojoExecution.Source source;
+        if (session.getGoals().stream().anyMatch(ModuleGraphCollector::isAggregateGoal)) {
+            // goal of the command line: run on the execution root once every project is built
+            source = MojoExecution.Source.CLI;
+            session.getProjects().forEach(project -> projectIds.add(project.getId()));
+        } else {
+            // execution of the execution root: run when the execution root is built, usually first
+            source = MojoExecution.Source.LIFECYCLE;
+            for (final MavenProject project : session.getProjects()) {
+                if (project.isExecutionRoot()) {
+                    if (!hasAggregateExecution(project)) {
+                        projectIds.clear();
+                    }
+                    break;
+                }
+                projectIds.add(project.getId());
+            }
+        }
+        if (projectIds.isEmpty()) {
+            logger.debug("CycloneDX: no module dependency graph to collect before " + AGGREGATE_GOAL);
+            return;
+        }
+        final int threads = Math.max(1, Math.min(session.getRequest().getDegreeOfConcurrency(), Runtime.getRuntime().availableProcessors()));
+        final ModuleGraphs moduleGraphs = new ModuleGraphs(threads, projectIds, source);
+        session.getRepositorySession().getData().set(ModuleGraphs.class, moduleGraphs);
+        session.getRepositorySession().getData().set(GRAPHS_KEY, moduleGraphs.graphs);
+        session.getRequest().setExecutionListener(new CollectingExecutionListener(session.getRequest().getExecutionListener(), moduleGraphs));
+        logger.debug("CycloneDX: collecting dependency graphs of " + projectIds.size() + " module(s) with " + threads + " thread(s)");
+    }
+
+    @Override
+    public void afterSessionEnd(final MavenSession session) {
+        final Object moduleGraphs = session.getRepositorySession().getData().get(ModuleGraphs.class);
+        if (moduleGraphs instanceof ModuleGraphs) {
+            ((ModuleGraphs) moduleGraphs).release();
+            session.getRepositorySession().getData().set(ModuleGraphs.class, null);
+            session.getRepositorySession().getData().set(GRAPHS_KEY, null);
+        }
+    }
+
+    private static boolean isEnabled(final MavenSession session, final String property) {
+        return Boolean.parseBoolean(session.getUserProperties().getProperty(property, session.getSystemProperties().getProperty(property)));
+    }
+
+    /**
+     * Checks a goal of the command line, like {@code cyclonedx:makeAggregateBom} or
+     * {@code org.cyclonedx:cyclonedx-maven-plugin:2.9.1:makeAggregateBom@execution}.
+     */
+    private static boolean isAggregateGoal(final String goal) {
+        final int colon = goal.lastIndexOf(':');
+        if (colon < 0) {
+            return false;
+        }
+        final int at = goal.indexOf('@', colon);
+        return AGGREGATE_GOAL.equals(goal.substring(colon + 1, (at < 0) ? goal.length() : at));
+    }
+
+    /**
+     * Checks for a {@code makeAggregateBom} execution of the plugin in the project, not in no-download mode.
+     */
+    private static boolean hasAggregateExecution(final MavenProject project) {
+        final Plugin plugin = project.getPlugin(BaseCycloneDxMojo.CYCLONEDX_PLUGIN_KEY);
+        if (plugin == null || isNoDownload(plugin.getConfiguration())) {
+            return false;
+        }
+        for (final PluginExecution execution : plugin.getExecutions()) {
+            final List<String> goals = execution.getGoals();
+            if (goals.contains(AGGREGATE_GOAL) && !isNoDownload(execution.getConfiguration())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNoDownload(final Object configuration) {
+        final Xpp3Dom noDownload = (configuration instanceof Xpp3Dom) ? ((Xpp3Dom) configuration).getChild("noDownload") : null;
+        return noDownload != null && Boolean.parseBoolean(noDownload.getValue());
+    }
+
+    /**
+     * Module dependency graphs collected, or being collected, by project id.
+     */
+    private final class ModuleGraphs {
+        private final ExecutorService executor;
+
+        private final Map<String, Future<DependencyNode>> graphs = new ConcurrentHashMap<>();
+
+        /**
+         * Ids of the projects built before {@code makeAggregateBom} runs.
+         */
+        private final Set<String> projectIds;
+
+        /**
+         * Source of the {@code makeAggregateBom} execution using the graphs.
+         */
+        private final MojoExecution.Source source;
+
+        private volatile boolean released;
+
+        ModuleGraphs(final int threads, final Set<String> projectIds, final MojoExecution.Source source) {
+            this.projectIds = projectIds;
+            this.source = source;
+            final AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                final Thread thread = new Thread(runnable, "cyclonedx-module-graph-collector-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private synchronized void collect(final MavenSession session, final MavenProject mavenProject) {
+            if (released || !projectIds.contains(mavenProject.getId())) {
+                return;
+            }
+            final ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+            buildingRequest.setProject(mavenProject);
+            graphs.put(mavenProject.getId(), executor.submit(() -> {
+                try {
+                    return DefaultProjectDependenciesConverter.collectDependencyGraph(repositorySystem, buildingRequest, new ExecutionMetrics());
+                } catch (DependencyCollectorBuilderException e) {
+                    logger.debug("CycloneDX: unable to collect dependency graph of " + mavenProject.getId() + ": " + e.getMessage());
+                    return null;
+                }
+            }));
+        }
+
+        /**
+         * Releases the graphs once {@code makeAggregateBom} ended: graphs it did not take are not used.
+         */
+        private void mojoEnded(final ExecutionEvent event) {
+            final MojoExecution mojoExecution = event.getMojoExecution();
+            if (mojoExecution != null && AGGREGATE_GOAL.equals(mojoExecution.getGoal())
+                    && mojoExecution.getSource() == source && event.getProject().isExecutionRoot()) {
+                release();
+            }
+        }
+
+        private synchronized void release() {
+            released = true;
+            executor.shutdownNow();
+            graphs.values().forEach(graph -> graph.cancel(true));
+            graphs.clear();
+        }
+    }
+
+    /**
+     * Execution listener starting the collection of the dependency graph of each successfully built project, and
+     * forwarding every event to the listener of the build.
+     */
+    private static final class CollectingExecutionListener implements ExecutionListener {
+        private final ExecutionListener delegate;
+
+        private final ModuleGraphs moduleGraphs;
+
+        CollectingExecutionListener(final ExecutionListener delegate, final ModuleGraphs moduleGraphs) {
+            this.delegate = delegate;
+            this.moduleGraphs = moduleGraphs;
+        }
+
+        @Override
+        public void projectSucceeded(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.projectSucceeded(event);
+            }
+            moduleGraphs.collect(event.getSession(), event.getProject());
+        }
+
+        @Override
+        public void projectDiscoveryStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.projectDiscoveryStarted(event);
+            }
+        }
+
+        @Override
+        public void sessionStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.sessionStarted(event);
+            }
+        }
+
+        @Override
+        public void sessionEnded(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.sessionEnded(event);
+            }
+        }
+
+        @Override
+        public void projectSkipped(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.projectSkipped(event);
+            }
+        }
+
+        @Override
+        public void projectStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.projectStarted(event);
+            }
+        }
+
+        @Override
+        public void projectFailed(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.projectFailed(event);
+            }
+        }
+
+        @Override
+        public void mojoSkipped(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.mojoSkipped(event);
+            }
+        }
+
+        @Override
+        public void mojoStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.mojoStarted(event);
+            }
+        }
+
+        @Override
+        public void mojoSucceeded(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.mojoSucceeded(event);
+            }
+            moduleGraphs.mojoEnded(event);
+        }
+
+        @Override
+        public void mojoFailed(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.mojoFailed(event);
+            }
+            moduleGraphs.mojoEnded(event);
+        }
+
+        @Override
+        public void forkStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkStarted(event);
+            }
+        }
+
+        @Override
+        public void forkSucceeded(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkSucceeded(event);
+            }
+        }
+
+        @Override
+        public void forkFailed(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkFailed(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectStarted(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkedProjectStarted(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectSucceeded(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkedProjectSucceeded(event);
+            }
+        }
+
+        @Override
+        public void forkedProjectFailed(final ExecutionEvent event) {
+            if (delegate != null) {
+                delegate.forkedProjectFailed(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of canonical Maven package URLs per artifact coordinates, since the same artifacts get their package URL
+ * generated several times during dependency graph walk and component conversion.
+ * When every coordinate only contains unreserved characters, which is the common Maven case, the canonical form
+ * is built directly: it is identical to what {@link PackageURL#canonicalize()} returns, without qualifiers map,
+ * validation and percent-encoding.
+ */
+class PackageUrlCache {
+    /**
+     * Maximum number of cached package URLs: the cache is cleared when reached, to keep memory bounded in
+     * long-lived builds.
+     */
+    static final int MAX_ENTRIES = 1 << 16;
+
+    private final ConcurrentMap<Coordinates, String> packageUrls = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the canonical package URL of Maven coordinates.
+     *
+     * @param groupId the group id
+     * @param artifactId the artifact id
+     * @param version the version, or {@code null} for a versionless package URL
+     * @param type the {@code type} qualifier, or {@code null}
+     * @param classifier the {@code classifier} qualifier, or {@code null}
+     * @return the canonical package URL
+     * @throws MalformedPackageURLException if the coordinates do not make a valid package URL
+     */
+    String get(final String groupId, final String artifactId, final String version, final String type, final String classifier)
+            throws MalformedPackageURLException {
+        final Coordinates coordinates = new Coordinates(groupId, artifactId, version, type, classifier);
+        String packageUrl = packageUrls.get(coordinates);
+        if (packageUrl == null) {
+            packageUrl = canonicalize(groupId, artifactId, version, type, classifier);
+            if (packageUrls.size() >= MAX_ENTRIES) {
+                packageUrls.clear();
+            }
+            packageUrls.put(coordinates, packageUrl);
+        }
+        return packageUrl;
+    }
+
+    int size() {
+        return packageUrls.size();
+    }
+
+    /**
+     * Builds the canonical package URL of Maven coordinates, without cache.
+     */
+    static String canonicalize(final String groupId, final String artifactId, final String version, final String type, final String classifier)
+            throws MalformedPackageURLException {
+        if (isUnreserved(groupId) && isUnreserved(artifactId) && (version == null || isUnreserved(version))
+                && (type == null || isUnreserved(type)) && (classifier == null || isUnreserved(classifier))) {
+            final StringBuilder packageUrl = new StringBuilder(64);
+            packageUrl.append("pkg:maven/").append(groupId).append('/').append(artifactId);
+            if (version != null) {
+                packageUrl.append('@').append(version);
+            }
+            // qualifiers are sorted by key
+            if (classifier != null) {
+                packageUrl.append("?classifier=").append(classifier);
+            }
+            if (type != null) {
+                packageUrl.append((classifier == null) ? "?type=" : "&type=").append(type);
+            }
+            return packageUrl.toString();
+        }
+
+        TreeMap<String, String> qualifiers = null;
+        if (type != null || classifier != null) {
+            qualifiers = new TreeMap<>();
+            if (type != null) {
+                qualifiers.put("type", type);
+            }
+            if (classifier != null) {
+                qualifiers.put("classifier", classifier);
+            }
+        }
+        return new PackageURL(PackageURL.StandardTypes.MAVEN, groupId, artifactId, version, qualifiers, null).canonicalize();
+    }
+
+    /**
+     * Checks that a value is not empty and only contains characters that are never percent-encoded.
+     */
+    private static boolean isUnreserved(final String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Coordinates {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String type;
+        private final String classifier;
+        private final int hash;
+
+        Coordinates(final String groupId, final String artifactId, final String version, final String type, final String classifier) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.type = type;
+            this.classifier = classifier;
+            int h = Objects.hashCode(groupId);
+            h = 31 * h + Objects.hashCode(artifactId);
+            h = 31 * h + Objects.hashCode(version);
+            h = 31 * h + Objects.hashCode(type);
+            this.hash = 31 * h + Objects.hashCode(classifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Coordinates)) {
+                return false;
+            }
+            final Coordinates other = (Coordinates) obj;
+            return hash == other.hash && Objects.equals(groupId, other.groupId) && Objects.equals(artifactId, other.artifactId)
+                    && Objects.equals(version, other.version) && Objects.equals(type, other.type)
+                    && Objects.equals(classifier, other.classifier);
+        }
+    }
+}
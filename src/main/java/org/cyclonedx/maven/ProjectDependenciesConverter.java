@@ -22,9 +22,9 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Metadata;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,7 +33,25 @@ import java.util.Map;
  */
 public interface ProjectDependenciesConverter {
 
-    BomDependencies extractBOMDependencies(MavenProject mavenProject, MavenDependencyScopes include, String[] excludes) throws MojoExecutionException;
+    BomDependencies extractBOMDependencies(MavenProject mavenProject, MavenDependencyScopes include, String[] excludes, ExecutionMetrics metrics) throws MojoExecutionException;
+
+    /**
+     * Collects the dependency graph of a project ahead of {@link #extractBOMDependencies}, for incremental mode to
+     * fingerprint it: the collected graph is reused by next extraction of BOM dependencies of the project.
+     *
+     * @param mavenProject the Maven project
+     * @param metrics the execution metrics accounting resolver activity
+     * @return the Maven artifacts of the transitive dependency graph, with their resolved version and file, or
+     *         {@code null} if the graph cannot be collected
+     * @throws MojoExecutionException if the resolver is not supported
+     */
+    List<Artifact> collectDependencyArtifacts(MavenProject mavenProject, ExecutionMetrics metrics) throws MojoExecutionException;
+
+    /**
+     * Releases the dependency graphs collected by {@link #collectDependencyArtifacts} that were not reused by an
+     * extraction of BOM dependencies.
+     */
+    void releaseCollectedGraphs();
 
     /**
      * Check consistency between BOM components and BOM dependencies, and cleanup: drop components found while walking the
@@ -41,9 +59,9 @@ public interface ProjectDependenciesConverter {
      *
      * @param metadata the SBOM metadata
      * @param components the SBOM components
-     * @param dependencies the SBOM dependencies
+     * @param dependencies the SBOM dependency graph
      */
-    void cleanupBomDependencies(Metadata metadata, Map<String, Component> components, Map<String, Dependency> dependencies);
+    void cleanupBomDependencies(Metadata metadata, Map<String, Component> components, DependencyGraph dependencies);
 
     public static class MavenDependencyScopes {
         public final boolean compile;
@@ -62,17 +80,17 @@ public interface ProjectDependenciesConverter {
     }
 
     public static class BomDependencies {
-        private final Map<String, Dependency> dependencies;
+        private final DependencyGraph dependencies;
         private final Map<String, Artifact> artifacts;
         private final Map<String, Artifact> dependencyArtifacts;
 
-        public BomDependencies(final Map<String, Dependency> dependencies, final Map<String, Artifact> artifacts, final Map<String, Artifact> dependencyArtifacts) {
+        public BomDependencies(final DependencyGraph dependencies, final Map<String, Artifact> artifacts, final Map<String, Artifact> dependencyArtifacts) {
             this.dependencies = dependencies;
             this.artifacts = artifacts;
             this.dependencyArtifacts = dependencyArtifacts;
         }
 
-        public final Map<String, Dependency> getDependencies() {
+        public final DependencyGraph getDependencies() {
             return dependencies;
         }
 
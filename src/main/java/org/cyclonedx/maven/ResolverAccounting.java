@@ -0,0 +1,138 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.listener.ChainedRepositoryListener;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Accounting of Maven Resolver activity during a goal execution: local repository hits and remote fetches are
+ * counted from repository events of the sessions used by the plugin.
+ * When offline, every artifact that is not available in local repository is recorded: in no-download mode, the
+ * sessions are offline and these artifacts fail the execution, while in Maven offline mode their components are
+ * only partial.
+ */
+class ResolverAccounting extends AbstractRepositoryListener {
+    private final ExecutionMetrics metrics;
+
+    private boolean noDownload;
+
+    private final Set<String> unavailableArtifacts = new LinkedHashSet<>();
+
+    private final Set<String> downloadedArtifacts = new HashSet<>();
+
+    private RepositorySystemSession lastSession;
+
+    private RepositorySystemSession lastAccountedSession;
+
+    ResolverAccounting(final ExecutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Switches sessions offline: artifacts missing from local repository are recorded instead of downloaded.
+     */
+    synchronized void enableNoDownload() {
+        noDownload = true;
+        lastSession = null;
+        lastAccountedSession = null;
+    }
+
+    synchronized boolean isNoDownload() {
+        return noDownload;
+    }
+
+    /**
+     * Returns a session notifying this accounting of repository events, offline in no-download mode.
+     *
+     * @param session the Maven repository session
+     * @return the accounted session
+     */
+    synchronized RepositorySystemSession session(final RepositorySystemSession session) {
+        if (session != lastSession) {
+            final DefaultRepositorySystemSession accountedSession = new DefaultRepositorySystemSession(session);
+            accountedSession.setRepositoryListener((session.getRepositoryListener() == null)
+                    ? this : new ChainedRepositoryListener(session.getRepositoryListener(), this));
+            if (noDownload) {
+                accountedSession.setOffline(true);
+            }
+            lastSession = session;
+            lastAccountedSession = accountedSession;
+        }
+        return lastAccountedSession;
+    }
+
+    /**
+     * Returns the artifacts that were not available in local repository while offline.
+     *
+     * @return the artifact ids
+     */
+    synchronized Set<String> getUnavailableArtifacts() {
+        return new LinkedHashSet<>(unavailableArtifacts);
+    }
+
+    /**
+     * Fails if an artifact would have required a download in no-download mode.
+     *
+     * @throws MojoExecutionException if an artifact is not available in local repository
+     */
+    synchronized void checkNoDownload() throws MojoExecutionException {
+        if (noDownload && !unavailableArtifacts.isEmpty()) {
+            throw new MojoExecutionException("CycloneDX: BOM generation requires a download in no-download mode, "
+                    + "artifacts not available in local repository: " + String.join(", ", unavailableArtifacts));
+        }
+    }
+
+    @Override
+    public void artifactResolved(final RepositoryEvent event) {
+        final String artifact = String.valueOf(event.getArtifact());
+        synchronized (this) {
+            // the event repository is the remote origin of artifacts found in local repository: detect downloads instead
+            final boolean downloaded = downloadedArtifacts.remove(artifact);
+            if (event.getFile() == null) {
+                if (event.getSession().isOffline()) {
+                    unavailableArtifacts.add(artifact);
+                }
+            } else if (!downloaded) {
+                metrics.count(ExecutionMetrics.COUNTER_RESOLVER_LOCAL_HITS, 1);
+            }
+        }
+    }
+
+    @Override
+    public void artifactDownloading(final RepositoryEvent event) {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_REMOTE_FETCHES, 1);
+        synchronized (this) {
+            downloadedArtifacts.add(String.valueOf(event.getArtifact()));
+        }
+    }
+
+    @Override
+    public void metadataDownloading(final RepositoryEvent event) {
+        metrics.count(ExecutionMetrics.COUNTER_RESOLVER_REMOTE_FETCHES, 1);
+    }
+}
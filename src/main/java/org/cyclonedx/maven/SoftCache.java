@@ -0,0 +1,105 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-scoped cache of values costly to compute, kept across builds as long as the plugin class realm lives: with Maven
+ * daemons like mvnd, the realm and its static caches survive from one build to the next.
+ * Values are softly referenced, to be reclaimed by the garbage collector when memory is needed, and are stored with
+ * a stamp of their inputs, like the path, size and modification time of a file: a value is only returned for the same
+ * stamp, so that changed inputs, like a rebuilt SNAPSHOT or another local repository, invalidate it.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+class SoftCache<K, V> {
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    /**
+     * Returns the stamp of a file: path, size and modification time.
+     *
+     * @param file the file
+     * @return the stamp of the file
+     */
+    static List<Object> stamp(final File file) {
+        return Arrays.asList(file.getAbsolutePath(), file.length(), file.lastModified());
+    }
+
+    /**
+     * Returns a cached value.
+     *
+     * @param key the key of the value
+     * @param stamp the stamp of the inputs of the value
+     * @return the value, or {@code null} if no value is cached for this key and stamp
+     */
+    V get(final K key, final Object stamp) {
+        expunge();
+        final Entry<K, V> entry = entries.get(key);
+        return (entry == null || !entry.stamp.equals(stamp)) ? null : entry.get();
+    }
+
+    /**
+     * Caches a value.
+     *
+     * @param key the key of the value
+     * @param stamp the stamp of the inputs of the value
+     * @param value the value
+     */
+    void put(final K key, final Object stamp, final V value) {
+        expunge();
+        entries.put(key, new Entry<>(key, stamp, value, queue));
+    }
+
+    int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * Removes the entries which values were reclaimed.
+     */
+    private void expunge() {
+        for (Object reference = queue.poll(); reference != null; reference = queue.poll()) {
+            final Entry<?, ?> entry = (Entry<?, ?>) reference;
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private static final class Entry<K, V> extends SoftReference<V> {
+        private final K key;
+
+        private final Object stamp;
+
+        Entry(final K key, final Object stamp, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.stamp = stamp;
+        }
+    }
+}
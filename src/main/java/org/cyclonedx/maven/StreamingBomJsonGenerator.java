@@ -0,0 +1,134 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.networknt.schema.JsonSchema;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.generators.json.BomJsonGenerator;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.BomReference;
+import org.cyclonedx.util.mixin.MixInBomReference;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JSON BOM generator writing to a stream, with the same output as {@link BomJsonGenerator#toJsonString()} but
+ * without building the whole document in memory: components are serialized one at a time from the BOM component
+ * list, that may be read from a {@link ComponentStore}.
+ */
+class StreamingBomJsonGenerator extends BomJsonGenerator {
+    /**
+     * Top-level arrays growing with the number of components, validated one item at a time.
+     */
+    private static final List<String> ITEM_ARRAYS = Arrays.asList("components", "dependencies");
+
+    StreamingBomJsonGenerator(final Bom bom, final Version version) {
+        super(bom, version);
+    }
+
+    /**
+     * Writes the BOM as pretty-printed UTF-8 JSON.
+     *
+     * @param out the stream, left open
+     * @throws GeneratorException if the BOM cannot be serialized
+     */
+    void writeTo(final OutputStream out) throws GeneratorException {
+        mapper.addMixIn(BomReference.class, MixInBomReference.class);
+        final DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
+        prettyPrinter.indentArraysWith(DefaultIndenter.SYSTEM_LINEFEED_INSTANCE);
+        try {
+            mapper.writer(prettyPrinter).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, bom);
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+
+    /**
+     * Validates a JSON BOM file against the JSON schema, reading it one top-level value at a time: components and
+     * dependencies are validated one by one, in a document with the top-level scalar values read before them, and
+     * their uniqueness is checked with a digest of their content. The other top-level values are validated together
+     * in a document where these arrays are empty. Used when components are spilled to disk, other BOMs are validated
+     * by the library parser.
+     *
+     * @param bomFile the BOM file
+     * @param version the schema version
+     * @return {@code true} if the BOM is valid
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isValid(final File bomFile, final Version version) throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final JsonSchema schema = new org.cyclonedx.parsers.JsonParser().getJsonSchema(version, mapper);
+        final ObjectNode document = mapper.createObjectNode();
+        final ObjectNode scalars = mapper.createObjectNode();
+        try (JsonParser parser = mapper.getFactory().createParser(bomFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (ITEM_ARRAYS.contains(name) && token == JsonToken.START_ARRAY) {
+                    final Set<String> digests = new HashSet<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        final JsonNode item = mapper.readTree(parser);
+                        if (!digests.add(Hex.encodeHexString(DigestUtils.sha256(mapper.writeValueAsBytes(item))))) {
+                            return false;
+                        }
+                        final ObjectNode itemDocument = scalars.deepCopy();
+                        itemDocument.putArray(name).add(item);
+                        if (!schema.validate(itemDocument).isEmpty()) {
+                            return false;
+                        }
+                    }
+                    document.set(name, mapper.createArrayNode());
+                } else {
+                    final JsonNode value = mapper.readTree(parser);
+                    document.set(name, value);
+                    if (value.isValueNode()) {
+                        scalars.set(name, value);
+                    }
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return false;
+            }
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+        return schema.validate(document).isEmpty();
+    }
+}
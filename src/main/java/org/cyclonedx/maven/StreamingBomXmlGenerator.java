@@ -0,0 +1,56 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.xml.util.DefaultXmlPrettyPrinter;
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.generators.xml.BomXmlGenerator;
+import org.cyclonedx.model.Bom;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * XML BOM generator writing to a stream, with the same output as {@link BomXmlGenerator#toXmlString()} but without
+ * building the whole document in memory: components are serialized one at a time from the BOM component list, that
+ * may be read from a {@link ComponentStore}.
+ */
+class StreamingBomXmlGenerator extends BomXmlGenerator {
+    StreamingBomXmlGenerator(final Bom bom, final Version version) {
+        super(bom, version);
+    }
+
+    /**
+     * Writes the BOM as pretty-printed UTF-8 XML.
+     *
+     * @param out the stream, left open
+     * @throws GeneratorException if the BOM cannot be serialized
+     */
+    void writeTo(final OutputStream out) throws GeneratorException {
+        try {
+            out.write((PROLOG + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            mapper.writer(new DefaultXmlPrettyPrinter()).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, bom);
+        } catch (IOException e) {
+            throw new GeneratorException(e);
+        }
+    }
+}
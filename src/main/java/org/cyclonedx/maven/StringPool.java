@@ -0,0 +1,107 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.License;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Deduplicating pool of the strings kept in BOM components and dependency graphs: the same coordinates, package URLs
+ * and licenses are found in many modules of an aggregate, and would otherwise be retained once per occurrence.
+ * Strings are weakly referenced, so the pool does not retain anything once BOM generation is done.
+ */
+@Singleton
+@Named
+public class StringPool {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    /**
+     * Returns the pooled instance of a string, pooling it if none.
+     *
+     * @param value the string, possibly {@code null}
+     * @return the pooled string, or {@code null}
+     */
+    public synchronized String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final WeakReference<String> reference = strings.get(value);
+        final String pooled = (reference == null) ? null : reference.get();
+        if (pooled != null) {
+            return pooled;
+        }
+        strings.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    /**
+     * Replaces the coordinates, package URL, references and license strings of a component with pooled instances.
+     *
+     * @param component the component
+     * @return the component
+     */
+    public Component intern(final Component component) {
+        component.setGroup(intern(component.getGroup()));
+        component.setName(intern(component.getName()));
+        component.setVersion(intern(component.getVersion()));
+        component.setPurl(intern(component.getPurl()));
+        component.setBomRef(intern(component.getBomRef()));
+        component.setPublisher(intern(component.getPublisher()));
+        component.setDescription(intern(component.getDescription()));
+        if (component.getLicenseChoice() != null && component.getLicenseChoice().getLicenses() != null) {
+            for (License license : component.getLicenseChoice().getLicenses()) {
+                intern(license);
+            }
+        }
+        if (component.getExternalReferences() != null) {
+            for (ExternalReference externalReference : component.getExternalReferences()) {
+                externalReference.setUrl(intern(externalReference.getUrl()));
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Replaces the strings of a license with pooled instances. A license whose strings are already pooled, like the
+     * licenses shared by components, is not modified.
+     *
+     * @param license the license
+     */
+    public void intern(final License license) {
+        final String id = intern(license.getId());
+        if (id != license.getId()) {
+            license.setId(id);
+        }
+        final String name = intern(license.getName());
+        if (name != license.getName()) {
+            license.setName(name);
+        }
+        final String url = intern(license.getUrl());
+        if (url != license.getUrl()) {
+            license.setUrl(url);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of BOM dependency subgraphs, shared by the modules of a Maven session: modules of a reactor resolve the same
+ * dependency subtrees, that are walked once and then replayed into the dependency graph of each module.
+ * Resolved dependency subtrees are hash-consed as {@link Subgraph} keys, identical when they have the same artifact and
+ * the same children after scope and type filtering, and the walk of their children is recorded as a {@link Trace}.
+ */
+class SubgraphCache {
+    /**
+     * Maximum number of trace entries kept by the cache: subtrees are no longer recorded when reached.
+     */
+    static final int MAX_ENTRIES = 1 << 20;
+
+    private final ConcurrentMap<Subgraph, Subgraph> subgraphs = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Subgraph, Trace> traces = new ConcurrentHashMap<>();
+
+    private final AtomicInteger entries = new AtomicInteger();
+
+    /**
+     * Returns the cache of a Maven session, for a dependency filtering configuration.
+     *
+     * @param session the repository session
+     * @param configuration the scopes and types filtering configuration
+     * @return the cache
+     */
+    static SubgraphCache get(final RepositorySystemSession session, final String configuration) {
+        final SessionData data = session.getData();
+        // modules may run the plugin from different class realms: the key is distinct for each loaded cache class
+        final Object key = Arrays.asList(SubgraphCache.class, configuration);
+        while (true) {
+            final SubgraphCache cache = (SubgraphCache) data.get(key);
+            if (cache != null) {
+                return cache;
+            }
+            if (data.set(key, null, new SubgraphCache())) {
+                return (SubgraphCache) data.get(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical instance of a subgraph.
+     */
+    Subgraph intern(final Subgraph subgraph) {
+        final Subgraph canonical = subgraphs.putIfAbsent(subgraph, subgraph);
+        return (canonical == null) ? subgraph : canonical;
+    }
+
+    Trace getTrace(final Subgraph subgraph) {
+        return traces.get(subgraph);
+    }
+
+    /**
+     * Checks whether the walk of a subgraph can still be recorded.
+     */
+    boolean isFull() {
+        return entries.get() >= MAX_ENTRIES;
+    }
+
+    void putTrace(final Subgraph subgraph, final Trace trace) {
+        if (traces.putIfAbsent(subgraph, trace) == null) {
+            entries.addAndGet(trace.size());
+        }
+    }
+
+    /**
+     * A resolved dependency subtree: artifact coordinates and children subtrees, compared by identity since they are
+     * canonical.
+     */
+    static final class Subgraph {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String classifier;
+        private final String type;
+        private final Subgraph[] children;
+        private final int hash;
+
+        Subgraph(final String groupId, final String artifactId, final String version, final String classifier,
+                 final String type, final Subgraph[] children) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.classifier = classifier;
+            this.type = type;
+            this.children = children;
+            int h = Objects.hashCode(groupId);
+            h = 31 * h + Objects.hashCode(artifactId);
+            h = 31 * h + Objects.hashCode(version);
+            h = 31 * h + Objects.hashCode(classifier);
+            h = 31 * h + Objects.hashCode(type);
+            for (Subgraph child : children) {
+                h = 31 * h + child.hash;
+            }
+            this.hash = h;
+        }
+
+        boolean hasChildren() {
+            return children.length > 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Subgraph)) {
+                return false;
+            }
+            final Subgraph other = (Subgraph) obj;
+            if (hash != other.hash || children.length != other.children.length
+                    || !Objects.equals(groupId, other.groupId) || !Objects.equals(artifactId, other.artifactId)
+                    || !Objects.equals(version, other.version) || !Objects.equals(classifier, other.classifier)
+                    || !Objects.equals(type, other.type)) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != other.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Recorded walk of the children of a node into an empty dependency graph: each entry is a visited node, with its
+     * parent entry ({@code -1} for the walked node) and the end of its subtree entries.
+     */
+    static final class Trace {
+        private final String[] refs;
+        private final int[] parents;
+        private final int[] ends;
+
+        private Trace(final String[] refs, final int[] parents, final int[] ends) {
+            this.refs = refs;
+            this.parents = parents;
+            this.ends = ends;
+        }
+
+        int size() {
+            return refs.length;
+        }
+
+        /**
+         * Replays the walk into a dependency graph: like the original walk, the subtree of a node that is already in the
+         * graph is skipped.
+         *
+         * @param graph the dependency graph
+         * @param ref the reference of the walked node
+         * @param recorder the recorder of an enclosing walk, or {@code null}
+         * @param recorderParent the entry of the walked node in the enclosing recorder
+         */
+        void replay(final DependencyGraph graph, final String ref, final Recorder recorder, final int recorderParent) {
+            final int[] recorded = (recorder == null) ? null : new int[refs.length];
+            final int[] open = new int[refs.length];
+            int openCount = 0;
+            int i = 0;
+            while (i < refs.length) {
+                while (openCount > 0 && ends[open[openCount - 1]] <= i) {
+                    final int closed = open[--openCount];
+                    if (recorder != null) {
+                        recorder.end(recorded[closed]);
+                    }
+                }
+                final int parent = parents[i];
+                if (recorder != null) {
+                    recorded[i] = recorder.add(refs[i], (parent < 0) ? recorderParent : recorded[parent]);
+                }
+                graph.addDependsOn((parent < 0) ? ref : refs[parent], refs[i]);
+                if (graph.add(refs[i])) {
+                    open[openCount++] = i;
+                    i++;
+                } else {
+                    if (recorder != null) {
+                        recorder.end(recorded[i]);
+                    }
+                    i = ends[i];
+                }
+            }
+            while (openCount > 0) {
+                final int closed = open[--openCount];
+                if (recorder != null) {
+                    recorder.end(recorded[closed]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder of a {@link Trace}, during a walk.
+     */
+    static final class Recorder {
+        private String[] refs = new String[16];
+        private int[] parents = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+
+        /**
+         * Records a visited node, before its subtree.
+         *
+         * @return the entry of the node
+         */
+        int add(final String ref, final int parent) {
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+                parents = Arrays.copyOf(parents, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            refs[size] = ref;
+            parents[size] = parent;
+            return size++;
+        }
+
+        /**
+         * Records the end of the subtree of a visited node.
+         */
+        void end(final int entry) {
+            ends[entry] = size;
+        }
+
+        Trace build() {
+            return new Trace(Arrays.copyOf(refs, size), Arrays.copyOf(parents, size), Arrays.copyOf(ends, size));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of CycloneDX Maven Plugin.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) OWASP Foundation. All Rights Reserved.
+ */
+package org.cyclonedx.maven;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.cyclonedx.model.Hash;
+import org.eclipse.aether.graph.DependencyNode;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Java Flight Recorder events, loaded by {@link FlightRecorderEvents} when running on Java 11 or later.
+ * Event data is computed only if the event is recorded.
+ */
+class JfrFlightRecorderEvents extends FlightRecorderEvents {
+    private static final String CATEGORY = "CycloneDX Maven Plugin";
+
+    @Override
+    ArtifactHashed beginArtifactHashed() {
+        final ArtifactHashedEvent event = new ArtifactHashedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    EffectivePomBuilt beginEffectivePomBuilt() {
+        final EffectivePomBuiltEvent event = new EffectivePomBuiltEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    DependencyGraphCollected beginDependencyGraphCollected() {
+        final DependencyGraphCollectedEvent event = new DependencyGraphCollectedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    BomSerialized beginBomSerialized() {
+        final BomSerializedEvent event = new BomSerializedEvent();
+        event.begin();
+        return event;
+    }
+
+    @Name("org.cyclonedx.maven.ArtifactHashed")
+    @Label("Artifact Hashed")
+    @Description("Hashes calculated for an artifact file")
+    @Category(CATEGORY)
+    static class ArtifactHashedEvent extends Event implements ArtifactHashed {
+        @Label("Path")
+        String path;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Algorithms")
+        String algorithms;
+
+        @Override
+        public void commit(final File file, final long bytes, final List<Hash> hashes) {
+            end();
+            if (shouldCommit()) {
+                this.path = String.valueOf(file);
+                this.bytes = bytes;
+                this.algorithms = (hashes == null) ? null : hashes.stream().map(Hash::getAlgorithm).collect(Collectors.joining(","));
+                commit();
+            }
+        }
+    }
+
+    @Name("org.cyclonedx.maven.EffectivePomBuilt")
+    @Label("Effective POM Built")
+    @Description("Effective POM of a dependency built from repository")
+    @Category(CATEGORY)
+    static class EffectivePomBuiltEvent extends Event implements EffectivePomBuilt {
+        @Label("GAV")
+        String gav;
+
+        @Label("Success")
+        boolean success;
+
+        @Override
+        public void commit(final String gav, final boolean success) {
+            end();
+            if (shouldCommit()) {
+                this.gav = gav;
+                this.success = success;
+                commit();
+            }
+        }
+    }
+
+    @Name("org.cyclonedx.maven.DependencyGraphCollected")
+    @Label("Dependency Graph Collected")
+    @Description("Dependency graph of a module collected and resolved")
+    @Category(CATEGORY)
+    static class DependencyGraphCollectedEvent extends Event implements DependencyGraphCollected {
+        @Label("Module")
+        String module;
+
+        @Label("Node Count")
+        int nodeCount;
+
+        @Override
+        public void commit(final String module, final DependencyNode root) {
+            end();
+            if (shouldCommit()) {
+                this.module = module;
+                this.nodeCount = countNodes(root);
+                commit();
+            }
+        }
+
+        private static int countNodes(final DependencyNode root) {
+            if (root == null) {
+                return 0;
+            }
+            final Set<DependencyNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Deque<DependencyNode> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            while (!toVisit.isEmpty()) {
+                final DependencyNode node = toVisit.pop();
+                if (visited.add(node)) {
+                    node.getChildren().forEach(toVisit::push);
+                }
+            }
+            return visited.size();
+        }
+    }
+
+    @Name("org.cyclonedx.maven.BomSerialized")
+    @Label("BOM Serialized")
+    @Description("BOM serialized to an output format")
+    @Category(CATEGORY)
+    static class BomSerializedEvent extends Event implements BomSerialized {
+        @Label("Format")
+        String format;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Override
+        public void commit(final String format, final long bytes) {
+            end();
+            if (shouldCommit()) {
+                this.format = format;
+                this.bytes = bytes;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.cyclonedx.maven;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.parsers.JsonParser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Aggregate BOM from module dependency graphs collected by the build extension during the build, only when they can be
+ * used.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class AggregateCollectTest extends BaseMavenVerifier {
+
+    public AggregateCollectTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testCollectModuleGraphs() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        execution(projDir)
+                .withCliOption("-T2")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertLogText("CycloneDX: collecting dependency graphs of 3 module(s)")
+                .assertLogText("[INFO] CycloneDX: 3 module dependency graph(s) collected during the build");
+        assertFilesPresent(projDir, "target/bom.json");
+
+        final Bom bom = new JsonParser().parse(new File(projDir, "target/bom.json"));
+        final Set<String> components = bom.getComponents().stream().map(Component::getBomRef).collect(Collectors.toSet());
+        assertEquals(4, components.size());
+
+        // collection by the goal execution gives the same BOM
+        execution(projDir)
+                .withCliOption("-o")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertNoLogText("collected during the build")
+                .assertLogText("[INFO] CycloneDX: BOM (JSON) is up to date");
+    }
+
+    @Test
+    public void testNoCollection() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        // makeAggregateBom bound to the execution root runs before modules are built
+        execution(projDir)
+                .withCliOption("-T2")
+                .withCliOption("-DaggregateExecution")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertNoLogText("collecting dependency graphs")
+                .assertNoLogText("collected during the build");
+        assertFilesPresent(projDir, "target/bom.json");
+
+        // collected graphs are not used in no-download mode
+        execution(projDir)
+                .withCliOption("-T2")
+                .withCliOption("-Dcyclonedx.noDownload=true")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertNoLogText("collecting dependency graphs")
+                .assertNoLogText("collected during the build");
+        assertFilesPresent(projDir, "target/bom.json");
+    }
+
+    private MavenExecution execution(File projDir) throws Exception {
+        return verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-DmoduleGraphCollector")
+                .withCliOption("-Dorg.slf4j.simpleLogger.log.org.cyclonedx.maven.ModuleGraphCollector=debug")
+                .withCliOption("-B");
+    }
+}
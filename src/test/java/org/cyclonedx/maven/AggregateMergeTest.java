@@ -0,0 +1,103 @@
+package org.cyclonedx.maven;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.parsers.JsonParser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Aggregate BOM merged from module BOMs generated in the same build.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class AggregateMergeTest extends BaseMavenVerifier {
+
+    public AggregateMergeTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testMergeModuleBoms() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        execution(projDir)
+                .withCliOption("-Dcyclonedx.aggregateStrategy=merge")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 3 module BOM(s) merged");
+        assertFilesPresent(projDir, "target/bom-aggregate.json", "module-a/target/bom.json", "module-b/target/bom.json");
+
+        final Bom bom = new JsonParser().parse(new File(projDir, "target/bom-aggregate.json"));
+        final Set<String> components = bom.getComponents().stream().map(Component::getBomRef).collect(Collectors.toSet());
+        assertEquals(4, components.size());
+
+        // options are compared within the build, without being written in BOMs
+        final Bom moduleBom = new JsonParser().parse(new File(projDir, "module-a/target/bom.json"));
+        assertFalse(moduleBom.getMetadata().getProperties().stream().anyMatch(p -> p.getName().equals("maven.options")));
+
+        // module BOMs are read as a stream, to the same model as the library parser
+        final Bom streamed = CycloneDxAggregateMojo.readJsonBom(new File(projDir, "module-b/target/bom.json"));
+        final Bom parsed = new JsonParser().parse(new File(projDir, "module-b/target/bom.json"));
+        assertEquals(parsed.getSpecVersion(), streamed.getSpecVersion());
+        assertEquals(parsed.getMetadata().getProperties().size(), streamed.getMetadata().getProperties().size());
+        assertEquals(parsed.getComponents(), streamed.getComponents());
+        assertEquals(parsed.getDependencies(), streamed.getDependencies());
+
+        // analysis of every module gives the same BOM
+        execution(projDir)
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertNoLogText("module BOM(s) merged")
+                .assertLogText("[INFO] CycloneDX: BOM (JSON) is up to date");
+    }
+
+    @Test
+    public void testModuleBomsWithOtherOptionsAreAnalyzed() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        // module BOMs configure their projectType: the property only applies to the aggregate
+        execution(projDir)
+                .withCliOption("-Dcyclonedx.aggregateStrategy=merge")
+                .withCliOption("-DprojectType=application")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertLogText("Module BOM of module-a has different options, analyzing module")
+                .assertLogText("[INFO] CycloneDX: 0 module BOM(s) merged");
+    }
+
+    @Test
+    public void testMergeInLifecycleWarns() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        // makeAggregateBom bound to the lifecycle of the execution root runs before module BOMs are generated
+        execution(projDir)
+                .withCliOption("-DaggregateExecution")
+                .withCliOption("-Dcyclonedx.aggregateStrategy=merge")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[WARNING] CycloneDX: no module BOM attached in this build by 3 module(s), analyzing them: aggregate, module-a, module-b.")
+                .assertLogText("[INFO] CycloneDX: 0 module BOM(s) merged");
+    }
+
+    private MavenExecution execution(File projDir) throws Exception {
+        return verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DmoduleBoms");
+    }
+}
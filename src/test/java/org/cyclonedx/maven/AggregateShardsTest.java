@@ -0,0 +1,88 @@
+package org.cyclonedx.maven;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.parsers.JsonParser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Aggregate BOM written as BOM shards, referred to from the aggregate BOM with BOM-Link.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class AggregateShardsTest extends BaseMavenVerifier {
+
+    public AggregateShardsTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    private static String bomLink(final Bom bom) {
+        return "urn:cdx:" + bom.getSerialNumber().substring("urn:uuid:".length()) + "/1";
+    }
+
+    private static ExternalReference getBomReference(final Component component) {
+        assertNotNull(component.getExternalReferences());
+        return component.getExternalReferences().stream()
+                .filter(r -> r.getType() == ExternalReference.Type.BOM)
+                .findFirst().orElseThrow(AssertionError::new);
+    }
+
+    @Test
+    public void testShards() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DoutputFormat=all")
+                .withCliOption("-Dcyclonedx.aggregateShardSize=2")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 3 module(s) written to 2 BOM shard(s)");
+        assertFilesPresent(projDir, "target/bom.json", "target/bom.xml", "target/bom-shard-1.json", "target/bom-shard-1.xml",
+                "target/bom-shard-2.json", "target/bom-shard-2.xml");
+
+        final Bom bom = new JsonParser().parse(new File(projDir, "target/bom.json"));
+        final Bom shard1 = new JsonParser().parse(new File(projDir, "target/bom-shard-1.json"));
+        final Bom shard2 = new JsonParser().parse(new File(projDir, "target/bom-shard-2.json"));
+
+        // aggregate BOM lists the modules and their shards
+        final List<String> shardLinks = bom.getExternalReferences().stream().map(ExternalReference::getUrl).collect(Collectors.toList());
+        assertEquals(2, shardLinks.size());
+        assertEquals(bomLink(shard1), shardLinks.get(0));
+        assertEquals(bomLink(shard2), shardLinks.get(1));
+        assertEquals(2, bom.getComponents().size());
+        for (Component module : bom.getComponents()) {
+            final Bom shard = module.getName().equals("module-a") ? shard1 : shard2;
+            assertTrue(getBomReference(module).getUrl().startsWith(bomLink(shard) + "#pkg%3Amaven%2Fcom.example.aggregate%2F" + module.getName()));
+            assertNull(module.getLicenses());
+        }
+        final Dependency moduleB = bom.getDependencies().stream()
+                .filter(d -> d.getRef().contains("module-b")).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(1, moduleB.getDependencies().size());
+        assertTrue(moduleB.getDependencies().get(0).getRef().contains("module-a"));
+
+        // shards describe their modules
+        assertTrue(shard1.getComponents().stream().anyMatch(c -> "commons-lang3".equals(c.getName())));
+        assertTrue(shard2.getComponents().stream().anyMatch(c -> "commons-text".equals(c.getName())));
+        assertEquals(bom.getMetadata().getComponent().getPurl(), shard2.getMetadata().getComponent().getPurl());
+    }
+}
@@ -0,0 +1,83 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.junit.Test;
+
+/**
+ * Structural checks of protobuf BOMs: schema version, component names and bom-ref integrity.
+ * Streamed output is identical to the in-memory message.
+ */
+public class BomProtobufGeneratorTest {
+    private static Component component(final String name) {
+        final Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setName(name);
+        component.setVersion("1.0");
+        component.setBomRef("pkg:maven/org.example/" + name + "@1.0");
+        return component;
+    }
+
+    private static Bom bom(final Component... components) {
+        final Bom bom = new Bom();
+        bom.setComponents(new ArrayList<>(Arrays.asList(components)));
+        final Dependency dependency = new Dependency(components[0].getBomRef());
+        dependency.addDependency(new Dependency(components[1].getBomRef()));
+        bom.setDependencies(new ArrayList<>(Collections.singletonList(dependency)));
+        return bom;
+    }
+
+    private static boolean isStructurallyValid(final Bom bom, final Version version) throws Exception {
+        final byte[] bytes = new BomProtobufGenerator(Version.VERSION_16, bom).toByteArray();
+        return BomProtobufGenerator.isStructurallyValid(new ByteArrayInputStream(bytes), version);
+    }
+
+    @Test
+    public void testValid() throws Exception {
+        assertTrue(isStructurallyValid(bom(component("a"), component("b")), Version.VERSION_16));
+        assertFalse(isStructurallyValid(bom(component("a"), component("b")), Version.VERSION_15));
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        // dangling dependency reference
+        final Bom dangling = bom(component("a"), component("b"));
+        dangling.getComponents().remove(1);
+        assertFalse(isStructurallyValid(dangling, Version.VERSION_16));
+
+        // duplicate bom-ref
+        final Component duplicate = component("b");
+        duplicate.setBomRef(component("a").getBomRef());
+        assertFalse(isStructurallyValid(bom(component("a"), component("b"), duplicate), Version.VERSION_16));
+
+        // missing name
+        final Component unnamed = component("b");
+        unnamed.setName(null);
+        assertFalse(isStructurallyValid(bom(component("a"), unnamed), Version.VERSION_16));
+
+        // not a protobuf BOM
+        assertFalse(BomProtobufGenerator.isStructurallyValid(new ByteArrayInputStream(new byte[] {(byte) 0xff, 0x01}), Version.VERSION_16));
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        final Bom bom = bom(component("a"), component("b"));
+        bom.setSerialNumber("urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79");
+        final BomProtobufGenerator generator = new BomProtobufGenerator(Version.VERSION_16, bom);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.writeTo(out);
+        assertArrayEquals(generator.toByteArray(), out.toByteArray());
+    }
+}
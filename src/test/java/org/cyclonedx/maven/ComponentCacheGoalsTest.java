@@ -0,0 +1,107 @@
+package org.cyclonedx.maven;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenExecutionResult;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Persistent component cache reused by next builds, shared between cache directories with the
+ * {@code cache-export} and {@code cache-import} goals, and maintained with the {@code cache-stats},
+ * {@code cache-verify} and {@code cache-prune} goals.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class ComponentCacheGoalsTest extends BaseMavenVerifier {
+
+    public ComponentCacheGoalsTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testExportImport() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+        final File cacheA = new File(projDir, "cache-a");
+        final File cacheB = new File(projDir, "cache-b");
+        final File bundle = new File(projDir, "cyclonedx-cache.bundle");
+
+        final JsonNode components = build(projDir, cacheA).get("components");
+        JsonNode counters = readCounters(projDir);
+        assertEquals(1, counters.get("componentCacheMisses").asInt());
+        assertFalse(counters.has("componentCacheHits"));
+
+        assertEquals(components, build(projDir, cacheA).get("components"));
+        counters = readCounters(projDir);
+        assertEquals(1, counters.get("componentCacheHits").asInt());
+        assertFalse(counters.has("componentCacheMisses"));
+
+        goal(projDir, cacheA, "cache-export")
+                .assertLogText("[INFO] CycloneDX: 1 cached component(s) exported to " + bundle);
+        assertFilesPresent(projDir, "cyclonedx-cache.bundle");
+        goal(projDir, cacheB, "cache-import")
+                .assertLogText("[INFO] CycloneDX: 1 cached component(s) imported from " + bundle);
+
+        assertEquals(components, build(projDir, cacheB).get("components"));
+        assertEquals(1, readCounters(projDir).get("componentCacheHits").asInt());
+    }
+
+    @Test
+    public void testMaintenance() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+        final File cache = new File(projDir, "cache");
+
+        build(projDir, cache);
+        build(projDir, cache);
+
+        goal(projDir, cache, "cache-stats")
+                .assertLogText("[INFO] entries        : 1")
+                .assertLogText("[INFO] hits           : 1")
+                .assertLogText("[INFO] misses         : 1")
+                .assertLogText("[INFO] hit ratio      : 50.0%");
+        goal(projDir, cache, "cache-verify")
+                .assertLogText("[INFO] CycloneDX: 1 cached component(s) verified: 1 valid, 0 changed, 0 missing, 0 unreadable");
+        goal(projDir, cache, "cache-prune")
+                .assertLogText("[INFO] CycloneDX: 0 cached component(s) pruned (0 missing, 0 expired, 0 over size budget, 0 of another plugin version), 1 retained");
+    }
+
+    private JsonNode build(File projDir, File cacheDirectory) throws Exception {
+        execution(projDir, cacheDirectory)
+                .withCliOption("-Dcyclonedx.componentCache")
+                .withCliOption("-Dcyclonedx.metrics")
+                .execute("package")
+                .assertErrorFreeLog();
+        return new ObjectMapper().readTree(new File(projDir, "target/bom.json"));
+    }
+
+    private MavenExecutionResult goal(File projDir, File cacheDirectory, String goal) throws Exception {
+        return execution(projDir, cacheDirectory)
+                .withCliOption("-Dcyclonedx.cacheBundle=" + new File(projDir, "cyclonedx-cache.bundle"))
+                .execute("org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":" + goal)
+                .assertErrorFreeLog();
+    }
+
+    private static JsonNode readCounters(File projDir) throws Exception {
+        return new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-metrics.json")).get("counters");
+    }
+
+    private MavenExecution execution(File projDir, File cacheDirectory) throws Exception {
+        return verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-Dcyclonedx.cacheDirectory=" + cacheDirectory);
+    }
+}
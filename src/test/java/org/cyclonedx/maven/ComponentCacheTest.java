@@ -0,0 +1,322 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.cyclonedx.Version;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.util.BomUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Cached components are reused across builds only for unchanged release artifacts of the local repository, and
+ * survive an export and import through a bundle.
+ */
+public class ComponentCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File repository;
+
+    private File cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = temporaryFolder.newFolder("repository");
+        cacheDirectory = temporaryFolder.newFolder("cache");
+    }
+
+    private Artifact artifact(final String version, final String content) throws Exception {
+        final Artifact artifact = new DefaultArtifact("org.example", "lib", version, "compile", "jar", null, new DefaultArtifactHandler("jar"));
+        final File file = new File(repository, "org/example/lib/" + version + "/lib-" + version + ".jar");
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        artifact.setFile(file);
+        return artifact;
+    }
+
+    private static Component component(final Artifact artifact) throws Exception {
+        final Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setGroup(artifact.getGroupId());
+        component.setName(artifact.getArtifactId());
+        component.setVersion(artifact.getVersion());
+        component.setPurl("pkg:maven/org.example/lib@" + artifact.getVersion() + "?type=jar");
+        component.setBomRef(component.getPurl());
+        component.setHashes(BomUtils.calculateHashes(artifact.getFile(), Version.VERSION_16));
+        return component;
+    }
+
+    private static String key(final Component component) {
+        return ComponentCache.getKey(component.getPurl(), Version.VERSION_16, false);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+
+        final ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        assertNull(cache.get(key(component), artifact));
+        cache.put(key(component), artifact, component);
+        cache.save();
+
+        final Component cached = ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact);
+        assertNotNull(cached);
+        assertEquals(component.getPurl(), cached.getPurl());
+        assertEquals(component.getHashes().size(), cached.getHashes().size());
+
+        // other options, other plugin version
+        assertNull(ComponentCache.open(cacheDirectory, "1", repository).get(ComponentCache.getKey(component.getPurl(), Version.VERSION_16, true), artifact));
+        assertNull(ComponentCache.open(cacheDirectory, "2", repository).get(key(component), artifact));
+    }
+
+    @Test
+    public void testChangedFile() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        final ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), artifact, component);
+        cache.save();
+
+        // same content, other modification time: revalidated with the hash
+        assertTrue(artifact.getFile().setLastModified(artifact.getFile().lastModified() - 10000));
+        assertNotNull(ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact));
+
+        // other content of same size
+        Files.write(artifact.getFile().toPath(), "CONTENT".getBytes(StandardCharsets.UTF_8));
+        assertNull(ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact));
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        final Artifact snapshot = artifact("1.0-SNAPSHOT", "content");
+        final Component component = component(snapshot);
+        final ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), snapshot, component);
+        assertNull(cache.get(key(component), snapshot));
+
+        final Artifact outside = new DefaultArtifact("org.example", "lib", "1.0", "compile", "jar", null, new DefaultArtifactHandler("jar"));
+        outside.setFile(temporaryFolder.newFile("lib-1.0.jar"));
+        cache.put(key(component), outside, component);
+        assertNull(cache.get(key(component), outside));
+    }
+
+    @Test
+    public void testExportImport() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        final ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), artifact, component);
+        cache.save();
+
+        final File bundleFile = new File(temporaryFolder.getRoot(), "cyclonedx-cache.bundle");
+        ComponentCache.writeBundle(bundleFile, ComponentCache.read(cacheDirectory, "1"));
+
+        final File otherDirectory = temporaryFolder.newFolder("other");
+        final ComponentCache.Bundle bundle = ComponentCache.readBundle(bundleFile);
+        assertEquals("1", bundle.pluginVersion);
+        assertEquals(1, ComponentCache.merge(otherDirectory, bundle.pluginVersion, bundle.entries, false));
+        assertEquals(0, ComponentCache.merge(otherDirectory, bundle.pluginVersion, bundle.entries, false));
+
+        final Component imported = ComponentCache.open(otherDirectory, "1", repository).get(key(component), artifact);
+        assertNotNull(imported);
+        assertEquals(component.getPurl(), imported.getPurl());
+        for (Hash hash : imported.getHashes()) {
+            assertNotNull(hash.getValue());
+        }
+    }
+
+    private File truncatedBundle(final int count, final int componentLength) throws Exception {
+        final File bundleFile = temporaryFolder.newFile();
+        try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(bundleFile.toPath()))) {
+            header.write("CDXCACHE".getBytes(StandardCharsets.US_ASCII));
+            header.writeInt(ComponentCache.BUNDLE_FORMAT_VERSION);
+            header.writeUTF("1");
+            final DataOutputStream data = new DataOutputStream(new GZIPOutputStream(header));
+            data.writeInt(count);
+            if (componentLength != 0) {
+                data.writeUTF("key");
+                data.writeUTF("org/example/lib/1.0/lib-1.0.jar");
+                data.writeLong(7);
+                data.writeLong(0);
+                data.writeInt(componentLength);
+                data.write(new byte[16]);
+            }
+            data.close();
+        }
+        return bundleFile;
+    }
+
+    @Test
+    public void testTruncatedBundle() throws Exception {
+        // counts from the file are not trusted to allocate memory
+        for (File bundleFile : Arrays.asList(truncatedBundle(Integer.MAX_VALUE, 0), truncatedBundle(1, Integer.MAX_VALUE - 8), truncatedBundle(1, -1))) {
+            try {
+                ComponentCache.readBundle(bundleFile);
+                fail("truncated bundle read");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testStatsAndVerify() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        assertNull(cache.get(key(component), artifact));
+        cache.put(key(component), artifact, component);
+        cache.save();
+        cache = ComponentCache.open(cacheDirectory, "1", repository);
+        assertNotNull(cache.get(key(component), artifact));
+        assertNotNull(cache.get(key(component), artifact));
+        cache.save();
+
+        final ComponentCache.Stats stats = ComponentCache.stats(cacheDirectory, "1");
+        assertEquals("1", stats.pluginVersion);
+        assertEquals(1, stats.entries);
+        assertEquals(ComponentCache.getCacheFile(cacheDirectory, "1").length(), stats.size);
+        assertEquals(2, stats.hits);
+        assertEquals(1, stats.misses);
+
+        final ComponentJson json = new ComponentJson();
+        final ComponentCache.Entry entry = ComponentCache.read(cacheDirectory, "1").entries.iterator().next();
+        assertEquals(ComponentCache.Status.VALID, ComponentCache.verify(entry, repository, json));
+        Files.write(artifact.getFile().toPath(), "changed content".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ComponentCache.Status.CHANGED, ComponentCache.verify(entry, repository, json));
+        Files.delete(artifact.getFile().toPath());
+        assertEquals(ComponentCache.Status.MISSING, ComponentCache.verify(entry, repository, json));
+    }
+
+    @Test
+    public void testPrune() throws Exception {
+        final long day = TimeUnit.DAYS.toMillis(1);
+        final long now = System.currentTimeMillis();
+        final List<ComponentCache.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Artifact artifact = artifact("1." + i, "content " + i);
+            final File file = artifact.getFile();
+            final String path = repository.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+            entries.add(new ComponentCache.Entry("key-" + i, path, file.length(), file.lastModified(), now - i * day, new byte[1000]));
+        }
+        assertEquals(10, ComponentCache.merge(cacheDirectory, "1", entries, false));
+        Files.delete(new File(repository, entries.get(0).path).toPath());
+
+        // missing file, then unused for 7 days
+        ComponentCache.Pruning pruning = ComponentCache.prune(cacheDirectory, "1", repository, 7 * day + day / 2, 0, now);
+        assertEquals(1, pruning.missing);
+        assertEquals(2, pruning.expired);
+        assertEquals(7, pruning.retained);
+
+        // least recently used over size budget
+        pruning = ComponentCache.prune(cacheDirectory, "1", repository, 0, 3500, now);
+        assertEquals(4, pruning.overBudget);
+        assertEquals(3, pruning.retained);
+        final ComponentCache.Bundle cache = ComponentCache.read(cacheDirectory, "1");
+        final List<String> keys = new ArrayList<>();
+        for (ComponentCache.Entry entry : cache.entries) {
+            keys.add(entry.key);
+        }
+        assertEquals(Arrays.asList("key-1", "key-2", "key-3"), keys);
+
+        // other plugin version: its cache only is pruned
+        pruning = ComponentCache.prune(cacheDirectory, "2", repository, 0, 0, now);
+        assertEquals(0, pruning.otherVersion);
+        assertEquals(0, pruning.retained);
+        assertEquals(3, ComponentCache.stats(cacheDirectory, "1").entries);
+    }
+
+    @Test
+    public void testGenerations() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), artifact, component);
+        cache.save();
+        final File first = ComponentCache.getCacheFile(cacheDirectory, "1");
+
+        // a new file is written while the current one is mapped, then the current one is deleted
+        cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), artifact, component);
+        cache.save();
+        final File second = ComponentCache.getCacheFile(cacheDirectory, "1");
+        assertFalse(first.equals(second));
+        assertFalse(first.exists());
+        assertArrayEquals(new String[] {"1", "components.lock", "components.stats"}, sortedNames(cacheDirectory));
+        assertArrayEquals(new String[] {second.getName()}, sortedNames(second.getParentFile()));
+        assertNotNull(ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact));
+    }
+
+    @Test
+    public void testPluginVersions() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        cache.put(key(component), artifact, component);
+        cache.save();
+
+        // builds with another plugin version do not supersede the cache
+        cache = ComponentCache.open(cacheDirectory, "2.0-SNAPSHOT@1", repository);
+        assertNull(cache.get(key(component), artifact));
+        cache.put(key(component), artifact, component);
+        cache.save();
+        assertNotNull(ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact));
+        assertNotNull(ComponentCache.open(cacheDirectory, "2.0-SNAPSHOT@1", repository).get(key(component), artifact));
+        assertEquals("2.0-SNAPSHOT_1", ComponentCache.getCacheFile(cacheDirectory, "2.0-SNAPSHOT@1").getParentFile().getName());
+    }
+
+    private static String[] sortedNames(final File directory) {
+        final String[] names = directory.list();
+        Arrays.sort(names);
+        return names;
+    }
+
+    @Test
+    public void testInvalidCacheFile() throws Exception {
+        final Artifact artifact = artifact("1.0", "content");
+        final Component component = component(artifact);
+        final File invalid = new File(cacheDirectory, "1/components-7.idx");
+        Files.createDirectories(invalid.getParentFile().toPath());
+        Files.write(invalid.toPath(), "CDXINDEX truncated".getBytes(StandardCharsets.US_ASCII));
+
+        // ignored like a missing cache, then replaced by the next save
+        ComponentCache cache = ComponentCache.open(cacheDirectory, "1", repository);
+        assertNull(cache.get(key(component), artifact));
+        assertEquals(0, ComponentCache.stats(cacheDirectory, "1").entries);
+        assertEquals(0, ComponentCache.read(cacheDirectory, "1").entries.size());
+        cache.put(key(component), artifact, component);
+        cache.save();
+        assertFalse(invalid.exists());
+        assertNotNull(ComponentCache.open(cacheDirectory, "1", repository).get(key(component), artifact));
+
+        // removed by prune
+        Files.write(new File(cacheDirectory, "1/components-9.idx").toPath(), "not a cache file".getBytes(StandardCharsets.US_ASCII));
+        ComponentCache.prune(cacheDirectory, "1", repository, 0, 0, System.currentTimeMillis());
+        assertNull(ComponentCache.getCacheFile(cacheDirectory, "1"));
+    }
+}
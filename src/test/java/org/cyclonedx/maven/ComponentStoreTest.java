@@ -0,0 +1,116 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Components spilled to disk are read back unchanged, in insertion order.
+ */
+public class ComponentStoreTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Component component(final String name) {
+        final Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setGroup("org.example");
+        component.setName(name);
+        component.setVersion("1.0");
+        component.setPurl("pkg:maven/org.example/" + name + "@1.0?type=jar");
+        component.setBomRef(component.getPurl());
+        component.setScope(Component.Scope.OPTIONAL);
+        component.setHashes(Collections.singletonList(new Hash(Hash.Algorithm.SHA_256, "0123456789abcdef")));
+        final License license = new License();
+        license.setId("Apache-2.0");
+        final LicenseChoice licenseChoice = new LicenseChoice();
+        licenseChoice.addLicense(license);
+        component.setLicenses(licenseChoice);
+        final ExternalReference externalReference = new ExternalReference();
+        externalReference.setType(ExternalReference.Type.WEBSITE);
+        externalReference.setUrl("https://example.org/" + name);
+        component.addExternalReference(externalReference);
+        return component;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        try (ComponentStore store = new ComponentStore(temporaryFolder.getRoot())) {
+            final Component component = component("lib");
+            assertNull(store.put(component.getPurl(), component));
+
+            final Component stored = store.get(component.getPurl());
+            assertEquals(component.getPurl(), stored.getPurl());
+            assertEquals(Component.Scope.OPTIONAL, stored.getScope());
+            assertEquals("0123456789abcdef", stored.getHashes().get(0).getValue());
+            assertEquals("Apache-2.0", stored.getLicenses().getLicenses().get(0).getId());
+            assertEquals("https://example.org/lib", stored.getExternalReferences().get(0).getUrl());
+            assertEquals(component, stored);
+        }
+    }
+
+    @Test
+    public void testPutAgain() throws Exception {
+        try (ComponentStore store = new ComponentStore(temporaryFolder.getRoot())) {
+            final Component component = component("lib");
+            store.put(component.getPurl(), component);
+            final Component stored = store.get(component.getPurl());
+            stored.setScope(Component.Scope.REQUIRED);
+            assertEquals(Component.Scope.OPTIONAL, store.get(component.getPurl()).getScope());
+
+            assertNull(store.put(component.getPurl(), stored));
+            assertEquals(Component.Scope.REQUIRED, store.get(component.getPurl()).getScope());
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void testOrderAndRemoval() throws Exception {
+        try (ComponentStore store = new ComponentStore(temporaryFolder.getRoot())) {
+            for (String name : Arrays.asList("c", "a", "b", "d")) {
+                final Component component = component(name);
+                store.put(component.getPurl(), component);
+            }
+            assertEquals("a", store.remove(component("a").getPurl()).getName());
+            for (Iterator<Map.Entry<String, Component>> it = store.entrySet().iterator(); it.hasNext(); ) {
+                if (it.next().getKey().contains("/d@")) {
+                    it.remove();
+                }
+            }
+            assertFalse(store.containsKey(component("d").getPurl()));
+            assertTrue(store.containsKey(component("b").getPurl()));
+
+            final List<Component> components = store.asList();
+            assertEquals(2, components.size());
+            assertEquals("c", components.get(0).getName());
+            assertEquals("b", components.get(1).getName());
+        }
+    }
+
+    @Test
+    public void testTemporaryFileDeleted() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        try (ComponentStore store = new ComponentStore(directory)) {
+            store.put("pkg:maven/org.example/lib@1.0?type=jar", component("lib"));
+            assertTrue(store.getLength() > 0);
+        }
+        assertEquals(0, directory.list().length);
+    }
+}
@@ -0,0 +1,149 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.cyclonedx.model.Dependency;
+import org.junit.Test;
+
+/**
+ * Dependency graph keeps the semantics of the former map of CycloneDX dependencies: insertion order, deduplicated
+ * edges, first dependency kept unless merged.
+ */
+public class DependencyGraphTest {
+    private static Dependency dependency(final String ref, final String... dependsOn) {
+        final Dependency dependency = new Dependency(ref);
+        for (String on : dependsOn) {
+            dependency.addDependency(new Dependency(on));
+        }
+        return dependency;
+    }
+
+    private static List<String> dependsOn(final Dependency dependency) {
+        final String[] refs = dependency.getDependencies().stream().map(Dependency::getRef).toArray(String[]::new);
+        return Arrays.asList(refs);
+    }
+
+    @Test
+    public void testMaterialize() {
+        final DependencyGraph graph = new DependencyGraph();
+        assertTrue(graph.add("a"));
+        assertTrue(graph.add("b"));
+        assertFalse(graph.add("a"));
+        assertTrue(graph.addDependsOn("a", "b"));
+        assertTrue(graph.addDependsOn("a", "c"));
+        assertFalse(graph.addDependsOn("a", "b"));
+        graph.add("c");
+
+        assertEquals(3, graph.size());
+        assertEquals(Arrays.asList("a", "b", "c"), graph.getRefs());
+        final List<Dependency> dependencies = graph.toDependencies();
+        assertEquals(3, dependencies.size());
+        assertEquals(Arrays.asList("b", "c"), dependsOn(dependencies.get(0)));
+        assertNull(dependencies.get(1).getDependencies());
+    }
+
+    @Test
+    public void testDependedOn() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.add("a");
+        graph.addDependsOn("a", "b");
+        assertFalse(graph.contains("b"));
+        assertTrue(graph.isDependedOn("b"));
+        assertFalse(graph.isDependedOn("a"));
+        assertFalse(graph.isDependedOn("unknown"));
+
+        graph.add("b");
+        graph.addDependsOn("b", "a");
+        assertTrue(graph.contains("b"));
+        assertTrue(graph.isDependedOn("a"));
+    }
+
+    @Test
+    public void testPutAllIfAbsent() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.mergeAll(Arrays.asList(dependency("a", "b"), dependency("b")));
+        final DependencyGraph module = new DependencyGraph();
+        module.mergeAll(Arrays.asList(dependency("a", "c"), dependency("c")));
+        graph.putAllIfAbsent(module);
+
+        final List<Dependency> dependencies = graph.toDependencies();
+        assertEquals(3, dependencies.size());
+        assertEquals(Collections.singletonList("b"), dependsOn(dependencies.get(0)));
+        assertEquals("c", dependencies.get(2).getRef());
+    }
+
+    @Test
+    public void testMergeAll() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.mergeAll(Arrays.asList(dependency("a", "b", "c"), dependency("b"), dependency("c")));
+        graph.mergeAll(Arrays.asList(dependency("a", "c", "d"), dependency("d")));
+
+        final List<Dependency> dependencies = graph.toDependencies();
+        assertEquals(4, dependencies.size());
+        assertEquals(Arrays.asList("b", "c", "d"), dependsOn(dependencies.get(0)));
+    }
+
+    @Test
+    public void testMergeGraphs() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.mergeAll(Arrays.asList(dependency("a", "b"), dependency("b")));
+        final DependencyGraph module = new DependencyGraph();
+        module.mergeAll(Arrays.asList(dependency("c"), dependency("a", "c", "b")));
+        graph.mergeAll(module);
+
+        final List<Dependency> dependencies = graph.toDependencies();
+        assertEquals(Arrays.asList("a", "b", "c"), graph.getRefs());
+        assertEquals(Arrays.asList("b", "c"), dependsOn(dependencies.get(0)));
+        assertTrue(graph.isDependedOn("c"));
+    }
+
+    @Test
+    public void testSortDependsOn() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.add("a");
+        graph.addDependsOn("a", "pkg:maven/z");
+        graph.addDependsOn("a", "pkg:maven/b");
+        graph.addDependsOn("a", "pkg:maven/m");
+        graph.addDependsOn("pkg:maven/m", "a");
+        graph.sortDependsOn();
+
+        assertEquals(Arrays.asList("pkg:maven/b", "pkg:maven/m", "pkg:maven/z"), dependsOn(graph.toDependencies().get(0)));
+        assertFalse(graph.addDependsOn("a", "pkg:maven/m"));
+    }
+
+    @Test
+    public void testManyEdges() {
+        final DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 1000; i++) {
+            graph.add("node-" + i);
+            for (int j = 0; j < 100; j++) {
+                graph.addDependsOn("node-" + i, "node-" + ((i + j * 7) % 1000));
+                graph.addDependsOn("node-" + i, "node-" + ((i + j * 7) % 1000));
+            }
+        }
+        int edges = 0;
+        for (Dependency dependency : graph.toDependencies()) {
+            edges += dependency.getDependencies().size();
+        }
+        assertEquals(100_000, edges);
+    }
+
+    @Test
+    public void testSharedTargets() {
+        final DependencyGraph graph = new DependencyGraph(new StringPool());
+        graph.add("a");
+        graph.add("b");
+        graph.addDependsOn("a", "c");
+        graph.addDependsOn("b", "c");
+        final List<Dependency> dependencies = graph.toDependencies();
+        assertSame(dependencies.get(0).getDependencies().get(0), dependencies.get(1).getDependencies().get(0));
+    }
+}
@@ -0,0 +1,176 @@
+package org.cyclonedx.maven;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Incremental mode: BOM generation is skipped when inputs fingerprint is unchanged.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class IncrementalTest extends BaseMavenVerifier {
+
+    public IncrementalTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testUnchangedInputsSkipGeneration() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+
+        execution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+        assertFilesPresent(projDir, "target/bom.fingerprint", "target/bom.json", "target/bom.xml");
+
+        execution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Inputs unchanged since previous execution, skipping BOM generation")
+                .assertLogText("attaching as reproducible-1.0.0-cyclonedx.json")
+                .assertNoLogText("[INFO] CycloneDX: Resolving Dependencies");
+
+        // changed parameter
+        execution(projDir)
+                .withCliOption("-DincludeTestScope=true")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+
+        // missing output
+        new File(projDir, "target/bom.xml").delete();
+        execution(projDir)
+                .withCliOption("-DincludeTestScope=true")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+        assertFilesPresent(projDir, "target/bom.xml");
+    }
+
+    @Test
+    public void testChangedDependencyFileWithoutDependencyResolution() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+        final File pom = new File(projDir, "pom.xml");
+        final String content = new String(Files.readAllBytes(pom.toPath()), StandardCharsets.UTF_8);
+        Files.write(pom.toPath(), content.replace("<version>3.14.0</version>", "<version>3.14.0</version>\n"
+                + "            <scope>system</scope>\n"
+                + "            <systemPath>${project.basedir}/lib/commons-lang3.jar</systemPath>").getBytes(StandardCharsets.UTF_8));
+        final File dependencyFile = new File(projDir, "lib/commons-lang3.jar");
+        Files.createDirectories(dependencyFile.getParentFile().toPath());
+        Files.write(dependencyFile.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+
+        // goal executed alone: no other plugin resolves project dependencies
+        final String goal = "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeBom";
+        execution(projDir)
+                .execute(goal)
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+        execution(projDir)
+                .execute(goal)
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Inputs unchanged since previous execution, skipping BOM generation");
+
+        Files.write(dependencyFile.toPath(), "second".getBytes(StandardCharsets.UTF_8));
+        execution(projDir)
+                .execute(goal)
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+    }
+
+    @Test
+    public void testChangedReactorDependencyClasses() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+        // without package phase, module-b depends on the output directory of module-a
+        final File classFile = new File(projDir, "module-a/target/classes/A.class");
+        Files.createDirectories(classFile.getParentFile().toPath());
+        Files.write(classFile.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+
+        final String goal = "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeBom";
+        execution(projDir)
+                .execute("compile", goal)
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+        execution(projDir)
+                .execute("compile", goal)
+                .assertErrorFreeLog()
+                .assertNoLogText("[INFO] CycloneDX: Resolving Dependencies");
+
+        Files.write(classFile.toPath(), "second".getBytes(StandardCharsets.UTF_8));
+        execution(projDir)
+                .execute("compile", goal)
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Resolving Dependencies");
+    }
+
+    @Test
+    public void testAggregateReusesUnchangedModules() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        aggregateExecution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 0 module(s) reused from incremental cache");
+        assertFilesPresent(projDir, "target/cyclonedx-modules/com.example.aggregate_module-a.json",
+                "target/cyclonedx-modules/com.example.aggregate_module-b.json");
+
+        // module-b changed: root and module-a are reused
+        changeDescription(new File(projDir, "module-b/pom.xml"), "changed B");
+        aggregateExecution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 2 module(s) reused from incremental cache");
+
+        // module-a changed: module-b depends on it, only root is reused
+        changeDescription(new File(projDir, "module-a/pom.xml"), "changed A");
+        aggregateExecution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 1 module(s) reused from incremental cache");
+
+        // full analysis gives the same BOM as the one aggregated from cached modules
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion())
+                .withCliOption("-B")
+                .withCliOption("-DaggregateExecution")
+                .withCliOption("-DoutputReactorProjects=false")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: BOM (JSON) is up to date");
+    }
+
+    private static void changeDescription(File pom, String description) throws IOException {
+        final String content = new String(Files.readAllBytes(pom.toPath()), StandardCharsets.UTF_8);
+        Files.write(pom.toPath(), content.replace("<packaging>jar</packaging>", "<packaging>jar</packaging>\n    <description>" + description + "</description>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * makeAggregateBom bound to package, without module-only BOMs.
+     */
+    private MavenExecution aggregateExecution(File projDir) throws Exception {
+        return execution(projDir)
+                .withCliOption("-DaggregateExecution")
+                .withCliOption("-DoutputReactorProjects=false");
+    }
+
+    private MavenExecution execution(File projDir) throws Exception {
+        return verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-Dcyclonedx.incremental")
+                .withCliOption("-B");
+    }
+}
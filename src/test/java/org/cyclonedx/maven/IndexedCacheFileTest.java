@@ -0,0 +1,140 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Lookups in the memory-mapped cache file, and merges of new entries.
+ */
+public class IndexedCacheFileTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static ComponentCache.Entry entry(final String key, final String component) {
+        return new ComponentCache.Entry(key, "org/example/" + key + ".jar", key.length(), 1000L, 2000L, component.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        final List<ComponentCache.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.add(entry("pkg:maven/org.example/lib-" + i + "@1.0?type=jar#1.6", "{\"name\":\"lib-" + i + "\"}"));
+        }
+        entries.add(entry("pkg:maven/org.example/été@1.0?type=jar#1.6", "{}"));
+        final File file = temporaryFolder.newFile("components.idx");
+        IndexedCacheFile.write(file, "1.0", entries);
+
+        final IndexedCacheFile cacheFile = IndexedCacheFile.open(file);
+        assertEquals("1.0", cacheFile.getPluginVersion());
+        assertEquals(1001, cacheFile.size());
+        for (ComponentCache.Entry entry : entries) {
+            final ComponentCache.Entry read = cacheFile.get(entry.key);
+            assertEquals(entry.key, read.key);
+            assertEquals(entry.path, read.path);
+            assertEquals(entry.length, read.length);
+            assertEquals(entry.lastModified, read.lastModified);
+            assertEquals(entry.lastUsed, read.lastUsed);
+            assertArrayEquals(entry.component, read.component);
+        }
+        for (int i = 1000; i < 2000; i++) {
+            assertNull(cacheFile.get("pkg:maven/org.example/lib-" + i + "@1.0?type=jar#1.6"));
+        }
+        assertNull(cacheFile.get(""));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final File file = temporaryFolder.newFile("components.idx");
+        IndexedCacheFile.write(file, "1.0", new ArrayList<>());
+        assertEquals(0, IndexedCacheFile.open(file).size());
+        assertNull(IndexedCacheFile.open(file).get("pkg:maven/org.example/lib@1.0"));
+        assertNull(IndexedCacheFile.open(new File(temporaryFolder.getRoot(), "missing.idx")));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        final File file = temporaryFolder.newFile("components.idx");
+        IndexedCacheFile.write(file, "1.0", Arrays.asList(entry("b", "old b"), entry("d", "d")));
+
+        final File merged = new File(temporaryFolder.getRoot(), "merged.idx");
+        assertEquals(2, IndexedCacheFile.merge(merged, "1.0", IndexedCacheFile.open(file), Arrays.asList(entry("c", "c"), entry("b", "new b"), entry("a", "a")), false));
+        IndexedCacheFile cacheFile = IndexedCacheFile.open(merged);
+        assertEquals(4, cacheFile.size());
+        assertEquals("old b", new String(cacheFile.get("b").component, StandardCharsets.UTF_8));
+        final List<String> keys = new ArrayList<>();
+        for (ComponentCache.Entry entry : cacheFile.entries()) {
+            keys.add(entry.key);
+        }
+        assertEquals(Arrays.asList("a", "b", "c", "d"), keys);
+
+        assertEquals(1, IndexedCacheFile.merge(merged, "1.0", IndexedCacheFile.open(file), Arrays.asList(entry("b", "new b")), true));
+        cacheFile = IndexedCacheFile.open(merged);
+        assertEquals(2, cacheFile.size());
+        assertEquals("new b", new String(cacheFile.get("b").component, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOtherFormatVersion() throws Exception {
+        final File file = temporaryFolder.newFile("components.idx");
+        final ByteBuffer header = ByteBuffer.allocate(12);
+        header.put("CDXINDEX".getBytes(StandardCharsets.US_ASCII)).putInt(IndexedCacheFile.FORMAT_VERSION - 1);
+        Files.write(file.toPath(), header.array());
+        assertNull(IndexedCacheFile.open(file));
+    }
+
+    @Test
+    public void testInvalidFile() throws Exception {
+        final File file = temporaryFolder.newFile("components.idx");
+        Files.write(file.toPath(), "not a cache file".getBytes(StandardCharsets.UTF_8));
+        assertNull(IndexedCacheFile.open(file));
+
+        // truncated records
+        IndexedCacheFile.write(file, "1.0", Arrays.asList(entry("a", "a"), entry("b", "b")));
+        final byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 1));
+        assertNull(IndexedCacheFile.open(file));
+    }
+
+    @Test
+    public void testCorruptIndexEntry() throws Exception {
+        final File file = temporaryFolder.newFile("components.idx");
+        IndexedCacheFile.write(file, "1.0", Arrays.asList(entry("a", "a"), entry("b", "b"), entry("c", "c")));
+        final byte[] content = Files.readAllBytes(file.toPath());
+        // header, one long of Bloom filter bits, then index entries of 20 bytes: offset and 3 lengths
+        final int middleEntry = 8 + 4 + 4 + 3 + 4 + 4 + 4 + 8 + 20;
+
+        // record offset, then component length, out of the records: ignored like an invalid file, instead of
+        // failing lookups
+        final ByteBuffer offset = ByteBuffer.wrap(content.clone());
+        offset.putLong(middleEntry, Integer.MAX_VALUE);
+        Files.write(file.toPath(), offset.array());
+        assertNull(IndexedCacheFile.open(file));
+
+        final ByteBuffer length = ByteBuffer.wrap(content.clone());
+        length.putInt(middleEntry + 16, Integer.MAX_VALUE - 100);
+        Files.write(file.toPath(), length.array());
+        assertNull(IndexedCacheFile.open(file));
+
+        final ByteBuffer negative = ByteBuffer.wrap(content.clone());
+        negative.putInt(middleEntry + 8, -1);
+        negative.putInt(middleEntry + 12, negative.getInt(middleEntry + 12) + 1);
+        Files.write(file.toPath(), negative.array());
+        assertNull(IndexedCacheFile.open(file));
+
+        Files.write(file.toPath(), content);
+        assertEquals("b", new String(IndexedCacheFile.open(file).get("b").component, StandardCharsets.UTF_8));
+    }
+}
@@ -93,7 +93,7 @@ class Issue671Test {
             }
         };
 
-        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(throwingDelegate);
+        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(throwingDelegate, new ExecutionMetrics());
 
         // Should not throw - the IllegalArgumentException should be caught internally
         CollectResult result = assertDoesNotThrow(
@@ -135,7 +135,7 @@ class Issue671Test {
             }
         };
 
-        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(normalDelegate);
+        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(normalDelegate, new ExecutionMetrics());
 
         CollectResult result = assertDoesNotThrow(
                 () -> delegating.collectDependencies(null, new CollectRequest()));
@@ -174,7 +174,7 @@ class Issue671Test {
             }
         };
 
-        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(failingDelegate);
+        final DelegatingRepositorySystem delegating = new DelegatingRepositorySystem(failingDelegate, new ExecutionMetrics());
 
         CollectResult result = assertDoesNotThrow(
                 () -> delegating.collectDependencies(null, new CollectRequest()));
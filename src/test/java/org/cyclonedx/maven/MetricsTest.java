@@ -0,0 +1,133 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Execution metrics: summary table in verbose mode, JSON report, slowest artifacts report, trace and JVM cache hits.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class MetricsTest extends BaseMavenVerifier {
+
+    public MetricsTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testMetricsReport() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-Dcyclonedx.verbose")
+                .withCliOption("-Dcyclonedx.metrics")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Metrics");
+
+        final JsonNode metrics = new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-metrics.json"));
+        assertEquals("makeBom", metrics.get("goal").asText());
+        assertEquals("com.example:reproducible:jar:1.0.0", metrics.get("project").asText());
+
+        final JsonNode phases = metrics.get("phases");
+        for (String phase : new String[] {"collect", "resolve", "hash", "effectivePom", "serialize", "validate", "write"}) {
+            assertTrue("missing phase " + phase, phases.has(phase));
+        }
+        assertEquals(2, phases.get("serialize").get("count").asInt()); // XML and JSON
+
+        final JsonNode counters = metrics.get("counters");
+        assertEquals(1, counters.get("components").asInt());
+        assertTrue(counters.get("bytesHashed").asLong() > 0);
+    }
+
+    @Test
+    public void testSlowestArtifacts() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DaggregateExecution")
+                .withCliOption("-DoutputReactorProjects=false")
+                .withCliOption("-Dcyclonedx.slowestArtifacts=1")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: 1 slowest artifact(s)");
+
+        final JsonNode report = new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-slowest-artifacts.json"));
+        assertEquals("makeAggregateBom", report.get("goal").asText());
+        final JsonNode artifacts = report.get("artifacts");
+        assertEquals(1, artifacts.size());
+        final JsonNode slowest = artifacts.get(0);
+        assertTrue(slowest.get("artifact").asText().startsWith("com.example.aggregate:") || slowest.get("artifact").asText().startsWith("org.apache.commons:"));
+        assertTrue(slowest.get("durationMs").asDouble() + 0.002 >= slowest.get("hashMs").asDouble() + slowest.get("metadataMs").asDouble());
+    }
+
+    @Test
+    public void testTrace() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DaggregateExecution")
+                .withCliOption("-DoutputReactorProjects=false")
+                .withCliOption("-Dcyclonedx.trace")
+                .execute("package")
+                .assertErrorFreeLog();
+
+        final JsonNode trace = new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-trace.json"));
+        final Set<String> categories = new HashSet<>();
+        final Set<String> modules = new HashSet<>();
+        for (JsonNode event : trace.get("traceEvents")) {
+            if ("X".equals(event.get("ph").asText())) {
+                final String category = event.get("cat").asText();
+                categories.add(category);
+                if ("module".equals(category)) {
+                    modules.add(event.get("name").asText());
+                }
+                assertTrue(event.get("dur").asDouble() >= 0);
+            }
+        }
+        assertTrue(categories.containsAll(Arrays.asList("module", "component", "hash", "effectivePom", "collect", "resolve", "serialize", "write")));
+        assertEquals(new HashSet<>(Arrays.asList("aggregate", "module-a", "module-b")), modules);
+    }
+
+    @Test
+    public void testJvmCacheHits() throws Exception {
+        File projDir = resources.getBasedir("aggregate");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DmoduleBoms")
+                .withCliOption("-Dcyclonedx.metrics")
+                .execute("package", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":makeAggregateBom")
+                .assertErrorFreeLog();
+
+        // components and plugin hashes already computed by module executions in the same JVM
+        final JsonNode counters = new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-metrics.json")).get("counters");
+        assertTrue(counters.get("jvmCacheHits").asInt() >= 2);
+    }
+}
@@ -0,0 +1,89 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Resolver accounting, strict no-download mode and Maven offline mode.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class NoDownloadTest extends BaseMavenVerifier {
+
+    public NoDownloadTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testLocalArtifactsOnly() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+        MavenExecution execution = verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B");
+
+        // first build may download commons-lang3
+        execution
+                .execute("package")
+                .assertErrorFreeLog();
+
+        execution
+                .withCliOption("-Dcyclonedx.metrics")
+                .withCliOption("-Dcyclonedx.noDownload")
+                .execute("package")
+                .assertErrorFreeLog();
+
+        final JsonNode counters = new ObjectMapper().readTree(new File(projDir, "target/cyclonedx-metrics.json")).get("counters");
+        assertTrue(counters.get("resolverArtifactRequests").asInt() > 0);
+        assertTrue(counters.get("resolverLocalHits").asInt() > 0);
+        assertFalse(counters.has("resolverRemoteFetches"));
+        assertEquals(1, counters.get("components").asInt());
+    }
+
+    @Test
+    public void testFailOnDownload() throws Exception {
+        File projDir = resources.getBasedir("no-download");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-Dcyclonedx.noDownload")
+                .execute("package")
+                .assertLogText("CycloneDX: BOM generation requires a download in no-download mode, artifacts not available in local repository: com.example.nodownload:missing:pom:1.0.0")
+                .assertLogText("BUILD FAILURE");
+    }
+
+    @Test
+    public void testOfflinePartialComponent() throws Exception {
+        File projDir = resources.getBasedir("no-download");
+
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-o")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("CycloneDX: offline, 2 artifact(s) not available in local repository, with partial component: com.example.nodownload:missing:pom:1.0.0, com.example.nodownload:missing:jar:1.0.0");
+
+        final JsonNode bom = new ObjectMapper().readTree(new File(projDir, "target/bom.json"));
+        final JsonNode component = bom.get("components").get(0);
+        assertEquals("pkg:maven/com.example.nodownload/missing@1.0.0?type=jar", component.get("purl").asText());
+        assertFalse(component.has("hashes"));
+    }
+}
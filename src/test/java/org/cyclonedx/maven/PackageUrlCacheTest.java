@@ -0,0 +1,66 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * Package URL fast path must give the same canonical form as {@link PackageURL}.
+ */
+public class PackageUrlCacheTest {
+    private static final String[][] COORDINATES = {
+        {"org.apache.commons", "commons-lang3", "3.14.0", "jar", null},
+        {"org.apache.commons", "commons-lang3", null, "jar", null},
+        {"org.example", "native_lib", "1.0-SNAPSHOT", "jar", "linux-x86_64"},
+        {"org.example", "bom", "1.0", "pom", null},
+        {"org.example", "Mixed.Case", "1.0~rc1", null, null},
+        {"org.example", "tests", "1.0", null, "tests"},
+        // percent-encoded values
+        {"org.example", "build", "1.0+build.5", "jar", null},
+        {"org.example", "space", "1.0", "test-jar", "with space"},
+        {"org.example", "unicode", "1.0-é", "jar", null},
+    };
+
+    private static String expected(final String[] coordinates) throws MalformedPackageURLException {
+        TreeMap<String, String> qualifiers = null;
+        if (coordinates[3] != null || coordinates[4] != null) {
+            qualifiers = new TreeMap<>();
+            if (coordinates[3] != null) {
+                qualifiers.put("type", coordinates[3]);
+            }
+            if (coordinates[4] != null) {
+                qualifiers.put("classifier", coordinates[4]);
+            }
+        }
+        return new PackageURL(PackageURL.StandardTypes.MAVEN, coordinates[0], coordinates[1], coordinates[2], qualifiers, null).canonicalize();
+    }
+
+    @Test
+    public void testCanonicalForm() throws Exception {
+        for (String[] coordinates : COORDINATES) {
+            assertEquals(expected(coordinates),
+                    PackageUrlCache.canonicalize(coordinates[0], coordinates[1], coordinates[2], coordinates[3], coordinates[4]));
+        }
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        final PackageUrlCache cache = new PackageUrlCache();
+        final String purl = cache.get("org.example", "lib", "1.0", "jar", null);
+        assertEquals("pkg:maven/org.example/lib@1.0?type=jar", purl);
+        assertSame(purl, cache.get(new String("org.example"), "lib", "1.0", "jar", null));
+        assertEquals("pkg:maven/org.example/lib@1.0?classifier=sources&type=jar", cache.get("org.example", "lib", "1.0", "jar", "sources"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test(expected = MalformedPackageURLException.class)
+    public void testEmptyQualifier() throws Exception {
+        new PackageUrlCache().get("org.example", "lib", "1.0", "jar", "");
+    }
+}
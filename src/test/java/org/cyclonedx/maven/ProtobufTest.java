@@ -0,0 +1,103 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.parsers.JsonParser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import cyclonedx.v1_6.Bom16;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Protobuf output format: check that the binary BOM can be read back and describes the same content as the JSON BOM.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class ProtobufTest extends BaseMavenVerifier {
+
+    public ProtobufTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testProtobufRoundTrip() throws Exception {
+        File projDir = resources.getBasedir("protobuf");
+        build(projDir, "json");
+        build(projDir, "protobuf");
+
+        final File bomFile = new File(projDir, "target/bom.bin");
+        assertTrue("protobuf BOM should be generated", bomFile.exists());
+        assertFalse("xml BOM should not be generated", new File(projDir, "target/bom.xml").exists());
+
+        final Bom json = new JsonParser().parse(new File(projDir, "target/bom.json"));
+        final Bom16.Bom proto = Bom16.Bom.parseFrom(Files.readAllBytes(bomFile.toPath()));
+
+        assertEquals("1.6", proto.getSpecVersion());
+        assertEquals(json.getSerialNumber(), proto.getSerialNumber());
+        assertEquals(json.getMetadata().getComponent().getPurl(), proto.getMetadata().getComponent().getPurl());
+        assertEquals(Bom16.LifecyclePhase.LIFECYCLE_PHASE_BUILD, proto.getMetadata().getLifecycles(0).getPhase());
+        assertEquals("cyclonedx-maven-plugin", proto.getMetadata().getTools().getComponents(0).getName());
+        assertEquals(getCurrentVersion(), proto.getMetadata().getTools().getComponents(0).getVersion());
+
+        assertEquals(json.getComponents().size(), proto.getComponentsCount());
+        for (Bom16.Component protoComponent : proto.getComponentsList()) {
+            final Component jsonComponent = json.getComponents().stream()
+                    .filter(c -> c.getPurl().equals(protoComponent.getPurl()))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("Missing component " + protoComponent.getPurl()));
+            assertEquals(jsonComponent.getBomRef(), protoComponent.getBomRef());
+            assertEquals(jsonComponent.getGroup(), protoComponent.getGroup());
+            assertEquals(jsonComponent.getName(), protoComponent.getName());
+            assertEquals(jsonComponent.getVersion(), protoComponent.getVersion());
+            assertEquals(Bom16.Scope.valueOf("SCOPE_" + jsonComponent.getScope().name()), protoComponent.getScope());
+            assertEquals(jsonComponent.getHashes().size(), protoComponent.getHashesCount());
+            assertEquals(jsonComponent.getLicenseChoice().getLicenses().get(0).getId(), protoComponent.getLicenses(0).getLicense().getId());
+            assertEquals(jsonComponent.getExternalReferences().size(), protoComponent.getExternalReferencesCount());
+        }
+
+        assertEquals(dependencies(json.getDependencies()), protoDependencies(proto.getDependenciesList()));
+    }
+
+    private void build(File projDir, String outputFormat) throws Exception {
+        verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DoutputFormat=" + outputFormat)
+                .execute("package")
+                .assertErrorFreeLog();
+    }
+
+    private static Map<String, List<String>> dependencies(List<Dependency> dependencies) {
+        final Map<String, List<String>> result = new TreeMap<>();
+        for (Dependency dependency : dependencies) {
+            result.put(dependency.getRef(), dependency.getDependencies() == null ? Collections.emptyList()
+                    : dependency.getDependencies().stream().map(Dependency::getRef).collect(Collectors.toList()));
+        }
+        return result;
+    }
+
+    private static Map<String, List<String>> protoDependencies(List<Bom16.Dependency> dependencies) {
+        final Map<String, List<String>> result = new TreeMap<>();
+        for (Bom16.Dependency dependency : dependencies) {
+            result.put(dependency.getRef(), dependency.getDependenciesList().stream().map(Bom16.Dependency::getRef).collect(Collectors.toList()));
+        }
+        return result;
+    }
+}
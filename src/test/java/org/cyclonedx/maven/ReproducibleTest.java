@@ -0,0 +1,61 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Reproducible Builds mode: an unchanged BOM is not rewritten.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class ReproducibleTest extends BaseMavenVerifier {
+
+    public ReproducibleTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder);
+    }
+
+    @Test
+    public void testUnchangedBomIsNotRewritten() throws Exception {
+        File projDir = resources.getBasedir("reproducible");
+        File bomFile = new File(projDir, "target/bom.json");
+
+        execution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Writing and validating BOM (JSON)");
+
+        // make any rewrite visible in the file modification time
+        bomFile.setLastModified(bomFile.lastModified() - 10_000);
+        final long lastModified = bomFile.lastModified();
+
+        execution(projDir)
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: BOM (JSON) is up to date")
+                .assertLogText("[INFO] CycloneDX: BOM (XML) is up to date")
+                .assertNoLogText("[INFO] CycloneDX: Writing and validating BOM");
+        assertEquals(lastModified, bomFile.lastModified());
+
+        execution(projDir)
+                .withCliOption("-DincludeBomSerialNumber=false")
+                .execute("package")
+                .assertErrorFreeLog()
+                .assertLogText("[INFO] CycloneDX: Writing and validating BOM (JSON)");
+    }
+
+    private MavenExecution execution(File projDir) throws Exception {
+        return verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B");
+    }
+}
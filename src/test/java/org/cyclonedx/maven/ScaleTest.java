@@ -0,0 +1,151 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.takari.maven.testing.executor.MavenExecution;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+/**
+ * Scale tests on a synthetic reactor, in a forked Maven with limited heap and a wall-clock ceiling.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.6.3"})
+public class ScaleTest extends BaseMavenVerifier {
+    private static final int MODULES = 30;
+    private static final int WAR_MODULES = 3;
+    private static final int SHARED_ARTIFACTS = 300;
+
+    private static final String MAX_HEAP = "-Xmx256m";
+    private static final long MAX_DURATION_SECONDS = 180;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    public ScaleTest(MavenRuntimeBuilder runtimeBuilder) throws Exception {
+        super(runtimeBuilder.forkedBuilder().withJvmOption(MAX_HEAP));
+    }
+
+    private File generateReactor() throws Exception {
+        final File projDir = temporaryFolder.newFolder("reactor");
+        new SyntheticReactor()
+                .modules(MODULES)
+                .warModules(WAR_MODULES)
+                .sharedArtifacts(SHARED_ARTIFACTS)
+                .depth(4)
+                .fanOut(3)
+                .write(projDir, temporaryFolder.newFolder("repository"));
+        return projDir;
+    }
+
+    private void executeWithinCeiling(final File projDir, final String goal, final String... cliOptions) throws Exception {
+        MavenExecution execution = verifier
+                .forProject(projDir)
+                .withCliOption("-Dcurrent.version=" + getCurrentVersion()) // inject cyclonedx-maven-plugin version
+                .withCliOption("-B")
+                .withCliOption("-DoutputFormat=json");
+        for (String cliOption : cliOptions) {
+            execution = execution.withCliOption(cliOption);
+        }
+        final long start = System.nanoTime();
+        execution
+                .execute("compile", "org.cyclonedx:cyclonedx-maven-plugin:" + getCurrentVersion() + ":" + goal)
+                .assertErrorFreeLog()
+                .assertNoLogText("OutOfMemoryError");
+        final long duration = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        assertTrue(goal + " took " + duration + " s", duration <= MAX_DURATION_SECONDS);
+    }
+
+    private static Set<String> purls(final File bom) throws Exception {
+        final Set<String> purls = new HashSet<>();
+        for (JsonNode component : new ObjectMapper().readTree(bom).get("components")) {
+            purls.add(component.get("purl").asText());
+        }
+        return purls;
+    }
+
+    private static String libraryPurl(final int index, final String classifier) {
+        return "pkg:maven/" + SyntheticReactor.THIRDPARTY_GROUP_ID + '/' + SyntheticReactor.libraryId(index) + '@'
+                + SyntheticReactor.VERSION + ((classifier == null) ? "?type=jar" : "?classifier=" + classifier + "&type=jar");
+    }
+
+    @Test
+    public void testMakeBom() throws Exception {
+        final File projDir = generateReactor();
+        executeWithinCeiling(projDir, "makeBom");
+
+        for (int m = 0; m < MODULES; m++) {
+            assertTrue(new File(projDir, SyntheticReactor.moduleId(m) + "/target/bom.json").isFile());
+        }
+        // module-14: reactor dependencies on module-13 and module-7, classified library, test-scoped tree excluded
+        final Set<String> purls = purls(new File(projDir, SyntheticReactor.moduleId(14) + "/target/bom.json"));
+        assertTrue(purls.contains("pkg:maven/com.example.synthetic/module-13@1.0.0?type=jar"));
+        assertTrue(purls.contains("pkg:maven/com.example.synthetic/module-7@1.0.0?type=jar"));
+        assertTrue(purls.contains(libraryPurl(98, SyntheticReactor.CLASSIFIER)));
+        assertTrue(purls.contains(libraryPurl(42, null)));
+    }
+
+    @Test
+    public void testMakeAggregateBom() throws Exception {
+        final File projDir = generateReactor();
+        executeWithinCeiling(projDir, "makeAggregateBom");
+
+        final Set<String> purls = purls(new File(projDir, "target/bom.json"));
+        for (int m = 0; m < MODULES; m++) {
+            assertTrue(purls.contains("pkg:maven/com.example.synthetic/" + SyntheticReactor.moduleId(m) + "@1.0.0?type="
+                    + ((m < MODULES - WAR_MODULES) ? "jar" : "war")));
+        }
+        // every third-party library is reachable from modules, except test-scoped only trees
+        int libraries = 0;
+        for (int i = 0; i < SHARED_ARTIFACTS; i++) {
+            if (purls.contains(libraryPurl(i, null))) {
+                libraries++;
+            }
+        }
+        assertTrue("only " + libraries + " libraries", libraries >= SHARED_ARTIFACTS / 2);
+    }
+
+    @Test
+    public void testMakeAggregateBomSpillingComponents() throws Exception {
+        final File projDir = generateReactor();
+        executeWithinCeiling(projDir, "makeAggregateBom");
+        final JsonNode bom = new ObjectMapper().readTree(new File(projDir, "target/bom.json"));
+
+        executeWithinCeiling(projDir, "makeAggregateBom", "-Dcyclonedx.spillComponents=true");
+        final JsonNode spilledBom = new ObjectMapper().readTree(new File(projDir, "target/bom.json"));
+        assertEquals(bom.get("components"), spilledBom.get("components"));
+        assertEquals(bom.get("dependencies"), spilledBom.get("dependencies"));
+        final File[] temporaryFiles = new File(projDir, "target").listFiles((dir, name) -> name.startsWith("cyclonedx-components-"));
+        assertEquals(0, temporaryFiles.length);
+    }
+
+    @Test
+    public void testMakePackageBom() throws Exception {
+        final File projDir = generateReactor();
+        executeWithinCeiling(projDir, "makePackageBom");
+
+        final Set<String> purls = purls(new File(projDir, "target/bom.json"));
+        int wars = 0;
+        for (String purl : purls) {
+            if (purl.endsWith("?type=war")) {
+                wars++;
+            }
+        }
+        assertEquals(WAR_MODULES, wars);
+    }
+}
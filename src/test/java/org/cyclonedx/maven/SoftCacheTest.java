@@ -0,0 +1,53 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JVM-scoped cached values are only returned for the stamp of their inputs.
+ */
+public class SoftCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStamp() throws Exception {
+        final SoftCache<String, String> cache = new SoftCache<>();
+        assertNull(cache.get("key", 1));
+        cache.put("key", 1, "value");
+        assertEquals("value", cache.get("key", 1));
+        assertNull(cache.get("key", 2));
+        assertNull(cache.get("other", 1));
+        cache.put("key", 2, "new value");
+        assertEquals("new value", cache.get("key", 2));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFileStamp() throws Exception {
+        final File file = temporaryFolder.newFile("lib-1.0.jar");
+        Files.write(file.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        final SoftCache<String, String> cache = new SoftCache<>();
+        cache.put("lib", SoftCache.stamp(file), "component");
+        assertEquals("component", cache.get("lib", SoftCache.stamp(file)));
+
+        // rebuilt file
+        Files.write(file.toPath(), "new content".getBytes(StandardCharsets.UTF_8));
+        assertNull(cache.get("lib", SoftCache.stamp(file)));
+
+        // same file in another local repository
+        final File other = new File(temporaryFolder.newFolder("other"), file.getName());
+        Files.copy(file.toPath(), other.toPath());
+        other.setLastModified(file.lastModified());
+        cache.put("lib", SoftCache.stamp(file), "component");
+        assertNull(cache.get("lib", SoftCache.stamp(other)));
+    }
+}
@@ -0,0 +1,103 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.generators.BomGeneratorFactory;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Streamed JSON and XML BOMs are identical to the in-memory strings, and JSON BOMs are validated item by item.
+ */
+public class StreamingBomGeneratorTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Component component(final String name) {
+        final Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setGroup("org.example");
+        component.setName(name);
+        component.setVersion("1.0");
+        component.setPurl("pkg:maven/org.example/" + name + "@1.0?type=jar");
+        component.setBomRef(component.getPurl());
+        return component;
+    }
+
+    private static Bom bom(final Component... components) {
+        final Bom bom = new Bom();
+        bom.setSerialNumber("urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79");
+        final Metadata metadata = new Metadata();
+        metadata.setComponent(component("root"));
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(Arrays.asList(components)));
+        final Dependency dependency = new Dependency(components[0].getBomRef());
+        dependency.addDependency(new Dependency(components[1].getBomRef()));
+        bom.setDependencies(new ArrayList<>(Collections.singletonList(dependency)));
+        return bom;
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        final Bom bom = bom(component("a"), component("b"));
+
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new StreamingBomJsonGenerator(bom, Version.VERSION_16).writeTo(json);
+        assertEquals(BomGeneratorFactory.createJson(Version.VERSION_16, bom).toJsonString(),
+                new String(json.toByteArray(), StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        new StreamingBomXmlGenerator(bom, Version.VERSION_16).writeTo(xml);
+        assertEquals(BomGeneratorFactory.createXml(Version.VERSION_16, bom).toXmlString(),
+                new String(xml.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private boolean isValid(final String json, final Version version) throws Exception {
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return StreamingBomJsonGenerator.isValid(file, version);
+    }
+
+    private boolean isValid(final Bom bom, final Version version) throws Exception {
+        return isValid(BomGeneratorFactory.createJson(version, bom).toJsonString(), version);
+    }
+
+    @Test
+    public void testIsValid() throws Exception {
+        assertTrue(isValid(bom(component("a"), component("b")), Version.VERSION_16));
+        assertTrue(isValid(bom(component("a"), component("b")), Version.VERSION_14));
+    }
+
+    @Test
+    public void testIsInvalid() throws Exception {
+        // duplicate component
+        assertFalse(isValid(bom(component("a"), component("b"), component("b")), Version.VERSION_16));
+
+        // invalid component, only seen when validating the components array
+        final Component unnamed = component("b");
+        unnamed.setName(null);
+        assertFalse(isValid(bom(component("a"), unnamed), Version.VERSION_16));
+
+        // missing required top-level property
+        assertFalse(isValid("{\"bomFormat\":\"CycloneDX\",\"components\":[]}", Version.VERSION_16));
+
+        // not JSON
+        assertFalse(isValid("{\"bomFormat\":", Version.VERSION_16));
+    }
+}
@@ -0,0 +1,73 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.junit.Test;
+
+/**
+ * Pooled strings are deduplicated in components.
+ */
+public class StringPoolTest {
+    private static String copy(final String value) {
+        return new String(value.toCharArray());
+    }
+
+    @Test
+    public void testIntern() {
+        final StringPool pool = new StringPool();
+        final String purl = "pkg:maven/org.example/lib@1.0?type=jar";
+        assertSame(purl, pool.intern(purl));
+        assertSame(purl, pool.intern(copy(purl)));
+        assertNull(pool.intern((String) null));
+    }
+
+    @Test
+    public void testInternComponent() {
+        final StringPool pool = new StringPool();
+        final String purl = pool.intern("pkg:maven/org.example/lib@1.0?type=jar");
+        final String group = pool.intern("org.example");
+
+        final Component component = new Component();
+        component.setGroup(copy(group));
+        component.setName("lib");
+        component.setPurl(copy(purl));
+        component.setBomRef(copy(purl));
+        assertSame(component, pool.intern(component));
+        assertSame(group, component.getGroup());
+        assertSame(purl, component.getPurl());
+        assertSame(purl, component.getBomRef());
+    }
+
+    @Test
+    public void testInternSharedLicense() {
+        final StringPool pool = new StringPool();
+        final String name = pool.intern("Apache License 2.0");
+        final AtomicInteger modifications = new AtomicInteger();
+        final License shared = new License() {
+            @Override
+            public void setName(final String name) {
+                modifications.incrementAndGet();
+                super.setName(name);
+            }
+        };
+        shared.setName(copy(name));
+        pool.intern(shared);
+        assertSame(name, shared.getName());
+        assertEquals(2, modifications.get());
+
+        // licenses shared by components, already pooled, are not modified
+        final LicenseChoice licenseChoice = new LicenseChoice();
+        licenseChoice.addLicense(shared);
+        final Component component = new Component();
+        component.setLicenseChoice(licenseChoice);
+        pool.intern(component);
+        assertEquals(2, modifications.get());
+    }
+}
@@ -0,0 +1,105 @@
+package org.cyclonedx.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+import org.junit.Test;
+
+/**
+ * Dependency graphs built with subgraphs reused from other modules must be identical to graphs built by walking.
+ */
+public class SubgraphCacheTest {
+    private static final ProjectDependenciesConverter.MavenDependencyScopes SCOPES =
+            new ProjectDependenciesConverter.MavenDependencyScopes(true, false, true, false, false);
+
+    private static DefaultDependencyNode node(final String artifactId, final String scope, final DependencyNode... children) {
+        return node(artifactId, "", scope, children);
+    }
+
+    private static DefaultDependencyNode node(final String artifactId, final String classifier, final String scope, final DependencyNode... children) {
+        final DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(new DefaultArtifact("com.example", artifactId,
+                classifier, "jar", "1.0", Collections.singletonMap(ArtifactProperties.TYPE, "jar"), (java.io.File) null), scope));
+        node.setChildren(new ArrayList<>(Arrays.asList(children)));
+        return node;
+    }
+
+    /**
+     * A module depending on a shared library closure, with a test-scoped subtree, a conflict marker node, a classified
+     * artifact and a cycle.
+     */
+    private static DependencyNode module(final String artifactId, final boolean withCycle) {
+        final DefaultDependencyNode core = node("core", "compile", node("annotations", "compile"));
+        final DefaultDependencyNode marker = node("core", "compile");
+        marker.setData(ConflictResolver.NODE_DATA_WINNER, core);
+        final DefaultDependencyNode databind = node("databind", "compile", core, node("annotations", "compile"));
+        final DefaultDependencyNode web = node("web", "compile", databind, marker, node("web", "tests", "compile"),
+                node("junit", "test", node("hamcrest", "test")));
+        if (withCycle) {
+            core.getChildren().add(node("web", "runtime", databind));
+        }
+        return node(artifactId, "compile", web, node("runtime-only", "runtime", marker));
+    }
+
+    private static DefaultProjectDependenciesConverter newConverter() throws ReflectiveOperationException {
+        final DefaultProjectDependenciesConverter converter = new DefaultProjectDependenciesConverter();
+        final Field field = DefaultProjectDependenciesConverter.class.getDeclaredField("modelConverter");
+        field.setAccessible(true);
+        field.set(converter, new DefaultModelConverter());
+        return converter;
+    }
+
+    private static List<String> describe(final DependencyGraph graph) {
+        final List<String> description = new ArrayList<>();
+        for (org.cyclonedx.model.Dependency dependency : graph.toDependencies()) {
+            final StringBuilder entry = new StringBuilder(dependency.getRef());
+            if (dependency.getDependencies() != null) {
+                dependency.getDependencies().forEach(on -> entry.append(" -> ").append(on.getRef()));
+            }
+            description.add(entry.toString());
+        }
+        return description;
+    }
+
+    private static void assertSameGraphs(final boolean withCycle) throws ReflectiveOperationException {
+        final DefaultProjectDependenciesConverter converter = newConverter();
+        final SubgraphCache cache = new SubgraphCache();
+        for (String module : Arrays.asList("module-a", "module-b", "module-c")) {
+            final DependencyGraph walked = new DependencyGraph();
+            converter.buildDependencyGraph(walked, module(module, withCycle), SCOPES, new String[0], null);
+            final DependencyGraph reused = new DependencyGraph();
+            converter.buildDependencyGraph(reused, module(module, withCycle), SCOPES, new String[0], cache);
+            assertEquals(describe(walked), describe(reused));
+        }
+    }
+
+    @Test
+    public void testReusedSubgraphs() throws ReflectiveOperationException {
+        assertSameGraphs(false);
+    }
+
+    @Test
+    public void testCyclicSubgraphs() throws ReflectiveOperationException {
+        assertSameGraphs(true);
+    }
+
+    @Test
+    public void testHashConsing() {
+        final SubgraphCache cache = new SubgraphCache();
+        final SubgraphCache.Subgraph leaf = cache.intern(new SubgraphCache.Subgraph("g", "a", "1", null, "jar", new SubgraphCache.Subgraph[0]));
+        final SubgraphCache.Subgraph parent = cache.intern(new SubgraphCache.Subgraph("g", "b", "1", null, "jar", new SubgraphCache.Subgraph[] {leaf}));
+        assertSame(leaf, cache.intern(new SubgraphCache.Subgraph("g", "a", "1", null, "jar", new SubgraphCache.Subgraph[0])));
+        assertSame(parent, cache.intern(new SubgraphCache.Subgraph("g", "b", "1", null, "jar", new SubgraphCache.Subgraph[] {leaf})));
+    }
+}
@@ -0,0 +1,258 @@
+package org.cyclonedx.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Generator of synthetic Maven reactors for scale tests: {@code modules} modules depending on each other and on
+ * {@code sharedArtifacts} third-party artifacts, written with their POMs to a file repository declared by the reactor,
+ * so no network is needed.
+ * Third-party artifacts are organized in {@code depth} levels, each artifact depending on {@code fanOut} artifacts of
+ * the next level. Each module depends on first level artifacts, on an artifact with a classifier and on a test-scoped
+ * tree.
+ */
+class SyntheticReactor {
+    static final String GROUP_ID = "com.example.synthetic";
+    static final String THIRDPARTY_GROUP_ID = GROUP_ID + ".thirdparty";
+    static final String VERSION = "1.0.0";
+    static final String CLASSIFIER = "natives";
+
+    private int modules = 20;
+    private int warModules = 0;
+    private int sharedArtifacts = 200;
+    private int depth = 4;
+    private int fanOut = 3;
+    private int artifactSize = 4096;
+
+    SyntheticReactor modules(final int modules) {
+        this.modules = modules;
+        return this;
+    }
+
+    /**
+     * Sets the number of modules, among all modules, with {@code war} packaging.
+     */
+    SyntheticReactor warModules(final int warModules) {
+        this.warModules = warModules;
+        return this;
+    }
+
+    SyntheticReactor sharedArtifacts(final int sharedArtifacts) {
+        this.sharedArtifacts = sharedArtifacts;
+        return this;
+    }
+
+    SyntheticReactor depth(final int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    SyntheticReactor fanOut(final int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    SyntheticReactor artifactSize(final int artifactSize) {
+        this.artifactSize = artifactSize;
+        return this;
+    }
+
+    private int levelSize() {
+        return (sharedArtifacts + depth - 1) / depth;
+    }
+
+    static String libraryId(final int index) {
+        return "lib-" + index;
+    }
+
+    static String moduleId(final int index) {
+        return "module-" + index;
+    }
+
+    private boolean hasClassifier(final int library) {
+        return library % 7 == 0;
+    }
+
+    /**
+     * Writes the reactor and its third-party artifacts.
+     *
+     * @param projectDir the directory of the reactor root
+     * @param repository the directory of the file repository for third-party artifacts
+     * @throws IOException if a file cannot be written
+     */
+    void write(final File projectDir, final File repository) throws IOException {
+        final Random random = new Random(42);
+        for (int i = 0; i < sharedArtifacts; i++) {
+            writeLibrary(repository, i, random);
+        }
+
+        final List<String> moduleIds = new ArrayList<>();
+        for (int m = 0; m < modules; m++) {
+            moduleIds.add(moduleId(m));
+            writeModule(new File(projectDir, moduleId(m)), m);
+        }
+        final StringBuilder pom = new StringBuilder();
+        pom.append(projectStart(GROUP_ID, "synthetic-reactor", "pom", null));
+        pom.append("    <modules>\n");
+        for (String moduleId : moduleIds) {
+            pom.append("        <module>").append(moduleId).append("</module>\n");
+        }
+        pom.append("    </modules>\n");
+        pom.append("    <properties>\n")
+                .append("        <maven.compiler.source>8</maven.compiler.source>\n")
+                .append("        <maven.compiler.target>8</maven.compiler.target>\n")
+                .append("        <project.build.sourceEncoding>UTF-8</project.build.sourceEncoding>\n")
+                .append("    </properties>\n");
+        pom.append("    <repositories>\n")
+                .append("        <repository>\n")
+                .append("            <id>synthetic</id>\n")
+                .append("            <url>").append(repository.toURI()).append("</url>\n")
+                .append("        </repository>\n")
+                .append("    </repositories>\n");
+        pom.append("</project>\n");
+        write(new File(projectDir, "pom.xml"), pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeModule(final File moduleDir, final int m) throws IOException {
+        final int jarModules = modules - warModules;
+        final boolean war = m >= jarModules;
+        final StringBuilder pom = new StringBuilder();
+        pom.append(projectStart(GROUP_ID, moduleId(m), war ? "war" : "jar", "synthetic-reactor"));
+        pom.append("    <dependencies>\n");
+        // reactor dependencies, on jar modules only
+        final int previous = Math.min(m - 1, jarModules - 1);
+        if (previous >= 0) {
+            pom.append(dependency(GROUP_ID, moduleId(previous), null, null));
+        }
+        final int half = Math.min(m / 2, jarModules - 1);
+        if (m > 1 && half != previous) {
+            pom.append(dependency(GROUP_ID, moduleId(half), null, null));
+        }
+        final int levelSize = levelSize();
+        for (int k = 0; k < fanOut; k++) {
+            pom.append(dependency(THIRDPARTY_GROUP_ID, libraryId((m * fanOut + k) % levelSize), null, null));
+        }
+        final int classified = (m * 7) % sharedArtifacts;
+        if (hasClassifier(classified)) {
+            pom.append(dependency(THIRDPARTY_GROUP_ID, libraryId(classified), CLASSIFIER, null));
+        }
+        final int tested = levelSize + (m * 13) % levelSize;
+        if (tested < sharedArtifacts) {
+            pom.append(dependency(THIRDPARTY_GROUP_ID, libraryId(tested), null, "test"));
+        }
+        pom.append("    </dependencies>\n");
+        pom.append("</project>\n");
+        moduleDir.mkdirs();
+        write(new File(moduleDir, "pom.xml"), pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeLibrary(final File repository, final int index, final Random random) throws IOException {
+        final String artifactId = libraryId(index);
+        final File dir = new File(repository, THIRDPARTY_GROUP_ID.replace('.', '/') + '/' + artifactId + '/' + VERSION);
+        final String base = artifactId + '-' + VERSION;
+
+        final StringBuilder pom = new StringBuilder();
+        pom.append(projectStart(THIRDPARTY_GROUP_ID, artifactId, "jar", null));
+        pom.append("    <description>Synthetic third-party library ").append(index).append("</description>\n");
+        pom.append("    <url>https://example.com/").append(artifactId).append("</url>\n");
+        pom.append("    <licenses>\n")
+                .append("        <license>\n")
+                .append("            <name>Apache-2.0</name>\n")
+                .append("            <url>https://www.apache.org/licenses/LICENSE-2.0.txt</url>\n")
+                .append("        </license>\n")
+                .append("    </licenses>\n");
+        final int levelSize = levelSize();
+        final int level = index / levelSize;
+        if (level + 1 < depth) {
+            pom.append("    <dependencies>\n");
+            for (int k = 0; k < fanOut; k++) {
+                final int child = (level + 1) * levelSize + ((index % levelSize) * fanOut + k) % levelSize;
+                if (child < sharedArtifacts) {
+                    pom.append(dependency(THIRDPARTY_GROUP_ID, libraryId(child), null, null));
+                }
+            }
+            pom.append("    </dependencies>\n");
+        }
+        pom.append("</project>\n");
+
+        writeWithChecksum(new File(dir, base + ".pom"), pom.toString().getBytes(StandardCharsets.UTF_8));
+        writeWithChecksum(new File(dir, base + ".jar"), jar(index, random));
+        if (hasClassifier(index)) {
+            writeWithChecksum(new File(dir, base + '-' + CLASSIFIER + ".jar"), jar(index, random));
+        }
+    }
+
+    private byte[] jar(final int index, final Random random) throws IOException {
+        final ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(jar)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write(("Manifest-Version: 1.0\nImplementation-Title: " + libraryId(index) + "\n").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            final byte[] data = new byte[artifactSize];
+            random.nextBytes(data);
+            zip.putNextEntry(new ZipEntry("data.bin"));
+            zip.write(data);
+            zip.closeEntry();
+        }
+        return jar.toByteArray();
+    }
+
+    private static String projectStart(final String groupId, final String artifactId, final String packaging, final String parentArtifactId) {
+        final StringBuilder project = new StringBuilder();
+        project.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/maven-v4_0_0.xsd\">\n")
+                .append("    <modelVersion>4.0.0</modelVersion>\n");
+        if (parentArtifactId != null) {
+            project.append("    <parent>\n")
+                    .append("        <groupId>").append(groupId).append("</groupId>\n")
+                    .append("        <artifactId>").append(parentArtifactId).append("</artifactId>\n")
+                    .append("        <version>").append(VERSION).append("</version>\n")
+                    .append("    </parent>\n");
+        } else {
+            project.append("    <groupId>").append(groupId).append("</groupId>\n");
+        }
+        project.append("    <artifactId>").append(artifactId).append("</artifactId>\n");
+        if (parentArtifactId == null) {
+            project.append("    <version>").append(VERSION).append("</version>\n");
+        }
+        project.append("    <packaging>").append(packaging).append("</packaging>\n");
+        return project.toString();
+    }
+
+    private static String dependency(final String groupId, final String artifactId, final String classifier, final String scope) {
+        final StringBuilder dependency = new StringBuilder();
+        dependency.append("        <dependency>\n")
+                .append("            <groupId>").append(groupId).append("</groupId>\n")
+                .append("            <artifactId>").append(artifactId).append("</artifactId>\n")
+                .append("            <version>").append(VERSION).append("</version>\n");
+        if (classifier != null) {
+            dependency.append("            <classifier>").append(classifier).append("</classifier>\n");
+        }
+        if (scope != null) {
+            dependency.append("            <scope>").append(scope).append("</scope>\n");
+        }
+        dependency.append("        </dependency>\n");
+        return dependency.toString();
+    }
+
+    private static void writeWithChecksum(final File file, final byte[] content) throws IOException {
+        write(file, content);
+        write(new File(file.getPath() + ".sha1"), DigestUtils.sha1Hex(content).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void write(final File file, final byte[] content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+    }
+}